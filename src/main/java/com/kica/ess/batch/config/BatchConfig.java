@@ -4,12 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
@@ -19,6 +23,7 @@ import java.util.concurrent.TimeUnit;
 public class BatchConfig {
 
   @Bean
+  @Primary
   public WebClient webClient() {
     HttpClient httpClient = HttpClient.create()
         .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)
@@ -33,6 +38,64 @@ public class BatchConfig {
         .build();
   }
 
+  /**
+   * Connection pool used only by health probes. Each remote host gets its own pool of
+   * keep-alive connections; idle and aged connections are evicted in the background so a
+   * probe never lands on a connection the server has already dropped.
+   */
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider probeConnectionProvider(BatchProperties batchProperties) {
+    BatchProperties.Pool pool = getPool(batchProperties);
+    return ConnectionProvider.builder("health-probe")
+        .maxConnections(Math.max(1, pool.getMaxConnectionsPerHost()))
+        .pendingAcquireTimeout(Duration.ofMillis(pool.getPendingAcquireTimeoutMs()))
+        .maxIdleTime(Duration.ofMillis(pool.getMaxIdleTimeMs()))
+        .maxLifeTime(Duration.ofMillis(pool.getMaxLifeTimeMs()))
+        .evictInBackground(Duration.ofMillis(pool.getEvictInBackgroundMs()))
+        .build();
+  }
+
+  /**
+   * Probe client for WARM targets: requests reuse pooled connections.
+   */
+  @Bean
+  public WebClient probeWebClient(@Qualifier("probeConnectionProvider") ConnectionProvider connectionProvider,
+                                  BatchProperties batchProperties) {
+    return probeWebClient(HttpClient.create(connectionProvider), getPool(batchProperties));
+  }
+
+  /**
+   * Probe client for COLD targets: every request opens and closes its own connection, so
+   * each measurement includes DNS, connect and TLS.
+   */
+  @Bean
+  public WebClient coldProbeWebClient(BatchProperties batchProperties) {
+    return probeWebClient(HttpClient.newConnection(), getPool(batchProperties));
+  }
+
+  private WebClient probeWebClient(HttpClient httpClient, BatchProperties.Pool pool) {
+    httpClient = httpClient
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)
+        .responseTimeout(Duration.ofMillis(30000))
+        .keepAlive(true);
+
+    if (pool.isHttp2()) {
+      // h2 is negotiated through ALPN on https targets; plain http stays on HTTP/1.1
+      httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+    }
+
+    // Record DNS / connect / TLS / TTFB phases for each probe
+    httpClient = ProbeTimingObserver.instrument(httpClient);
+
+    return WebClient.builder()
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        .build();
+  }
+
+  private BatchProperties.Pool getPool(BatchProperties batchProperties) {
+    return batchProperties.getPool() != null ? batchProperties.getPool() : new BatchProperties.Pool();
+  }
+
   @Bean
   public ObjectMapper objectMapper() {
     return new ObjectMapper();
@@ -13,6 +13,15 @@ public class BatchProperties {
   private Schedule schedule;
   private Timeout timeout;
   private Telegram telegram;
+  private Probe probe;
+  private Persistence persistence;
+  private Pool pool;
+  private CircuitBreaker circuitBreaker;
+  private Retention retention;
+  private Sla sla;
+  private Alert alert;
+  private Notification notification;
+  private HealthState healthState;
 
   public static class TargetServer {
     private String name;
@@ -40,9 +49,33 @@ public class BatchProperties {
 
   public static class Schedule {
     private String cron;
+    private long wheelTickMs = 1000;
+    private int wheelSize = 512;
+    private long wheelRefreshMs = 30000;
+    private double deadlineRatio = 0.9;
+    private boolean spreadProbes = false;
+    private double spreadRatio = 0.5;
 
     public String getCron() { return cron; }
     public void setCron(String cron) { this.cron = cron; }
+
+    public long getWheelTickMs() { return wheelTickMs; }
+    public void setWheelTickMs(long wheelTickMs) { this.wheelTickMs = wheelTickMs; }
+
+    public int getWheelSize() { return wheelSize; }
+    public void setWheelSize(int wheelSize) { this.wheelSize = wheelSize; }
+
+    public long getWheelRefreshMs() { return wheelRefreshMs; }
+    public void setWheelRefreshMs(long wheelRefreshMs) { this.wheelRefreshMs = wheelRefreshMs; }
+
+    public double getDeadlineRatio() { return deadlineRatio; }
+    public void setDeadlineRatio(double deadlineRatio) { this.deadlineRatio = deadlineRatio; }
+
+    public boolean isSpreadProbes() { return spreadProbes; }
+    public void setSpreadProbes(boolean spreadProbes) { this.spreadProbes = spreadProbes; }
+
+    public double getSpreadRatio() { return spreadRatio; }
+    public void setSpreadRatio(double spreadRatio) { this.spreadRatio = spreadRatio; }
   }
 
   public static class Timeout {
@@ -52,6 +85,290 @@ public class BatchProperties {
     public void setThreshold(long threshold) { this.threshold = threshold; }
   }
 
+  public static class Probe {
+    private int maxConcurrency = 16;
+    private int captureLimitBytes = 2048;
+    private int fullBodyLimitBytes = 1024 * 1024;
+    private int recentResultCapacity = 120;
+
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+
+    public int getCaptureLimitBytes() { return captureLimitBytes; }
+    public void setCaptureLimitBytes(int captureLimitBytes) { this.captureLimitBytes = captureLimitBytes; }
+
+    public int getFullBodyLimitBytes() { return fullBodyLimitBytes; }
+    public void setFullBodyLimitBytes(int fullBodyLimitBytes) { this.fullBodyLimitBytes = fullBodyLimitBytes; }
+
+    public int getRecentResultCapacity() { return recentResultCapacity; }
+    public void setRecentResultCapacity(int recentResultCapacity) { this.recentResultCapacity = recentResultCapacity; }
+  }
+
+  public static class Pool {
+    private int maxConnectionsPerHost = 8;
+    private long pendingAcquireTimeoutMs = 5000;
+    private long maxIdleTimeMs = 60000;
+    private long maxLifeTimeMs = 300000;
+    private long evictInBackgroundMs = 30000;
+    private boolean http2 = false;
+    private boolean prewarm = true;
+    private long prewarmTimeoutMs = 3000;
+
+    public int getMaxConnectionsPerHost() { return maxConnectionsPerHost; }
+    public void setMaxConnectionsPerHost(int maxConnectionsPerHost) { this.maxConnectionsPerHost = maxConnectionsPerHost; }
+
+    public long getPendingAcquireTimeoutMs() { return pendingAcquireTimeoutMs; }
+    public void setPendingAcquireTimeoutMs(long pendingAcquireTimeoutMs) { this.pendingAcquireTimeoutMs = pendingAcquireTimeoutMs; }
+
+    public long getMaxIdleTimeMs() { return maxIdleTimeMs; }
+    public void setMaxIdleTimeMs(long maxIdleTimeMs) { this.maxIdleTimeMs = maxIdleTimeMs; }
+
+    public long getMaxLifeTimeMs() { return maxLifeTimeMs; }
+    public void setMaxLifeTimeMs(long maxLifeTimeMs) { this.maxLifeTimeMs = maxLifeTimeMs; }
+
+    public long getEvictInBackgroundMs() { return evictInBackgroundMs; }
+    public void setEvictInBackgroundMs(long evictInBackgroundMs) { this.evictInBackgroundMs = evictInBackgroundMs; }
+
+    public boolean isHttp2() { return http2; }
+    public void setHttp2(boolean http2) { this.http2 = http2; }
+
+    public boolean isPrewarm() { return prewarm; }
+    public void setPrewarm(boolean prewarm) { this.prewarm = prewarm; }
+
+    public long getPrewarmTimeoutMs() { return prewarmTimeoutMs; }
+    public void setPrewarmTimeoutMs(long prewarmTimeoutMs) { this.prewarmTimeoutMs = prewarmTimeoutMs; }
+  }
+
+  public static class CircuitBreaker {
+    private boolean enabled = true;
+    private int failureThreshold = 3;
+    private long openMs = 300000;
+    private long maxOpenMs = 3600000;
+    private double backoffMultiplier = 2.0;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getFailureThreshold() { return failureThreshold; }
+    public void setFailureThreshold(int failureThreshold) { this.failureThreshold = failureThreshold; }
+
+    public long getOpenMs() { return openMs; }
+    public void setOpenMs(long openMs) { this.openMs = openMs; }
+
+    public long getMaxOpenMs() { return maxOpenMs; }
+    public void setMaxOpenMs(long maxOpenMs) { this.maxOpenMs = maxOpenMs; }
+
+    public double getBackoffMultiplier() { return backoffMultiplier; }
+    public void setBackoffMultiplier(double backoffMultiplier) { this.backoffMultiplier = backoffMultiplier; }
+  }
+
+  public static class Persistence {
+    private int queueCapacity = 10000;
+    private int batchSize = 200;
+    private long flushIntervalMs = 1000;
+    private long offerTimeoutMs = 50;
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public long getFlushIntervalMs() { return flushIntervalMs; }
+    public void setFlushIntervalMs(long flushIntervalMs) { this.flushIntervalMs = flushIntervalMs; }
+
+    public long getOfferTimeoutMs() { return offerTimeoutMs; }
+    public void setOfferTimeoutMs(long offerTimeoutMs) { this.offerTimeoutMs = offerTimeoutMs; }
+  }
+
+  public static class Retention {
+    private boolean enabled = true;
+    private String cron = "0 30 3 * * *";
+    private int executionLogDays = 30;
+    private int minuteRollupHours = 48;
+    private int hourRollupDays = 400;
+    private int batchRunDays = 90;
+    private int chunkSize = 5000;
+    private long throttleMs = 200;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getCron() { return cron; }
+    public void setCron(String cron) { this.cron = cron; }
+
+    public int getExecutionLogDays() { return executionLogDays; }
+    public void setExecutionLogDays(int executionLogDays) { this.executionLogDays = executionLogDays; }
+
+    public int getMinuteRollupHours() { return minuteRollupHours; }
+    public void setMinuteRollupHours(int minuteRollupHours) { this.minuteRollupHours = minuteRollupHours; }
+
+    public int getHourRollupDays() { return hourRollupDays; }
+    public void setHourRollupDays(int hourRollupDays) { this.hourRollupDays = hourRollupDays; }
+
+    public int getBatchRunDays() { return batchRunDays; }
+    public void setBatchRunDays(int batchRunDays) { this.batchRunDays = batchRunDays; }
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public long getThrottleMs() { return throttleMs; }
+    public void setThrottleMs(long throttleMs) { this.throttleMs = throttleMs; }
+  }
+
+  public static class Sla {
+    private double targetPercent = 99.9;
+
+    public double getTargetPercent() { return targetPercent; }
+    public void setTargetPercent(double targetPercent) { this.targetPercent = targetPercent; }
+  }
+
+  public static class Alert {
+    private int queueCapacity = 500;
+    private long coalesceWindowMs = 2000;
+    private long minIntervalMs = 1000;
+    private int maxMessageLength = 4000;
+    private int maxAttempts = 5;
+    private long initialBackoffMs = 1000;
+    private long maxBackoffMs = 60000;
+    private long sendTimeoutMs = 10000;
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public long getCoalesceWindowMs() { return coalesceWindowMs; }
+    public void setCoalesceWindowMs(long coalesceWindowMs) { this.coalesceWindowMs = coalesceWindowMs; }
+
+    public long getMinIntervalMs() { return minIntervalMs; }
+    public void setMinIntervalMs(long minIntervalMs) { this.minIntervalMs = minIntervalMs; }
+
+    public int getMaxMessageLength() { return maxMessageLength; }
+    public void setMaxMessageLength(int maxMessageLength) { this.maxMessageLength = maxMessageLength; }
+
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+    public long getInitialBackoffMs() { return initialBackoffMs; }
+    public void setInitialBackoffMs(long initialBackoffMs) { this.initialBackoffMs = initialBackoffMs; }
+
+    public long getMaxBackoffMs() { return maxBackoffMs; }
+    public void setMaxBackoffMs(long maxBackoffMs) { this.maxBackoffMs = maxBackoffMs; }
+
+    public long getSendTimeoutMs() { return sendTimeoutMs; }
+    public void setSendTimeoutMs(long sendTimeoutMs) { this.sendTimeoutMs = sendTimeoutMs; }
+  }
+
+  public static class HealthState {
+    private int failureThreshold = 3;
+    private int degradedThreshold = 3;
+    private int recoveryThreshold = 2;
+    private int flapThreshold = 4;
+    private long flapWindowMinutes = 30;
+
+    public int getFailureThreshold() { return failureThreshold; }
+    public void setFailureThreshold(int failureThreshold) { this.failureThreshold = failureThreshold; }
+
+    public int getDegradedThreshold() { return degradedThreshold; }
+    public void setDegradedThreshold(int degradedThreshold) { this.degradedThreshold = degradedThreshold; }
+
+    public int getRecoveryThreshold() { return recoveryThreshold; }
+    public void setRecoveryThreshold(int recoveryThreshold) { this.recoveryThreshold = recoveryThreshold; }
+
+    public int getFlapThreshold() { return flapThreshold; }
+    public void setFlapThreshold(int flapThreshold) { this.flapThreshold = flapThreshold; }
+
+    public long getFlapWindowMinutes() { return flapWindowMinutes; }
+    public void setFlapWindowMinutes(long flapWindowMinutes) { this.flapWindowMinutes = flapWindowMinutes; }
+  }
+
+  public static class Notification {
+    private int queueCapacity = 100;
+    private Webhook webhook = new Webhook();
+    private Smtp smtp = new Smtp();
+    private NdjsonFile file = new NdjsonFile();
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public Webhook getWebhook() { return webhook; }
+    public void setWebhook(Webhook webhook) { this.webhook = webhook; }
+
+    public Smtp getSmtp() { return smtp; }
+    public void setSmtp(Smtp smtp) { this.smtp = smtp; }
+
+    public NdjsonFile getFile() { return file; }
+    public void setFile(NdjsonFile file) { this.file = file; }
+  }
+
+  public static class Webhook {
+    private boolean enabled = false;
+    private String url;
+    private long timeoutMs = 5000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public long getTimeoutMs() { return timeoutMs; }
+    public void setTimeoutMs(long timeoutMs) { this.timeoutMs = timeoutMs; }
+  }
+
+  public static class Smtp {
+    private boolean enabled = false;
+    private String host = "localhost";
+    private int port = 25;
+    private boolean ssl = false;
+    private boolean starttls = false;
+    private String username;
+    private String password;
+    private String from;
+    private List<String> to;
+    private long timeoutMs = 10000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getHost() { return host; }
+    public void setHost(String host) { this.host = host; }
+
+    public int getPort() { return port; }
+    public void setPort(int port) { this.port = port; }
+
+    public boolean isSsl() { return ssl; }
+    public void setSsl(boolean ssl) { this.ssl = ssl; }
+
+    public boolean isStarttls() { return starttls; }
+    public void setStarttls(boolean starttls) { this.starttls = starttls; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+
+    public String getFrom() { return from; }
+    public void setFrom(String from) { this.from = from; }
+
+    public List<String> getTo() { return to; }
+    public void setTo(List<String> to) { this.to = to; }
+
+    public long getTimeoutMs() { return timeoutMs; }
+    public void setTimeoutMs(long timeoutMs) { this.timeoutMs = timeoutMs; }
+  }
+
+  public static class NdjsonFile {
+    private boolean enabled = false;
+    private String path = "./logs/notifications.ndjson";
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+  }
+
   public static class Telegram {
     private String botToken;
     private String chatId;
@@ -79,4 +396,31 @@ public class BatchProperties {
 
   public Telegram getTelegram() { return telegram; }
   public void setTelegram(Telegram telegram) { this.telegram = telegram; }
+
+  public Probe getProbe() { return probe; }
+  public void setProbe(Probe probe) { this.probe = probe; }
+
+  public Persistence getPersistence() { return persistence; }
+  public void setPersistence(Persistence persistence) { this.persistence = persistence; }
+
+  public Pool getPool() { return pool; }
+  public void setPool(Pool pool) { this.pool = pool; }
+
+  public CircuitBreaker getCircuitBreaker() { return circuitBreaker; }
+  public void setCircuitBreaker(CircuitBreaker circuitBreaker) { this.circuitBreaker = circuitBreaker; }
+
+  public Retention getRetention() { return retention; }
+  public void setRetention(Retention retention) { this.retention = retention; }
+
+  public Sla getSla() { return sla; }
+  public void setSla(Sla sla) { this.sla = sla; }
+
+  public Alert getAlert() { return alert; }
+  public void setAlert(Alert alert) { this.alert = alert; }
+
+  public Notification getNotification() { return notification; }
+  public void setNotification(Notification notification) { this.notification = notification; }
+
+  public HealthState getHealthState() { return healthState; }
+  public void setHealthState(HealthState healthState) { this.healthState = healthState; }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.kica.ess.batch.config;
+
+import com.kica.ess.batch.service.ProbeTimings;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.AttributeKey;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.context.ContextView;
+
+import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hooks Reactor Netty connection and request callbacks to fill in {@link ProbeTimings}.
+ * Connection setup phases (DNS, TCP connect, TLS handshake) are kept on the channel and
+ * handed to the first request that runs on it; request and response callbacks look up the
+ * probe's timings through the subscriber context.
+ */
+public final class ProbeTimingObserver {
+
+  private static final AttributeKey<ConnectionTimings> CONNECTION_TIMINGS =
+      AttributeKey.valueOf("probe.connectionTimings");
+
+  private static final String HANDLER_NAME = "probe.connectTimer";
+
+  private ProbeTimingObserver() {}
+
+  public static HttpClient instrument(HttpClient httpClient) {
+    return httpClient
+        .doOnChannelInit((observer, channel, remoteAddress) -> {
+          ConnectionTimings timings = new ConnectionTimings();
+          channel.attr(CONNECTION_TIMINGS).set(timings);
+          channel.pipeline().addFirst(HANDLER_NAME, new ConnectTimerHandler(timings));
+
+          // The handshake future completes before buffered request writes are flushed
+          SslHandler sslHandler = channel.pipeline().get(SslHandler.class);
+          if (sslHandler != null) {
+            sslHandler.handshakeFuture().addListener(future -> {
+              if (future.isSuccess()) {
+                timings.tlsEndNanos = System.nanoTime();
+              }
+            });
+          }
+        })
+        .doOnResolve(connection -> {
+          ConnectionTimings timings = connectionTimings(connection);
+          if (timings != null) {
+            timings.resolveStartNanos = System.nanoTime();
+          }
+        })
+        .doAfterResolve((connection, address) -> {
+          ConnectionTimings timings = connectionTimings(connection);
+          if (timings != null) {
+            timings.resolveEndNanos = System.nanoTime();
+          }
+        })
+        .doAfterRequest((request, connection) -> {
+          // Reported once the request is written, i.e. after any TLS handshake has finished.
+          // Requests without timings (pre-warm) still claim the connection's setup cost.
+          ConnectionTimings timings = connectionTimings(connection);
+          boolean fresh = timings != null && timings.claimed.compareAndSet(false, true);
+          ProbeTimings probe = probeTimings(request.currentContextView());
+          if (probe == null) {
+            return;
+          }
+          if (fresh) {
+            probe.connectionReady(false, timings.dnsNanos(), timings.connectNanos(), timings.tlsNanos());
+          } else {
+            probe.connectionReady(true, 0, 0, 0);
+          }
+          probe.markRequestSent();
+        })
+        .doOnResponse((response, connection) -> {
+          ProbeTimings probe = probeTimings(response.currentContextView());
+          if (probe != null) {
+            probe.markResponseHeaders();
+          }
+        });
+  }
+
+  private static ConnectionTimings connectionTimings(Connection connection) {
+    Channel channel = connection.channel();
+    if (!channel.hasAttr(CONNECTION_TIMINGS) && channel.parent() != null) {
+      channel = channel.parent(); // HTTP/2 stream: setup phases live on the parent connection
+    }
+    return channel.hasAttr(CONNECTION_TIMINGS) ? channel.attr(CONNECTION_TIMINGS).get() : null;
+  }
+
+  private static ProbeTimings probeTimings(ContextView context) {
+    return context.getOrDefault(ProbeTimings.CONTEXT_KEY, null);
+  }
+
+  private static final class ConnectionTimings {
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private volatile long resolveStartNanos;
+    private volatile long resolveEndNanos;
+    private volatile long connectStartNanos;
+    private volatile long connectEndNanos;
+    private volatile long tlsEndNanos;
+
+    private long dnsNanos() {
+      return resolveStartNanos != 0 && resolveEndNanos != 0 ? resolveEndNanos - resolveStartNanos : 0;
+    }
+
+    private long connectNanos() {
+      return connectStartNanos != 0 && connectEndNanos != 0 ? connectEndNanos - connectStartNanos : 0;
+    }
+
+    private long tlsNanos() {
+      return connectEndNanos != 0 && tlsEndNanos != 0 ? tlsEndNanos - connectEndNanos : 0;
+    }
+  }
+
+  private static final class ConnectTimerHandler extends ChannelOutboundHandlerAdapter {
+    private final ConnectionTimings timings;
+
+    private ConnectTimerHandler(ConnectionTimings timings) {
+      this.timings = timings;
+    }
+
+    @Override
+    public void connect(ChannelHandlerContext ctx, SocketAddress remoteAddress, SocketAddress localAddress,
+                        ChannelPromise promise) throws Exception {
+      timings.connectStartNanos = System.nanoTime();
+      promise.addListener(future -> {
+        if (future.isSuccess()) {
+          timings.connectEndNanos = System.nanoTime();
+        }
+      });
+      super.connect(ctx, remoteAddress, localAddress, promise);
+    }
+  }
+}
\ No newline at end of file
@@ -1,20 +1,45 @@
 package com.kica.ess.batch.controller;
 
 import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.BatchRun;
+import com.kica.ess.batch.dto.CycleContext;
 import com.kica.ess.batch.dto.HealthCheckResult;
+import com.kica.ess.batch.dto.RecentResult;
+import com.kica.ess.batch.dto.RollupSummary;
+import com.kica.ess.batch.dto.ServerSlaReport;
+import com.kica.ess.batch.dto.StatsSnapshot;
+import com.kica.ess.batch.entity.TargetServer;
+import com.kica.ess.batch.exception.NotFoundException;
+import com.kica.ess.batch.job.BatchRunCoordinator;
 import com.kica.ess.batch.job.HealthCheckBatch;
+import com.kica.ess.batch.job.RetentionJob;
+import com.kica.ess.batch.service.AlertDispatcher;
+import com.kica.ess.batch.service.BatchRunService;
+import com.kica.ess.batch.service.BatchStatsService;
+import com.kica.ess.batch.service.CircuitBreakerRegistry;
+import com.kica.ess.batch.service.ExecutionLogWriter;
 import com.kica.ess.batch.service.HealthCheckService;
+import com.kica.ess.batch.service.NotificationService;
+import com.kica.ess.batch.service.RecentResultStore;
+import com.kica.ess.batch.service.ResponseBodyStore;
+import com.kica.ess.batch.service.SlaReportService;
+import com.kica.ess.batch.service.TargetHealthTracker;
 import com.kica.ess.batch.service.TelegramService;
 import com.kica.ess.batch.service.TargetServerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -33,9 +58,45 @@ public class BatchController {
   @Autowired
   private TelegramService telegramService;
 
+  @Autowired
+  private AlertDispatcher alertDispatcher;
+
+  @Autowired
+  private NotificationService notificationService;
+
   @Autowired
   private TargetServerService targetServerService;
 
+  @Autowired
+  private ExecutionLogWriter executionLogWriter;
+
+  @Autowired
+  private CircuitBreakerRegistry circuitBreakerRegistry;
+
+  @Autowired
+  private BatchRunCoordinator batchRunCoordinator;
+
+  @Autowired
+  private BatchStatsService batchStatsService;
+
+  @Autowired
+  private SlaReportService slaReportService;
+
+  @Autowired
+  private BatchRunService batchRunService;
+
+  @Autowired
+  private TargetHealthTracker targetHealthTracker;
+
+  @Autowired
+  private RetentionJob retentionJob;
+
+  @Autowired
+  private ResponseBodyStore responseBodyStore;
+
+  @Autowired
+  private RecentResultStore recentResultStore;
+
   @Autowired(required = false)
   private BatchProperties batchProperties;
 
@@ -58,7 +119,9 @@ public class BatchController {
     logger.info("Manual health check trigger requested");
 
     try {
-      healthCheckBatch.triggerManualHealthCheck();
+      if (!healthCheckBatch.triggerManualHealthCheck()) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(buildBusyResponse());
+      }
 
       Map<String, Object> response = new HashMap<>();
       response.put("status", "success");
@@ -84,8 +147,20 @@ public class BatchController {
   public ResponseEntity<Map<String, Object>> checkNow() {
     logger.info("Immediate health check requested");
 
+    // Runs as a coordinated cycle so it never overlaps a cron or manual run
+    CycleContext cycle = batchRunCoordinator.tryStart(CycleContext.TRIGGER_CHECK_NOW);
+    if (cycle == null) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(buildBusyResponse());
+    }
+
+    List<HealthCheckResult> results = null;
     try {
-      List<HealthCheckResult> results = healthCheckService.performHealthCheck();
+      // Immediate check covers every active target, including those on their own interval
+      long loadStart = System.currentTimeMillis();
+      List<TargetServer> servers = healthCheckService.getActiveServers();
+      cycle.setLoadTargetsMs(System.currentTimeMillis() - loadStart);
+
+      results = healthCheckService.performHealthCheck(servers, cycle);
 
       Map<String, Object> response = new HashMap<>();
       response.put("status", "success");
@@ -96,6 +171,7 @@ public class BatchController {
       return ResponseEntity.ok(response);
     } catch (Exception e) {
       logger.error("Failed to perform immediate health check", e);
+      cycle.setErrorMessage(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
 
       Map<String, Object> response = new HashMap<>();
       response.put("status", "error");
@@ -104,6 +180,8 @@ public class BatchController {
       response.put("error", e.getClass().getSimpleName());
 
       return ResponseEntity.internalServerError().body(response);
+    } finally {
+      batchRunCoordinator.finish(cycle, results);
     }
   }
 
@@ -117,7 +195,7 @@ public class BatchController {
 
       Map<String, Object> response = new HashMap<>();
       response.put("status", "success");
-      response.put("message", "Test message sent to Telegram");
+      response.put("message", "Test message queued for Telegram");
       response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
 
       return ResponseEntity.ok(response);
@@ -162,18 +240,27 @@ public class BatchController {
     try {
       Map<String, Object> response = new HashMap<>();
 
-      // Recent logs stats
-      response.put("recentFailures", healthCheckService.getRecentFailures(24).size());
-      response.put("recentLogs", healthCheckService.getRecentLogs(24).size());
-
-      long threshold = 10000L; // default threshold
-      if (batchProperties != null && batchProperties.getTimeout() != null) {
-        threshold = batchProperties.getTimeout().getThreshold();
-      }
-      response.put("recentSlowResponses", healthCheckService.getSlowResponses(24, threshold).size());
-
-      response.put("activeServers", targetServerService.getActiveServerCount());
-      response.put("totalServers", targetServerService.getTotalServerCount());
+      // Database-derived figures come from a snapshot shared until the next cycle completes
+      StatsSnapshot snapshot = batchStatsService.getSnapshot();
+      RollupSummary last24h = snapshot.getLast24h();
+      response.put("recentFailures", last24h.getFailureCount());
+      response.put("recentLogs", last24h.getTotalCount());
+      response.put("recentSlowResponses", snapshot.getSlowResponses24h());
+      response.put("averageResponseTime24h", last24h.getAverageLatencyMs());
+      response.put("latency24h", snapshot.getLatencyStats24h());
+      response.put("targetLatency24h", snapshot.getTargetLatencyStats24h());
+
+      response.put("activeServers", snapshot.getActiveServers());
+      response.put("totalServers", snapshot.getTotalServers());
+      response.put("snapshotAgeMs", System.currentTimeMillis() - snapshot.getComputedAt());
+      response.put("persistence", executionLogWriter.getStats());
+      response.put("responseBodies", responseBodyStore.getStats());
+      response.put("targetStates", targetHealthTracker.getStateCounts());
+      response.put("alerts", alertDispatcher.getStats());
+      response.put("notifications", notificationService.getStats());
+      response.put("circuitBreakers", circuitBreakerRegistry.getStats());
+      response.put("cycles", batchRunCoordinator.getStats());
+      response.put("retention", retentionJob.getStats());
       response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
 
       return ResponseEntity.ok(response);
@@ -189,6 +276,186 @@ public class BatchController {
     }
   }
 
+  // Recent results are served from the in-memory ring buffers, not the database
+  @GetMapping("/servers/recent")
+  public ResponseEntity<Map<String, Object>> getRecentSummaries() {
+    List<Map<String, Object>> targets = new ArrayList<>();
+    recentResultStore.getSummaries().forEach((targetServerId, summary) -> {
+      Map<String, Object> target = new HashMap<>();
+      target.put("targetServerId", targetServerId);
+      target.put("count", summary.getCount());
+      target.put("successCount", summary.getSuccessCount());
+      target.put("failureCount", summary.getFailureCount());
+      target.put("successRate", summary.getSuccessRate());
+      target.put("averageLatencyMs", summary.getAverageLatencyMs());
+      target.put("maxLatencyMs", summary.getMaxLatencyMs());
+      target.put("consecutiveFailures", summary.getConsecutiveFailures());
+      if (summary.getLast() != null) {
+        target.put("last", toMap(summary.getLast()));
+      }
+      targets.add(target);
+    });
+
+    Map<String, Object> response = new HashMap<>();
+    response.put("capacity", recentResultStore.getCapacity());
+    response.put("targets", targets);
+    response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("/servers/{id}/recent")
+  public ResponseEntity<Map<String, Object>> getRecentResults(@PathVariable Long id,
+                                                              @RequestParam(value = "limit", defaultValue = "20") int limit) {
+    List<Map<String, Object>> results = new ArrayList<>();
+    for (RecentResult result : recentResultStore.getRecent(id, limit)) {
+      results.add(toMap(result));
+    }
+
+    Map<String, Object> response = new HashMap<>();
+    response.put("targetServerId", id);
+    response.put("results", results);
+    response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+    return ResponseEntity.ok(response);
+  }
+
+  // SLA figures come from the rollup tables and are shared until the next cycle completes
+  @GetMapping("/sla")
+  public ResponseEntity<Map<String, Object>> getSlaReport() {
+    List<Map<String, Object>> servers = new ArrayList<>();
+    for (ServerSlaReport report : slaReportService.getReport()) {
+      servers.add(toSlaMap(report));
+    }
+
+    Map<String, Object> response = new HashMap<>();
+    response.put("targetPercent", slaReportService.getTargetPercent());
+    response.put("complete", slaReportService.isComplete());
+    response.put("windows", new ArrayList<>(SlaReportService.WINDOWS.keySet()));
+    response.put("servers", servers);
+    response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("/servers/{id}/sla")
+  public ResponseEntity<Map<String, Object>> getServerSlaReport(@PathVariable Long id) {
+    Map<String, Object> response = new HashMap<>();
+    try {
+      response.putAll(toSlaMap(slaReportService.getReport(id)));
+      response.put("targetPercent", slaReportService.getTargetPercent());
+      response.put("complete", slaReportService.isComplete());
+      response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+      return ResponseEntity.ok(response);
+    } catch (NotFoundException e) {
+      response.put("status", "error");
+      response.put("message", e.getMessage());
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    } catch (Exception e) {
+      logger.error("Failed to get SLA report for server {}", id, e);
+
+      Map<String, Object> error = new HashMap<>();
+      error.put("status", "error");
+      error.put("message", "Failed to get SLA report: " + e.getMessage());
+      error.put("error", e.getClass().getSimpleName());
+      return ResponseEntity.internalServerError().body(error);
+    }
+  }
+
+  @GetMapping("/runs")
+  public ResponseEntity<Map<String, Object>> getBatchRuns(@RequestParam(value = "limit", defaultValue = "50") int limit) {
+    List<Map<String, Object>> runs = new ArrayList<>();
+    for (BatchRun run : batchRunService.getRecentRuns(Math.min(limit, 500))) {
+      runs.add(toRunMap(run));
+    }
+
+    Map<String, Object> response = new HashMap<>();
+    response.put("runs", runs);
+    response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("/runs/{cycleId}")
+  public ResponseEntity<Map<String, Object>> getBatchRun(@PathVariable String cycleId) {
+    Map<String, Object> response = new HashMap<>();
+    try {
+      response.putAll(toRunMap(batchRunService.getRun(cycleId)));
+      response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+      return ResponseEntity.ok(response);
+    } catch (NotFoundException e) {
+      response.put("status", "error");
+      response.put("message", e.getMessage());
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    } catch (Exception e) {
+      logger.error("Failed to get batch run {}", cycleId, e);
+
+      Map<String, Object> error = new HashMap<>();
+      error.put("status", "error");
+      error.put("message", "Failed to get batch run: " + e.getMessage());
+      error.put("error", e.getClass().getSimpleName());
+      return ResponseEntity.internalServerError().body(error);
+    }
+  }
+
+  private Map<String, Object> toRunMap(BatchRun run) {
+    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    Map<String, Object> phases = new LinkedHashMap<>();
+    phases.put("loadTargetsMs", run.getLoadTargetsMs());
+    phases.put("prewarmMs", run.getPrewarmMs());
+    phases.put("probeMs", run.getProbeMs());
+    phases.put("persistMs", run.getPersistMs());
+    phases.put("alertMs", run.getAlertMs());
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("cycleId", run.getCycleId());
+    map.put("trigger", run.getTrigger());
+    map.put("status", run.getStatus());
+    map.put("startedAt", run.getStartedAt() != null ? run.getStartedAt().format(formatter) : null);
+    map.put("finishedAt", run.getFinishedAt() != null ? run.getFinishedAt().format(formatter) : null);
+    map.put("durationMs", run.getDurationMs());
+    map.put("budgetMs", run.getBudgetMs());
+    map.put("budgetUsedPercent", run.getBudgetUsedPercent());
+    map.put("overran", run.isOverran());
+    map.put("phases", phases);
+    map.put("targetCount", run.getTargetCount());
+    map.put("successCount", run.getSuccessCount());
+    map.put("failureCount", run.getFailureCount());
+    map.put("skippedCount", run.getSkippedCount());
+    map.put("circuitOpenCount", run.getCircuitOpenCount());
+    map.put("transitionCount", run.getTransitionCount());
+    map.put("errorMessage", run.getErrorMessage());
+    return map;
+  }
+
+  private Map<String, Object> toSlaMap(ServerSlaReport report) {
+    Map<String, Object> windows = new LinkedHashMap<>();
+    report.getWindows().forEach((name, stats) -> {
+      Map<String, Object> window = new HashMap<>();
+      window.put("totalCount", stats.getTotalCount());
+      window.put("failureCount", stats.getFailureCount());
+      window.put("uptimePercent", stats.getUptimePercent());
+      window.put("errorBudgetConsumedPercent", stats.getErrorBudgetConsumedPercent());
+      window.put("budgetExhausted", stats.isBudgetExhausted());
+      window.put("averageLatencyMs", stats.getAverageLatencyMs());
+      window.put("p95LatencyMs", stats.getP95LatencyMs());
+      windows.put(name, window);
+    });
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("targetServerId", report.getTargetServerId());
+    map.put("serverName", report.getServerName());
+    map.put("enabled", report.isEnabled());
+    map.put("windows", windows);
+    return map;
+  }
+
+  private Map<String, Object> toMap(RecentResult result) {
+    Map<String, Object> map = new HashMap<>();
+    map.put("time", LocalDateTime.ofInstant(Instant.ofEpochMilli(result.getTimestamp()), ZoneId.systemDefault())
+        .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+    map.put("latencyMs", result.getLatencyMs());
+    map.put("statusCode", result.getStatusCode());
+    map.put("success", result.isSuccess());
+    return map;
+  }
+
   // API endpoints info
   @GetMapping("/")
   public ResponseEntity<Map<String, Object>> apiInfo() {
@@ -204,6 +471,12 @@ public class BatchController {
     endpoints.put("GET|POST /api/batch/telegram/test", "Test Telegram notifications");
     endpoints.put("GET /api/batch/config", "View application configuration");
     endpoints.put("GET /api/batch/stats", "View statistics");
+    endpoints.put("GET /api/batch/servers/recent", "Recent result summary per server (in-memory)");
+    endpoints.put("GET /api/batch/servers/{id}/recent", "Most recent results of one server (in-memory)");
+    endpoints.put("GET /api/batch/sla", "Uptime, error budget and p95 latency per server over 24h/7d/30d");
+    endpoints.put("GET /api/batch/servers/{id}/sla", "SLA report of one server");
+    endpoints.put("GET /api/batch/runs", "Recent batch runs with phase timings (limit, default 50)");
+    endpoints.put("GET /api/batch/runs/{cycleId}", "One batch run from the ledger");
 
     response.put("endpoints", endpoints);
     response.put("webConsole", "http://localhost:8080/console/");
@@ -233,6 +506,21 @@ public class BatchController {
     return ResponseEntity.ok(response);
   }
 
+  private Map<String, Object> buildBusyResponse() {
+    Map<String, Object> response = new HashMap<>();
+    response.put("status", "busy");
+    response.put("message", "A health check cycle is already running");
+    response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+
+    CycleContext active = batchRunCoordinator.getActiveCycle();
+    if (active != null) {
+      response.put("activeCycleId", active.getCycleId());
+      response.put("activeTrigger", active.getTrigger());
+      response.put("remainingMs", active.getRemainingMs());
+    }
+    return response;
+  }
+
   private Map<String, Object> buildSummary(List<HealthCheckResult> results) {
     long successCount = results.stream().filter(HealthCheckResult::isSuccess).count();
     long failureCount = results.size() - successCount;
@@ -259,6 +547,7 @@ public class BatchController {
     summary.put("successCount", successCount);
     summary.put("failureCount", failureCount);
     summary.put("slowResponseCount", slowCount);
+    summary.put("skippedCount", results.stream().filter(HealthCheckResult::isSkipped).count());
     summary.put("averageResponseTime", Math.round(averageResponseTime));
     summary.put("timeoutThreshold", threshold);
 
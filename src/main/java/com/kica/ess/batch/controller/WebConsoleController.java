@@ -1,23 +1,39 @@
 package com.kica.ess.batch.controller;
 
+import com.kica.ess.batch.dto.ExecutionLogSummary;
+import com.kica.ess.batch.dto.LogCursor;
+import com.kica.ess.batch.dto.LogSlice;
+import com.kica.ess.batch.dto.RollupSummary;
+import com.kica.ess.batch.dto.StatsSnapshot;
 import com.kica.ess.batch.entity.ExecutionLog;
 import com.kica.ess.batch.entity.TargetServer;
+import com.kica.ess.batch.service.BatchRunService;
+import com.kica.ess.batch.service.BatchStatsService;
+import com.kica.ess.batch.service.CircuitBreakerRegistry;
+import com.kica.ess.batch.service.RecentResultStore;
+import com.kica.ess.batch.service.ResponseBodyStore;
+import com.kica.ess.batch.service.SlaReportService;
 import com.kica.ess.batch.service.TargetServerService;
 import com.kica.ess.batch.repository.ExecutionLogRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 @Controller
 @RequestMapping("/console")
@@ -25,12 +41,32 @@ public class WebConsoleController {
 
   private static final Logger logger = LoggerFactory.getLogger(WebConsoleController.class);
 
+  private static final int MAX_PAGE_SIZE = 100;
+
   @Autowired
   private TargetServerService targetServerService;
 
   @Autowired
   private ExecutionLogRepository executionLogRepository;
 
+  @Autowired
+  private CircuitBreakerRegistry circuitBreakerRegistry;
+
+  @Autowired
+  private BatchStatsService batchStatsService;
+
+  @Autowired
+  private SlaReportService slaReportService;
+
+  @Autowired
+  private BatchRunService batchRunService;
+
+  @Autowired
+  private ResponseBodyStore responseBodyStore;
+
+  @Autowired
+  private RecentResultStore recentResultStore;
+
   @Value("${spring.profiles.active:dev}")
   private String activeProfile;
 
@@ -40,19 +76,21 @@ public class WebConsoleController {
 
     try {
       model.addAttribute("activeProfile", activeProfile);
-      model.addAttribute("totalServers", targetServerService.getTotalServerCount());
-      model.addAttribute("activeServers", targetServerService.getActiveServerCount());
-
-      // Recent stats
-      LocalDateTime since24h = LocalDateTime.now().minusHours(24);
-      model.addAttribute("successCount24h", executionLogRepository.countSuccessfulExecutions(since24h));
-      model.addAttribute("failureCount24h", executionLogRepository.countFailedExecutions(since24h));
 
-      Double avgResponseTime = executionLogRepository.getAverageResponseTime(since24h);
-      model.addAttribute("avgResponseTime24h", avgResponseTime != null ? avgResponseTime.longValue() : 0);
+      // Server counts and 24h figures come from the shared stats snapshot
+      StatsSnapshot snapshot = batchStatsService.getSnapshot();
+      RollupSummary last24h = snapshot.getLast24h();
+      model.addAttribute("totalServers", snapshot.getTotalServers());
+      model.addAttribute("activeServers", snapshot.getActiveServers());
+      model.addAttribute("successCount24h", last24h.getSuccessCount());
+      model.addAttribute("failureCount24h", last24h.getFailureCount());
+      model.addAttribute("avgResponseTime24h", last24h.getAverageLatencyMs());
+      model.addAttribute("latency24h", last24h);
+      model.addAttribute("targetLatency24h", snapshot.getTargets24h());
+      model.addAttribute("serverNames", snapshot.getServerNames());
 
       // Recent logs (limit to 10 for dashboard)
-      model.addAttribute("recentLogs", executionLogRepository.findRecentLogs(since24h).stream().limit(10).collect(java.util.stream.Collectors.toList()));
+      model.addAttribute("recentLogs", executionLogRepository.findLogSlice(null, null, PageRequest.of(0, 10)).getContent());
 
       logger.info("Dashboard data loaded successfully");
       return "console/dashboard";
@@ -83,6 +121,8 @@ public class WebConsoleController {
       } else {
         model.addAttribute("servers", targetServerService.getAllServers());
       }
+      model.addAttribute("circuitStates", circuitBreakerRegistry.getStates());
+      model.addAttribute("recentResults", recentResultStore.getSummaries());
       model.addAttribute("activeProfile", activeProfile);
 
       logger.info("Servers page loaded successfully");
@@ -175,38 +215,74 @@ public class WebConsoleController {
     return "redirect:/console/servers";
   }
 
+  @GetMapping("/sla")
+  public String slaReport(Model model) {
+    logger.info("SLA report page accessed");
+
+    try {
+      model.addAttribute("reports", slaReportService.getReport());
+      model.addAttribute("windows", SlaReportService.WINDOWS.keySet());
+      model.addAttribute("targetPercent", slaReportService.getTargetPercent());
+      model.addAttribute("complete", slaReportService.isComplete());
+      return "console/sla";
+
+    } catch (Exception e) {
+      logger.error("Error loading SLA report", e);
+      model.addAttribute("error", "Failed to load SLA report: " + e.getMessage());
+      return "console/sla";
+    }
+  }
+
+  @GetMapping("/runs")
+  public String batchRuns(Model model, @RequestParam(value = "limit", defaultValue = "50") int limit) {
+    logger.info("Batch runs page accessed - limit: {}", limit);
+
+    try {
+      model.addAttribute("runs", batchRunService.getRecentRuns(Math.min(limit, 500)));
+      return "console/runs";
+
+    } catch (Exception e) {
+      logger.error("Error loading batch runs", e);
+      model.addAttribute("error", "Failed to load batch runs: " + e.getMessage());
+      return "console/runs";
+    }
+  }
+
   @GetMapping("/logs")
   public String viewLogs(Model model,
-                         @RequestParam(value = "page", defaultValue = "0") int page,
+                         @RequestParam(value = "before", required = false) String before,
+                         @RequestParam(value = "after", required = false) String after,
                          @RequestParam(value = "size", defaultValue = "20") int size,
                          @RequestParam(value = "success", required = false) Boolean success,
                          @RequestParam(value = "serverName", required = false) String serverName) {
 
-    logger.info("Logs page accessed - page: {}, success: {}, serverName: {}", page, success, serverName);
+    logger.info("Logs page accessed - before: {}, after: {}, success: {}, serverName: {}", before, after, success, serverName);
 
     try {
-      Pageable pageable = PageRequest.of(page, size);
-      Page<ExecutionLog> logsPage;
+      String nameFilter = serverName != null && !serverName.trim().isEmpty() ? serverName.trim() : null;
+      LogSlice logsPage = loadSlice(size, before, after,
+          pageable -> executionLogRepository.findLogSlice(success, nameFilter, pageable),
+          (cursor, pageable) -> executionLogRepository.findLogSliceBefore(
+              success, nameFilter, cursor.getExecutionTime(), cursor.getId(), pageable),
+          (cursor, pageable) -> executionLogRepository.findLogSliceAfter(
+              success, nameFilter, cursor.getExecutionTime(), cursor.getId(), pageable));
 
       if (success != null) {
-        logsPage = executionLogRepository.findBySuccessOrderByExecutionTimeDesc(success, pageable);
         model.addAttribute("successFilter", success);
-      } else if (serverName != null && !serverName.trim().isEmpty()) {
-        logsPage = executionLogRepository.findByServerNameContainingIgnoreCaseOrderByExecutionTimeDesc(serverName, pageable);
-        model.addAttribute("serverNameFilter", serverName);
-      } else {
-        logsPage = executionLogRepository.findByOrderByExecutionTimeDesc(pageable);
       }
-
+      if (nameFilter != null) {
+        model.addAttribute("serverNameFilter", nameFilter);
+      }
       model.addAttribute("logsPage", logsPage);
       model.addAttribute("activeProfile", activeProfile);
 
-      logger.info("Logs page loaded successfully with {} entries", logsPage.getTotalElements());
+      logger.info("Logs page loaded successfully with {} entries", logsPage.getNumberOfElements());
       return "console/logs";
 
     } catch (Exception e) {
       logger.error("Error loading logs page", e);
       model.addAttribute("error", "Failed to load logs: " + e.getMessage());
+      model.addAttribute("logsPage", new LogSlice(null, false, false));
       return "console/logs";
     }
   }
@@ -217,7 +293,7 @@ public class WebConsoleController {
 
     Optional<ExecutionLog> log = executionLogRepository.findById(id);
     if (log.isPresent()) {
-      model.addAttribute("log", log.get());
+      model.addAttribute("log", responseBodyStore.attachBody(log.get()));
       return "console/log-detail";
     } else {
       redirectAttributes.addFlashAttribute("error", "Log not found");
@@ -227,7 +303,8 @@ public class WebConsoleController {
 
   @GetMapping("/servers/{id}/logs")
   public String viewServerLogs(@PathVariable Long id, Model model,
-                               @RequestParam(value = "page", defaultValue = "0") int page,
+                               @RequestParam(value = "before", required = false) String before,
+                               @RequestParam(value = "after", required = false) String after,
                                @RequestParam(value = "size", defaultValue = "20") int size,
                                RedirectAttributes redirectAttributes) {
 
@@ -235,15 +312,49 @@ public class WebConsoleController {
 
     Optional<TargetServer> server = targetServerService.getServerById(id);
     if (server.isPresent()) {
-      Pageable pageable = PageRequest.of(page, size);
-      Page<ExecutionLog> logsPage = executionLogRepository.findByTargetServerIdOrderByExecutionTimeDesc(id, pageable);
+      LogSlice logsPage = loadSlice(size, before, after,
+          pageable -> executionLogRepository.findServerLogSlice(id, LocalDateTime.now(), pageable),
+          (cursor, pageable) -> executionLogRepository.findServerLogSliceBefore(
+              id, cursor.getExecutionTime(), cursor.getId(), pageable),
+          (cursor, pageable) -> executionLogRepository.findServerLogSliceAfter(
+              id, cursor.getExecutionTime(), cursor.getId(), pageable));
 
       model.addAttribute("server", server.get());
       model.addAttribute("logsPage", logsPage);
+      model.addAttribute("recentSummary", recentResultStore.getSummary(id));
       return "console/server-logs";
     } else {
       redirectAttributes.addFlashAttribute("error", "Server not found");
       return "redirect:/console/servers";
     }
   }
+
+  /**
+   * Loads one newest-first page of logs: the first page, the page of older rows before a cursor,
+   * or the page of newer rows after one. Paging back past the newest rows lands on the first page,
+   * so page boundaries stay the same as when paging forward from it.
+   */
+  private LogSlice loadSlice(int size, String before, String after,
+                             Function<Pageable, Slice<ExecutionLogSummary>> first,
+                             BiFunction<LogCursor, Pageable, Slice<ExecutionLogSummary>> older,
+                             BiFunction<LogCursor, Pageable, Slice<ExecutionLogSummary>> newer) {
+    Pageable pageable = PageRequest.of(0, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+
+    LogCursor afterCursor = LogCursor.parse(after);
+    LogCursor beforeCursor = LogCursor.parse(before);
+    if (afterCursor != null) {
+      Slice<ExecutionLogSummary> slice = newer.apply(afterCursor, pageable);
+      if (slice.hasNext()) {
+        List<ExecutionLogSummary> content = new ArrayList<>(slice.getContent());
+        Collections.reverse(content);
+        return new LogSlice(content, true, true);
+      }
+    } else if (beforeCursor != null) {
+      Slice<ExecutionLogSummary> slice = older.apply(beforeCursor, pageable);
+      return new LogSlice(slice.getContent(), true, slice.hasNext());
+    }
+
+    Slice<ExecutionLogSummary> slice = first.apply(pageable);
+    return new LogSlice(slice.getContent(), false, slice.hasNext());
+  }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.kica.ess.batch.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the batch run ledger: a health check cycle with its phase timings and outcome counts.
+ * Timing and count fields are null while the cycle is still running.
+ */
+public class BatchRun {
+
+  public static final String STATUS_RUNNING = "RUNNING";
+  public static final String STATUS_COMPLETED = "COMPLETED";
+  public static final String STATUS_FAILED = "FAILED";
+  public static final String STATUS_ABORTED = "ABORTED";
+
+  private Long id;
+  private String cycleId;
+  private String environment;
+  private String trigger;
+  private String status;
+  private LocalDateTime startedAt;
+  private LocalDateTime finishedAt;
+  private Long durationMs;
+  private Long budgetMs;
+  private Long loadTargetsMs;
+  private Long prewarmMs;
+  private Long probeMs;
+  private Long persistMs;
+  private Long alertMs;
+  private Integer targetCount;
+  private Integer successCount;
+  private Integer failureCount;
+  private Integer skippedCount;
+  private Integer circuitOpenCount;
+  private Integer transitionCount;
+  private boolean overran;
+  private String errorMessage;
+
+  /**
+   * Share of the cycle budget the run used, in percent, or null if it has not finished.
+   */
+  public Double getBudgetUsedPercent() {
+    if (durationMs == null || budgetMs == null || budgetMs <= 0) {
+      return null;
+    }
+    return durationMs * 100.0 / budgetMs;
+  }
+
+  public Long getId() { return id; }
+  public void setId(Long id) { this.id = id; }
+
+  public String getCycleId() { return cycleId; }
+  public void setCycleId(String cycleId) { this.cycleId = cycleId; }
+
+  public String getEnvironment() { return environment; }
+  public void setEnvironment(String environment) { this.environment = environment; }
+
+  public String getTrigger() { return trigger; }
+  public void setTrigger(String trigger) { this.trigger = trigger; }
+
+  public String getStatus() { return status; }
+  public void setStatus(String status) { this.status = status; }
+
+  public LocalDateTime getStartedAt() { return startedAt; }
+  public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+  public LocalDateTime getFinishedAt() { return finishedAt; }
+  public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+  public Long getDurationMs() { return durationMs; }
+  public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+
+  public Long getBudgetMs() { return budgetMs; }
+  public void setBudgetMs(Long budgetMs) { this.budgetMs = budgetMs; }
+
+  public Long getLoadTargetsMs() { return loadTargetsMs; }
+  public void setLoadTargetsMs(Long loadTargetsMs) { this.loadTargetsMs = loadTargetsMs; }
+
+  public Long getPrewarmMs() { return prewarmMs; }
+  public void setPrewarmMs(Long prewarmMs) { this.prewarmMs = prewarmMs; }
+
+  public Long getProbeMs() { return probeMs; }
+  public void setProbeMs(Long probeMs) { this.probeMs = probeMs; }
+
+  public Long getPersistMs() { return persistMs; }
+  public void setPersistMs(Long persistMs) { this.persistMs = persistMs; }
+
+  public Long getAlertMs() { return alertMs; }
+  public void setAlertMs(Long alertMs) { this.alertMs = alertMs; }
+
+  public Integer getTargetCount() { return targetCount; }
+  public void setTargetCount(Integer targetCount) { this.targetCount = targetCount; }
+
+  public Integer getSuccessCount() { return successCount; }
+  public void setSuccessCount(Integer successCount) { this.successCount = successCount; }
+
+  public Integer getFailureCount() { return failureCount; }
+  public void setFailureCount(Integer failureCount) { this.failureCount = failureCount; }
+
+  public Integer getSkippedCount() { return skippedCount; }
+  public void setSkippedCount(Integer skippedCount) { this.skippedCount = skippedCount; }
+
+  public Integer getCircuitOpenCount() { return circuitOpenCount; }
+  public void setCircuitOpenCount(Integer circuitOpenCount) { this.circuitOpenCount = circuitOpenCount; }
+
+  public Integer getTransitionCount() { return transitionCount; }
+  public void setTransitionCount(Integer transitionCount) { this.transitionCount = transitionCount; }
+
+  public boolean isOverran() { return overran; }
+  public void setOverran(boolean overran) { this.overran = overran; }
+
+  public String getErrorMessage() { return errorMessage; }
+  public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+}
\ No newline at end of file
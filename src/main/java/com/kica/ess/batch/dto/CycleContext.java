@@ -0,0 +1,81 @@
+package com.kica.ess.batch.dto;
+
+/**
+ * One health check cycle admitted by the run coordinator. The cycle id doubles as the
+ * batch execution id of every log written during the cycle. The phases of the cycle record
+ * their durations here; the run coordinator writes them to the batch run ledger on finish.
+ */
+public class CycleContext {
+
+  public static final String TRIGGER_CRON = "cron";
+  public static final String TRIGGER_MANUAL = "manual";
+  public static final String TRIGGER_CHECK_NOW = "check-now";
+
+  private final String cycleId;
+  private final String environment;
+  private final String trigger;
+  private final long startedAt;
+  private final long deadlineAt;
+
+  // Phase timings, each written by the thread running that phase and read after the cycle finishes
+  private volatile long loadTargetsMs;
+  private volatile long prewarmMs;
+  private volatile long probeMs;
+  private volatile long persistMs;
+  private volatile long alertMs;
+  private volatile int targetCount;
+  private volatile int transitionCount;
+  private volatile String errorMessage;
+
+  public CycleContext(String cycleId, String environment, String trigger, long startedAt, long deadlineAt) {
+    this.cycleId = cycleId;
+    this.environment = environment;
+    this.trigger = trigger;
+    this.startedAt = startedAt;
+    this.deadlineAt = deadlineAt;
+  }
+
+  public String getCycleId() { return cycleId; }
+
+  public String getEnvironment() { return environment; }
+
+  public String getTrigger() { return trigger; }
+
+  public long getStartedAt() { return startedAt; }
+
+  public long getDeadlineAt() { return deadlineAt; }
+
+  public long getLoadTargetsMs() { return loadTargetsMs; }
+  public void setLoadTargetsMs(long loadTargetsMs) { this.loadTargetsMs = loadTargetsMs; }
+
+  public long getPrewarmMs() { return prewarmMs; }
+  public void setPrewarmMs(long prewarmMs) { this.prewarmMs = prewarmMs; }
+
+  public long getProbeMs() { return probeMs; }
+  public void setProbeMs(long probeMs) { this.probeMs = probeMs; }
+
+  public long getPersistMs() { return persistMs; }
+  public void setPersistMs(long persistMs) { this.persistMs = persistMs; }
+
+  public long getAlertMs() { return alertMs; }
+  public void setAlertMs(long alertMs) { this.alertMs = alertMs; }
+
+  public int getTargetCount() { return targetCount; }
+  public void setTargetCount(int targetCount) { this.targetCount = targetCount; }
+
+  public int getTransitionCount() { return transitionCount; }
+  public void setTransitionCount(int transitionCount) { this.transitionCount = transitionCount; }
+
+  public String getErrorMessage() { return errorMessage; }
+  public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+  public long getRemainingMs() {
+    return Math.max(0, deadlineAt - System.currentTimeMillis());
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CycleContext{id='%s', environment='%s', trigger='%s', budget=%dms}",
+        cycleId, environment, trigger, deadlineAt - startedAt);
+  }
+}
\ No newline at end of file
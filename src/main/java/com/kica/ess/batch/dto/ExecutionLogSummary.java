@@ -0,0 +1,69 @@
+package com.kica.ess.batch.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only list view of an execution log. Carries only the columns list pages render, with the
+ * error message cut to {@link #ERROR_PREVIEW_LENGTH} characters by the query itself; the full row,
+ * including the response body, is loaded only for the log detail page.
+ */
+public class ExecutionLogSummary {
+
+  public static final int ERROR_PREVIEW_LENGTH = 200;
+
+  private final Long id;
+  private final Long targetServerId;
+  private final String serverName;
+  private final String url;
+  private final String method;
+  private final Boolean success;
+  private final Integer statusCode;
+  private final Long elapsedTimeMs;
+  private final String errorMessage;
+  private final LocalDateTime executionTime;
+  private final String batchExecutionId;
+
+  public ExecutionLogSummary(Long id, Long targetServerId, String serverName, String url, String method,
+                             Boolean success, Integer statusCode, Long elapsedTimeMs, String errorMessage,
+                             LocalDateTime executionTime, String batchExecutionId) {
+    this.id = id;
+    this.targetServerId = targetServerId;
+    this.serverName = serverName;
+    this.url = url;
+    this.method = method;
+    this.success = success;
+    this.statusCode = statusCode;
+    this.elapsedTimeMs = elapsedTimeMs;
+    this.errorMessage = errorMessage;
+    this.executionTime = executionTime;
+    this.batchExecutionId = batchExecutionId;
+  }
+
+  public Long getId() { return id; }
+
+  public Long getTargetServerId() { return targetServerId; }
+
+  public String getServerName() { return serverName; }
+
+  public String getUrl() { return url; }
+
+  public String getMethod() { return method; }
+
+  public Boolean getSuccess() { return success; }
+
+  public Integer getStatusCode() { return statusCode; }
+
+  public Long getElapsedTimeMs() { return elapsedTimeMs; }
+
+  public String getErrorMessage() { return errorMessage; }
+
+  public LocalDateTime getExecutionTime() { return executionTime; }
+
+  public String getBatchExecutionId() { return batchExecutionId; }
+
+  @Override
+  public String toString() {
+    return String.format("ExecutionLogSummary{id=%d, serverName='%s', success=%s, elapsedTimeMs=%d, executionTime=%s}",
+        id, serverName, success, elapsedTimeMs, executionTime);
+  }
+}
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 
 public class HealthCheckResult {
 
+  private Long targetServerId;
   private String serverName;
   private String url;
   private String method;
@@ -13,8 +14,19 @@ public class HealthCheckResult {
   private boolean success;
   private String response;
   private JsonNode responseJson;
+  private long responseBytes;
+  private String responseHash;
+  private boolean responseTruncated;
   private String errorMessage;
   private int statusCode;
+  private Long dnsTimeMs;
+  private Long connectTimeMs;
+  private Long tlsTimeMs;
+  private Long ttfbMs;
+  private Long bodyTimeMs;
+  private boolean connectionReused;
+  private boolean circuitOpen;
+  private boolean skipped;
 
   // Constructors
   public HealthCheckResult() {}
@@ -25,6 +37,9 @@ public class HealthCheckResult {
   }
 
   // Getters and Setters
+  public Long getTargetServerId() { return targetServerId; }
+  public void setTargetServerId(Long targetServerId) { this.targetServerId = targetServerId; }
+
   public String getServerName() { return serverName; }
   public void setServerName(String serverName) { this.serverName = serverName; }
 
@@ -52,12 +67,45 @@ public class HealthCheckResult {
   public JsonNode getResponseJson() { return responseJson; }
   public void setResponseJson(JsonNode responseJson) { this.responseJson = responseJson; }
 
+  public long getResponseBytes() { return responseBytes; }
+  public void setResponseBytes(long responseBytes) { this.responseBytes = responseBytes; }
+
+  public String getResponseHash() { return responseHash; }
+  public void setResponseHash(String responseHash) { this.responseHash = responseHash; }
+
+  public boolean isResponseTruncated() { return responseTruncated; }
+  public void setResponseTruncated(boolean responseTruncated) { this.responseTruncated = responseTruncated; }
+
   public String getErrorMessage() { return errorMessage; }
   public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
 
   public int getStatusCode() { return statusCode; }
   public void setStatusCode(int statusCode) { this.statusCode = statusCode; }
 
+  public Long getDnsTimeMs() { return dnsTimeMs; }
+  public void setDnsTimeMs(Long dnsTimeMs) { this.dnsTimeMs = dnsTimeMs; }
+
+  public Long getConnectTimeMs() { return connectTimeMs; }
+  public void setConnectTimeMs(Long connectTimeMs) { this.connectTimeMs = connectTimeMs; }
+
+  public Long getTlsTimeMs() { return tlsTimeMs; }
+  public void setTlsTimeMs(Long tlsTimeMs) { this.tlsTimeMs = tlsTimeMs; }
+
+  public Long getTtfbMs() { return ttfbMs; }
+  public void setTtfbMs(Long ttfbMs) { this.ttfbMs = ttfbMs; }
+
+  public Long getBodyTimeMs() { return bodyTimeMs; }
+  public void setBodyTimeMs(Long bodyTimeMs) { this.bodyTimeMs = bodyTimeMs; }
+
+  public boolean isConnectionReused() { return connectionReused; }
+  public void setConnectionReused(boolean connectionReused) { this.connectionReused = connectionReused; }
+
+  public boolean isCircuitOpen() { return circuitOpen; }
+  public void setCircuitOpen(boolean circuitOpen) { this.circuitOpen = circuitOpen; }
+
+  public boolean isSkipped() { return skipped; }
+  public void setSkipped(boolean skipped) { this.skipped = skipped; }
+
   // Utility methods
   public boolean isSlowResponse(long thresholdMs) {
     return elapsedTime > thresholdMs;
@@ -0,0 +1,57 @@
+package com.kica.ess.batch.dto;
+
+/**
+ * A change of a target's health state, together with the probe result that caused it.
+ */
+public class HealthTransition {
+
+  private final Long targetServerId;
+  private final String serverName;
+  private final String url;
+  private final TargetHealthState from;
+  private final TargetHealthState to;
+  private final long at;
+  private final int consecutiveFailures;
+  private final long elapsedTime;
+  private final String errorMessage;
+  private final long stateSince;
+
+  public HealthTransition(HealthCheckResult result, TargetHealthState from, TargetHealthState to,
+                          int consecutiveFailures, long stateSince) {
+    this.targetServerId = result.getTargetServerId();
+    this.serverName = result.getServerName();
+    this.url = result.getUrl();
+    this.from = from;
+    this.to = to;
+    this.at = result.getEndTime() > 0 ? result.getEndTime() : System.currentTimeMillis();
+    this.consecutiveFailures = consecutiveFailures;
+    this.elapsedTime = result.getElapsedTime();
+    this.errorMessage = result.getErrorMessage();
+    this.stateSince = stateSince;
+  }
+
+  /**
+   * How long the target was in the previous state, in milliseconds.
+   */
+  public long getPreviousStateDurationMs() {
+    return Math.max(0, at - stateSince);
+  }
+
+  public Long getTargetServerId() { return targetServerId; }
+
+  public String getServerName() { return serverName; }
+
+  public String getUrl() { return url; }
+
+  public TargetHealthState getFrom() { return from; }
+
+  public TargetHealthState getTo() { return to; }
+
+  public long getAt() { return at; }
+
+  public int getConsecutiveFailures() { return consecutiveFailures; }
+
+  public long getElapsedTime() { return elapsedTime; }
+
+  public String getErrorMessage() { return errorMessage; }
+}
\ No newline at end of file
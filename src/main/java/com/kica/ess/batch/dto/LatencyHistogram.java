@@ -0,0 +1,168 @@
+package com.kica.ess.batch.dto;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Mergeable log-linear latency histogram. Values below 32ms are counted exactly; above that each
+ * power-of-two range is split into 16 sub-buckets, so any reported percentile is within 1/16
+ * (6.25%) of the true value. Two histograms merge by adding their bucket counts, which is what
+ * lets minute and hour rollups be combined into percentiles for any window.
+ * <p>
+ * The serialized form is sparse: the maximum followed by (index delta, count) varint pairs for
+ * the non-empty buckets, typically a few dozen bytes per rollup bucket.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int EXACT_LIMIT = SUB_BUCKETS * 2;
+  private static final int EXACT_LIMIT_BITS = SUB_BUCKET_BITS + 1;
+
+  public static final long MAX_TRACKABLE_MS = Integer.MAX_VALUE;
+  static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_MS) + 1;
+
+  private long[] counts;
+  private long totalCount;
+  private long maxValue;
+
+  public void record(long valueMs) {
+    recordCount(Math.max(0, Math.min(MAX_TRACKABLE_MS, valueMs)), 1);
+  }
+
+  private void recordCount(long valueMs, long count) {
+    if (counts == null) {
+      counts = new long[BUCKET_COUNT];
+    }
+    counts[bucketIndex(valueMs)] += count;
+    totalCount += count;
+    maxValue = Math.max(maxValue, valueMs);
+  }
+
+  public void merge(LatencyHistogram other) {
+    if (other == null || other.totalCount == 0) {
+      return;
+    }
+    if (counts == null) {
+      counts = new long[BUCKET_COUNT];
+    }
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] += other.counts[i];
+    }
+    totalCount += other.totalCount;
+    maxValue = Math.max(maxValue, other.maxValue);
+  }
+
+  /**
+   * Value at the given percentile (0-100), reported as the upper end of the bucket that holds
+   * that rank and never above the recorded maximum. Returns 0 for an empty histogram.
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (totalCount == 0) {
+      return 0;
+    }
+    double fraction = Math.max(0, Math.min(100, percentile)) / 100.0;
+    long rank = Math.max(1, (long) Math.ceil(fraction * totalCount));
+
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(highestEquivalentValue(i), maxValue);
+      }
+    }
+    return maxValue;
+  }
+
+  public long getTotalCount() { return totalCount; }
+
+  public long getMaxValue() { return maxValue; }
+
+  static int bucketIndex(long valueMs) {
+    if (valueMs < EXACT_LIMIT) {
+      return (int) valueMs;
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(valueMs);
+    int shift = magnitude - SUB_BUCKET_BITS;
+    return EXACT_LIMIT + (magnitude - EXACT_LIMIT_BITS) * SUB_BUCKETS + (int) ((valueMs >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  static long lowestEquivalentValue(int index) {
+    if (index < EXACT_LIMIT) {
+      return index;
+    }
+    int magnitude = EXACT_LIMIT_BITS + (index - EXACT_LIMIT) / SUB_BUCKETS;
+    int subBucket = (index - EXACT_LIMIT) % SUB_BUCKETS;
+    return (long) (SUB_BUCKETS + subBucket) << (magnitude - SUB_BUCKET_BITS);
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index < EXACT_LIMIT) {
+      return index;
+    }
+    int magnitude = EXACT_LIMIT_BITS + (index - EXACT_LIMIT) / SUB_BUCKETS;
+    return lowestEquivalentValue(index) + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+  }
+
+  public byte[] toBytes() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+    writeVarLong(out, maxValue);
+    if (counts != null) {
+      int previous = 0;
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        if (counts[i] > 0) {
+          writeVarLong(out, i - previous);
+          writeVarLong(out, counts[i]);
+          previous = i;
+        }
+      }
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Reads a histogram written by {@link #toBytes()}. Null or empty input yields an empty histogram.
+   */
+  public static LatencyHistogram fromBytes(byte[] bytes) {
+    LatencyHistogram histogram = new LatencyHistogram();
+    if (bytes == null || bytes.length == 0) {
+      return histogram;
+    }
+    int[] position = {0};
+    long max = readVarLong(bytes, position);
+    int index = 0;
+    while (position[0] < bytes.length) {
+      index += (int) readVarLong(bytes, position);
+      long count = readVarLong(bytes, position);
+      if (index >= BUCKET_COUNT) {
+        throw new IllegalArgumentException("Latency histogram bucket out of range: " + index);
+      }
+      histogram.recordCount(lowestEquivalentValue(index), count);
+    }
+    histogram.maxValue = max;
+    return histogram;
+  }
+
+  private static void writeVarLong(ByteArrayOutputStream out, long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long readVarLong(byte[] bytes, int[] position) {
+    long value = 0;
+    int shift = 0;
+    while (true) {
+      if (position[0] >= bytes.length || shift > 63) {
+        throw new IllegalArgumentException("Truncated latency histogram");
+      }
+      byte b = bytes[position[0]++];
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+      shift += 7;
+    }
+  }
+}
\ No newline at end of file
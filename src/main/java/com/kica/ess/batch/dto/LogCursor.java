@@ -0,0 +1,52 @@
+package com.kica.ess.batch.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset position in the execution log listing, which is ordered by {@code (execution_time, id)}.
+ * Rendered as {@code <execution time>_<id>} so it can travel as a plain query parameter.
+ */
+public final class LogCursor {
+
+  private final LocalDateTime executionTime;
+  private final long id;
+
+  public LogCursor(LocalDateTime executionTime, long id) {
+    this.executionTime = executionTime;
+    this.id = id;
+  }
+
+  public static LogCursor of(ExecutionLogSummary log) {
+    return new LogCursor(log.getExecutionTime(), log.getId());
+  }
+
+  /**
+   * Parses a cursor from a request parameter. Returns null for blank or malformed values, so a
+   * tampered link falls back to the first page.
+   */
+  public static LogCursor parse(String value) {
+    if (value == null || value.trim().isEmpty()) {
+      return null;
+    }
+    int separator = value.lastIndexOf('_');
+    if (separator <= 0) {
+      return null;
+    }
+    try {
+      return new LogCursor(LocalDateTime.parse(value.substring(0, separator)),
+          Long.parseLong(value.substring(separator + 1)));
+    } catch (DateTimeParseException | NumberFormatException e) {
+      return null;
+    }
+  }
+
+  public LocalDateTime getExecutionTime() { return executionTime; }
+
+  public long getId() { return id; }
+
+  @Override
+  public String toString() {
+    return executionTime + "_" + id;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.kica.ess.batch.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of execution logs, newest first, with the cursors that lead to its neighbours.
+ * Unlike a {@code Page} it carries no total count, so rendering it never scans the table.
+ */
+public class LogSlice {
+
+  private final List<ExecutionLogSummary> content;
+  private final String previousCursor;
+  private final String nextCursor;
+
+  public LogSlice(List<ExecutionLogSummary> content, boolean hasPrevious, boolean hasNext) {
+    this.content = content != null ? content : Collections.emptyList();
+    this.previousCursor = hasPrevious && !this.content.isEmpty() ? LogCursor.of(this.content.get(0)).toString() : null;
+    this.nextCursor = hasNext && !this.content.isEmpty() ?
+        LogCursor.of(this.content.get(this.content.size() - 1)).toString() : null;
+  }
+
+  public List<ExecutionLogSummary> getContent() { return content; }
+
+  public int getNumberOfElements() { return content.size(); }
+
+  public boolean isEmpty() { return content.isEmpty(); }
+
+  // Cursor of the newest row on this page; the previous page holds the rows just after it
+  public String getPreviousCursor() { return previousCursor; }
+
+  // Cursor of the oldest row on this page; the next page holds the rows just before it
+  public String getNextCursor() { return nextCursor; }
+
+  public boolean hasPrevious() { return previousCursor != null; }
+
+  public boolean hasNext() { return nextCursor != null; }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.kica.ess.batch.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One alert as handed to every notification channel. The text is written for Telegram's
+ * Markdown; channels that deliver plain text use {@link #getPlainText()}.
+ */
+public class Notification {
+
+  public static final String TYPE_STATE_CHANGE = "STATE_CHANGE";
+  public static final String TYPE_BATCH_OVERRUN = "BATCH_OVERRUN";
+  public static final String TYPE_BATCH_ERROR = "BATCH_ERROR";
+
+  private final String type;
+  private final String title;
+  private final String text;
+  private final List<HealthTransition> transitions;
+  private final long createdAt;
+
+  public Notification(String type, String title, String text, List<HealthTransition> transitions) {
+    this.type = type;
+    this.title = title;
+    this.text = text;
+    this.transitions = transitions != null ? transitions : Collections.emptyList();
+    this.createdAt = System.currentTimeMillis();
+  }
+
+  public String getPlainText() {
+    return text != null ? text.replace("*", "") : "";
+  }
+
+  public String getType() { return type; }
+
+  public String getTitle() { return title; }
+
+  public String getText() { return text; }
+
+  public List<HealthTransition> getTransitions() { return transitions; }
+
+  public long getCreatedAt() { return createdAt; }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.kica.ess.batch.dto;
+
+/**
+ * One probe outcome as kept by the in-memory recent result store.
+ */
+public class RecentResult {
+
+  private final long timestamp;
+  private final long latencyMs;
+  private final int statusCode;
+  private final boolean success;
+
+  public RecentResult(long timestamp, long latencyMs, int statusCode, boolean success) {
+    this.timestamp = timestamp;
+    this.latencyMs = latencyMs;
+    this.statusCode = statusCode;
+    this.success = success;
+  }
+
+  // Epoch milliseconds
+  public long getTimestamp() { return timestamp; }
+
+  public long getLatencyMs() { return latencyMs; }
+
+  public int getStatusCode() { return statusCode; }
+
+  public boolean isSuccess() { return success; }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.kica.ess.batch.dto;
+
+/**
+ * Aggregate over the results a target currently holds in the recent result store.
+ * Latency figures cover successful probes only, matching the rollup tables.
+ */
+public class RecentResultSummary {
+
+  private final int count;
+  private final int successCount;
+  private final long averageLatencyMs;
+  private final long maxLatencyMs;
+  private final int consecutiveFailures;
+  private final RecentResult last;
+
+  public RecentResultSummary(int count, int successCount, long averageLatencyMs, long maxLatencyMs,
+                             int consecutiveFailures, RecentResult last) {
+    this.count = count;
+    this.successCount = successCount;
+    this.averageLatencyMs = averageLatencyMs;
+    this.maxLatencyMs = maxLatencyMs;
+    this.consecutiveFailures = consecutiveFailures;
+    this.last = last;
+  }
+
+  public int getCount() { return count; }
+
+  public int getSuccessCount() { return successCount; }
+
+  public int getFailureCount() { return count - successCount; }
+
+  public double getSuccessRate() {
+    return count > 0 ? successCount * 100.0 / count : 0;
+  }
+
+  public long getAverageLatencyMs() { return averageLatencyMs; }
+
+  public long getMaxLatencyMs() { return maxLatencyMs; }
+
+  public int getConsecutiveFailures() { return consecutiveFailures; }
+
+  public RecentResult getLast() { return last; }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.kica.ess.batch.dto;
+
+/**
+ * Aggregated probe results for one rollup bucket, or the sum of several. Latency figures
+ * (sum, min, max and histogram) cover successful probes only, matching how average response
+ * time has always been reported.
+ * <p>
+ * The histogram is not cumulative: {@code histogram[i]} counts latencies in
+ * ({@code LATENCY_BOUNDS_MS[i-1]}, {@code LATENCY_BOUNDS_MS[i]}], and the last slot counts
+ * everything above the largest bound. The fixed buckets back threshold estimates; percentiles come
+ * from the finer {@link LatencyHistogram}, which is stored alongside them.
+ */
+public class RollupSummary {
+
+  public static final long[] LATENCY_BOUNDS_MS = {100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+  private long totalCount;
+  private long successCount;
+  private long latencySumMs;
+  private Long latencyMinMs;
+  private Long latencyMaxMs;
+  private final long[] histogram = new long[LATENCY_BOUNDS_MS.length + 1];
+  private LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+  public void add(boolean success, Long elapsedMs) {
+    totalCount++;
+    if (!success) {
+      return;
+    }
+    successCount++;
+    if (elapsedMs != null) {
+      latencySumMs += elapsedMs;
+      latencyMinMs = latencyMinMs == null ? elapsedMs : Math.min(latencyMinMs, elapsedMs);
+      latencyMaxMs = latencyMaxMs == null ? elapsedMs : Math.max(latencyMaxMs, elapsedMs);
+      histogram[bucketIndex(elapsedMs)]++;
+      latencyHistogram.record(elapsedMs);
+    }
+  }
+
+  public void merge(RollupSummary other) {
+    totalCount += other.totalCount;
+    successCount += other.successCount;
+    latencySumMs += other.latencySumMs;
+    if (other.latencyMinMs != null) {
+      latencyMinMs = latencyMinMs == null ? other.latencyMinMs : Math.min(latencyMinMs, other.latencyMinMs);
+    }
+    if (other.latencyMaxMs != null) {
+      latencyMaxMs = latencyMaxMs == null ? other.latencyMaxMs : Math.max(latencyMaxMs, other.latencyMaxMs);
+    }
+    for (int i = 0; i < histogram.length; i++) {
+      histogram[i] += other.histogram[i];
+    }
+    latencyHistogram.merge(other.latencyHistogram);
+  }
+
+  public static int bucketIndex(long elapsedMs) {
+    for (int i = 0; i < LATENCY_BOUNDS_MS.length; i++) {
+      if (elapsedMs <= LATENCY_BOUNDS_MS[i]) {
+        return i;
+      }
+    }
+    return LATENCY_BOUNDS_MS.length;
+  }
+
+  /**
+   * Estimated number of successful probes slower than the threshold. Buckets entirely above
+   * the threshold count in full; the bucket containing it is interpolated linearly.
+   */
+  public long estimateCountAbove(long thresholdMs) {
+    double count = 0;
+    long lower = 0;
+    for (int i = 0; i < histogram.length; i++) {
+      long upper = i < LATENCY_BOUNDS_MS.length ? LATENCY_BOUNDS_MS[i] : Long.MAX_VALUE;
+      if (lower >= thresholdMs) {
+        count += histogram[i];
+      } else if (upper > thresholdMs) {
+        count += upper == Long.MAX_VALUE ? histogram[i] :
+            histogram[i] * (double) (upper - thresholdMs) / (upper - lower);
+      }
+      lower = upper;
+    }
+    return Math.round(count);
+  }
+
+  public long getFailureCount() {
+    return totalCount - successCount;
+  }
+
+  public long getAverageLatencyMs() {
+    return successCount > 0 ? latencySumMs / successCount : 0;
+  }
+
+  /**
+   * Latency of successful probes at the given percentile (0-100), or 0 if there were none.
+   */
+  public long getLatencyPercentileMs(double percentile) {
+    return latencyHistogram.getValueAtPercentile(percentile);
+  }
+
+  public long getTotalCount() { return totalCount; }
+  public void setTotalCount(long totalCount) { this.totalCount = totalCount; }
+
+  public long getSuccessCount() { return successCount; }
+  public void setSuccessCount(long successCount) { this.successCount = successCount; }
+
+  public long getLatencySumMs() { return latencySumMs; }
+  public void setLatencySumMs(long latencySumMs) { this.latencySumMs = latencySumMs; }
+
+  public Long getLatencyMinMs() { return latencyMinMs; }
+  public void setLatencyMinMs(Long latencyMinMs) { this.latencyMinMs = latencyMinMs; }
+
+  public Long getLatencyMaxMs() { return latencyMaxMs; }
+  public void setLatencyMaxMs(Long latencyMaxMs) { this.latencyMaxMs = latencyMaxMs; }
+
+  public long[] getHistogram() { return histogram; }
+
+  public LatencyHistogram getLatencyHistogram() { return latencyHistogram; }
+  public void setLatencyHistogram(LatencyHistogram latencyHistogram) { this.latencyHistogram = latencyHistogram; }
+}
\ No newline at end of file
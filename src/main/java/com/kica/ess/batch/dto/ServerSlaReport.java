@@ -0,0 +1,29 @@
+package com.kica.ess.batch.dto;
+
+import java.util.Map;
+
+/**
+ * SLA figures for one target, keyed by report window ("24h", "7d", "30d").
+ */
+public class ServerSlaReport {
+
+  private final Long targetServerId;
+  private final String serverName;
+  private final boolean enabled;
+  private final Map<String, SlaStats> windows;
+
+  public ServerSlaReport(Long targetServerId, String serverName, boolean enabled, Map<String, SlaStats> windows) {
+    this.targetServerId = targetServerId;
+    this.serverName = serverName;
+    this.enabled = enabled;
+    this.windows = windows;
+  }
+
+  public Long getTargetServerId() { return targetServerId; }
+
+  public String getServerName() { return serverName; }
+
+  public boolean isEnabled() { return enabled; }
+
+  public Map<String, SlaStats> getWindows() { return windows; }
+}
\ No newline at end of file
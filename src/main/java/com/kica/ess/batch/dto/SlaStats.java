@@ -0,0 +1,51 @@
+package com.kica.ess.batch.dto;
+
+/**
+ * Availability and latency of one target over one report window. The error budget is the share
+ * of checks the availability objective allows to fail; consumption above 100% means the
+ * objective was missed.
+ */
+public class SlaStats {
+
+  private final long totalCount;
+  private final long failureCount;
+  private final Double uptimePercent;
+  private final Double errorBudgetConsumedPercent;
+  private final long averageLatencyMs;
+  private final long p95LatencyMs;
+
+  public SlaStats(RollupSummary summary, double targetPercent) {
+    this.totalCount = summary.getTotalCount();
+    this.failureCount = summary.getFailureCount();
+    this.uptimePercent = totalCount > 0 ? summary.getSuccessCount() * 100.0 / totalCount : null;
+
+    double allowedFailures = totalCount * (100.0 - targetPercent) / 100.0;
+    if (totalCount == 0) {
+      this.errorBudgetConsumedPercent = null;
+    } else if (allowedFailures > 0) {
+      this.errorBudgetConsumedPercent = failureCount * 100.0 / allowedFailures;
+    } else {
+      // A 100% objective has no budget: any failure exhausts it
+      this.errorBudgetConsumedPercent = failureCount > 0 ? Double.POSITIVE_INFINITY : 0.0;
+    }
+
+    this.averageLatencyMs = summary.getAverageLatencyMs();
+    this.p95LatencyMs = summary.getLatencyPercentileMs(95);
+  }
+
+  public boolean isBudgetExhausted() {
+    return errorBudgetConsumedPercent != null && errorBudgetConsumedPercent >= 100.0;
+  }
+
+  public long getTotalCount() { return totalCount; }
+
+  public long getFailureCount() { return failureCount; }
+
+  public Double getUptimePercent() { return uptimePercent; }
+
+  public Double getErrorBudgetConsumedPercent() { return errorBudgetConsumedPercent; }
+
+  public long getAverageLatencyMs() { return averageLatencyMs; }
+
+  public long getP95LatencyMs() { return p95LatencyMs; }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.kica.ess.batch.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database-derived statistics for the last 24 hours, computed once and shared by every stats and
+ * dashboard request until the next batch cycle completes. The latency blocks of the stats
+ * response are prebuilt here as well, so serving a poll allocates next to nothing.
+ */
+public class StatsSnapshot {
+
+  private final RollupSummary last24h;
+  private final Map<Long, RollupSummary> targets24h;
+  private final Map<Long, String> serverNames;
+  private final Map<String, Object> latencyStats24h;
+  private final List<Map<String, Object>> targetLatencyStats24h;
+  private final long slowResponses24h;
+  private final long activeServers;
+  private final long totalServers;
+  private final long cycle;
+  private final long computedAt;
+
+  public StatsSnapshot(RollupSummary last24h, Map<Long, RollupSummary> targets24h, Map<Long, String> serverNames,
+                       Map<String, Object> latencyStats24h, List<Map<String, Object>> targetLatencyStats24h,
+                       long slowResponses24h, long activeServers, long totalServers, long cycle, long computedAt) {
+    this.last24h = last24h;
+    this.targets24h = targets24h;
+    this.serverNames = serverNames;
+    this.latencyStats24h = latencyStats24h;
+    this.targetLatencyStats24h = targetLatencyStats24h;
+    this.slowResponses24h = slowResponses24h;
+    this.activeServers = activeServers;
+    this.totalServers = totalServers;
+    this.cycle = cycle;
+    this.computedAt = computedAt;
+  }
+
+  public RollupSummary getLast24h() { return last24h; }
+
+  public Map<Long, RollupSummary> getTargets24h() { return targets24h; }
+
+  public Map<Long, String> getServerNames() { return serverNames; }
+
+  public Map<String, Object> getLatencyStats24h() { return latencyStats24h; }
+
+  public List<Map<String, Object>> getTargetLatencyStats24h() { return targetLatencyStats24h; }
+
+  public long getSlowResponses24h() { return slowResponses24h; }
+
+  public long getActiveServers() { return activeServers; }
+
+  public long getTotalServers() { return totalServers; }
+
+  public long getCycle() { return cycle; }
+
+  public long getComputedAt() { return computedAt; }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.kica.ess.batch.dto;
+
+/**
+ * Alerting state of a target as tracked across probes.
+ */
+public enum TargetHealthState {
+  UP,
+  DEGRADED,
+  DOWN,
+  FLAPPING
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.kica.ess.batch.entity;
 
 import javax.persistence.*;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
 @Entity
@@ -35,9 +36,39 @@ public class ExecutionLog {
   @Column(name = "error_message", columnDefinition = "TEXT")
   private String errorMessage;
 
-  @Column(name = "response_body", columnDefinition = "TEXT")
+  // The probe was cancelled at the cycle deadline; excluded from rollups and SLA
+  // A probe skipped behind an open circuit is not: it is stored as a failure with circuitOpen set
+  @Column(name = "skipped")
+  private Boolean skipped;
+
+  @Column(name = "circuit_open")
+  private Boolean circuitOpen;
+
+  @Transient
   private String responseBody;
 
+  @Column(name = "response_bytes")
+  private Long responseBytes;
+
+  // SHA-256 of the full response; also the key of the captured body in response_bodies
+  @Column(name = "response_hash", length = 64)
+  private String responseHash;
+
+  @Column(name = "dns_time_ms")
+  private Long dnsTimeMs;
+
+  @Column(name = "connect_time_ms")
+  private Long connectTimeMs;
+
+  @Column(name = "tls_time_ms")
+  private Long tlsTimeMs;
+
+  @Column(name = "ttfb_ms")
+  private Long ttfbMs;
+
+  @Column(name = "body_time_ms")
+  private Long bodyTimeMs;
+
   @Column(name = "execution_time")
   private LocalDateTime executionTime;
 
@@ -93,9 +124,41 @@ public class ExecutionLog {
   public String getErrorMessage() { return errorMessage; }
   public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
 
+  public Boolean getSkipped() { return skipped; }
+  public void setSkipped(Boolean skipped) { this.skipped = skipped; }
+
+  public Boolean getCircuitOpen() { return circuitOpen; }
+  public void setCircuitOpen(Boolean circuitOpen) { this.circuitOpen = circuitOpen; }
+
   public String getResponseBody() { return responseBody; }
   public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
 
+  public Long getResponseBytes() { return responseBytes; }
+  public void setResponseBytes(Long responseBytes) { this.responseBytes = responseBytes; }
+
+  public String getResponseHash() { return responseHash; }
+  public void setResponseHash(String responseHash) { this.responseHash = responseHash; }
+
+  public Long getDnsTimeMs() { return dnsTimeMs; }
+  public void setDnsTimeMs(Long dnsTimeMs) { this.dnsTimeMs = dnsTimeMs; }
+
+  public Long getConnectTimeMs() { return connectTimeMs; }
+  public void setConnectTimeMs(Long connectTimeMs) { this.connectTimeMs = connectTimeMs; }
+
+  public Long getTlsTimeMs() { return tlsTimeMs; }
+  public void setTlsTimeMs(Long tlsTimeMs) { this.tlsTimeMs = tlsTimeMs; }
+
+  public Long getTtfbMs() { return ttfbMs; }
+  public void setTtfbMs(Long ttfbMs) { this.ttfbMs = ttfbMs; }
+
+  public Long getBodyTimeMs() { return bodyTimeMs; }
+  public void setBodyTimeMs(Long bodyTimeMs) { this.bodyTimeMs = bodyTimeMs; }
+
+  public boolean isResponseTruncated() {
+    return responseBytes != null && responseBody != null &&
+        responseBody.getBytes(StandardCharsets.UTF_8).length < responseBytes;
+  }
+
   public LocalDateTime getExecutionTime() { return executionTime; }
   public void setExecutionTime(LocalDateTime executionTime) { this.executionTime = executionTime; }
 
@@ -7,6 +7,9 @@ import java.time.LocalDateTime;
 @Table(name = "target_servers")
 public class TargetServer {
 
+  public static final String LATENCY_WARM = "WARM";
+  public static final String LATENCY_COLD = "COLD";
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
@@ -35,6 +38,18 @@ public class TargetServer {
   @Column(name = "environment", length = 20)
   private String environment;
 
+  // Per-target probe interval; null means the target follows the global cron schedule
+  @Column(name = "check_interval_seconds")
+  private Integer checkIntervalSeconds;
+
+  // Keep the whole response body instead of a size-capped prefix
+  @Column(name = "capture_full_body")
+  private Boolean captureFullBody = false;
+
+  // WARM probes reuse pooled keep-alive connections, COLD probes open a new connection every time
+  @Column(name = "latency_mode", length = 10)
+  private String latencyMode = LATENCY_WARM;
+
   @Column(name = "created_at")
   private LocalDateTime createdAt;
 
@@ -89,6 +104,15 @@ public class TargetServer {
   public String getEnvironment() { return environment; }
   public void setEnvironment(String environment) { this.environment = environment; }
 
+  public Integer getCheckIntervalSeconds() { return checkIntervalSeconds; }
+  public void setCheckIntervalSeconds(Integer checkIntervalSeconds) { this.checkIntervalSeconds = checkIntervalSeconds; }
+
+  public Boolean getCaptureFullBody() { return captureFullBody; }
+  public void setCaptureFullBody(Boolean captureFullBody) { this.captureFullBody = captureFullBody; }
+
+  public String getLatencyMode() { return latencyMode; }
+  public void setLatencyMode(String latencyMode) { this.latencyMode = latencyMode; }
+
   public LocalDateTime getCreatedAt() { return createdAt; }
   public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -100,4 +124,12 @@ public class TargetServer {
     return String.format("TargetServer{id=%d, name='%s', url='%s', method='%s', enabled=%s}",
         id, name, url, method, enabled);
   }
+
+  public boolean hasCustomInterval() {
+    return checkIntervalSeconds != null && checkIntervalSeconds > 0;
+  }
+
+  public boolean isColdLatency() {
+    return LATENCY_COLD.equalsIgnoreCase(latencyMode);
+  }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.kica.ess.batch.exception;
+
+/**
+ * The requested record does not exist. Controllers map this, and only this, to 404; any other
+ * failure is a server error.
+ */
+public class NotFoundException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public NotFoundException(String message) {
+    super(message);
+  }
+}
\ No newline at end of file
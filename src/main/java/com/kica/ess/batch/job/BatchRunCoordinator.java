@@ -0,0 +1,159 @@
+package com.kica.ess.batch.job;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.CycleContext;
+import com.kica.ess.batch.dto.HealthCheckResult;
+import com.kica.ess.batch.service.BatchRunService;
+import com.kica.ess.batch.service.ProbeMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admits at most one health check cycle per environment at a time, whether it was started by
+ * the cron schedule, a manual trigger or check-now. Each admitted cycle gets a deadline of
+ * {@code deadline-ratio} times the cron period; probes still pending at the deadline are
+ * cancelled by {@code HealthCheckService} and the cycle is counted as an overrun.
+ */
+@Component
+public class BatchRunCoordinator {
+
+  private static final Logger logger = LoggerFactory.getLogger(BatchRunCoordinator.class);
+
+  private static final String DEFAULT_CRON = "0 */5 * * * *";
+
+  @Autowired(required = false)
+  private BatchProperties batchProperties;
+
+  @Autowired
+  private ProbeMetrics probeMetrics;
+
+  @Autowired
+  private BatchRunService batchRunService;
+
+  @Value("${spring.profiles.active:dev}")
+  private String activeProfile;
+
+  private final Map<String, CycleContext> activeCycles = new ConcurrentHashMap<>();
+
+  private final AtomicLong started = new AtomicLong();
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong overruns = new AtomicLong();
+  private final AtomicLong deadlineSkips = new AtomicLong();
+  private volatile long lastCycleMs;
+  private volatile String lastCycleTrigger;
+
+  /**
+   * Starts a cycle for the active environment, or returns null if one is already running.
+   */
+  public CycleContext tryStart(String trigger) {
+    long now = System.currentTimeMillis();
+    long budget = getCycleBudgetMs();
+    CycleContext cycle = new CycleContext(UUID.randomUUID().toString(), activeProfile, trigger, now, now + budget);
+
+    CycleContext running = activeCycles.putIfAbsent(activeProfile, cycle);
+    if (running != null) {
+      rejected.incrementAndGet();
+      logger.warn("Rejected {} cycle - {} cycle {} still running for {}ms",
+          trigger, running.getTrigger(), running.getCycleId(), now - running.getStartedAt());
+      return null;
+    }
+
+    started.incrementAndGet();
+    batchRunService.recordStart(cycle);
+    logger.debug("Cycle admitted: {}", cycle);
+    return cycle;
+  }
+
+  /**
+   * Releases the cycle. Results may be null if the cycle failed before producing any.
+   */
+  public void finish(CycleContext cycle, List<HealthCheckResult> results) {
+    if (cycle == null) {
+      return;
+    }
+    activeCycles.remove(cycle.getEnvironment(), cycle);
+
+    long elapsed = System.currentTimeMillis() - cycle.getStartedAt();
+    long skipped = results == null ? 0 : results.stream().filter(HealthCheckResult::isSkipped).count();
+
+    completed.incrementAndGet();
+    lastCycleMs = elapsed;
+    lastCycleTrigger = cycle.getTrigger();
+
+    boolean overrun = skipped > 0 || elapsed > cycle.getDeadlineAt() - cycle.getStartedAt();
+    probeMetrics.recordCycle(cycle.getTrigger(), elapsed, overrun);
+    batchRunService.recordFinish(cycle, results, elapsed, overrun);
+
+    if (overrun) {
+      long total = overruns.incrementAndGet();
+      deadlineSkips.addAndGet(skipped);
+      logger.warn("Cycle {} overran its deadline ({}ms elapsed, {} probes skipped, {} overruns so far)",
+          cycle.getCycleId(), elapsed, skipped, total);
+    }
+  }
+
+  public long getCompletedCycles() {
+    return completed.get();
+  }
+
+  public CycleContext getActiveCycle() {
+    return activeCycles.get(activeProfile);
+  }
+
+  /**
+   * Cycle time budget: a fraction of the gap between two cron firings, so a cycle finishes
+   * before the next one is due.
+   */
+  public long getCycleBudgetMs() {
+    BatchProperties.Schedule schedule = batchProperties != null && batchProperties.getSchedule() != null ?
+        batchProperties.getSchedule() : new BatchProperties.Schedule();
+    String cron = schedule.getCron() != null ? schedule.getCron() : DEFAULT_CRON;
+
+    try {
+      CronExpression expression = CronExpression.parse(cron);
+      LocalDateTime next = expression.next(LocalDateTime.now());
+      LocalDateTime following = next != null ? expression.next(next) : null;
+      if (following != null) {
+        long period = Duration.between(next, following).toMillis();
+        return Math.max(1000, (long) (period * schedule.getDeadlineRatio()));
+      }
+    } catch (IllegalArgumentException e) {
+      logger.warn("Cannot derive cycle deadline from cron '{}': {}", cron, e.getMessage());
+    }
+    return (long) (Duration.ofMinutes(5).toMillis() * schedule.getDeadlineRatio());
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    CycleContext active = getActiveCycle();
+    stats.put("running", active != null);
+    if (active != null) {
+      stats.put("activeCycleId", active.getCycleId());
+      stats.put("activeTrigger", active.getTrigger());
+      stats.put("activeForMs", System.currentTimeMillis() - active.getStartedAt());
+    }
+    stats.put("started", started.get());
+    stats.put("completed", completed.get());
+    stats.put("rejected", rejected.get());
+    stats.put("overruns", overruns.get());
+    stats.put("deadlineSkippedProbes", deadlineSkips.get());
+    stats.put("cycleBudgetMs", getCycleBudgetMs());
+    stats.put("lastCycleMs", lastCycleMs);
+    stats.put("lastCycleTrigger", lastCycleTrigger);
+    return stats;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.kica.ess.batch.job;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: a fixed ring of buckets that is advanced one slot per tick.
+ * Scheduling is O(1) and each tick only visits the entries hashed into the current
+ * slot, so per-tick cost stays flat no matter how many items are scheduled.
+ * <p>
+ * Not thread-safe; a single ticker thread is expected to own the wheel.
+ */
+public class HashedTimingWheel<T> {
+
+  private final Entry<T>[] buckets;
+  private final int mask;
+  private long tick;
+  private int size;
+
+  public HashedTimingWheel(int wheelSize) {
+    if (wheelSize <= 0) {
+      throw new IllegalArgumentException("wheelSize must be positive: " + wheelSize);
+    }
+    int normalized = 1;
+    while (normalized < wheelSize) {
+      normalized <<= 1;
+    }
+    this.buckets = newBuckets(normalized);
+    this.mask = normalized - 1;
+  }
+
+  // Generic arrays cannot be created directly; the wildcard array only ever holds Entry<T>
+  @SuppressWarnings("unchecked")
+  private static <T> Entry<T>[] newBuckets(int size) {
+    return (Entry<T>[]) new Entry<?>[size];
+  }
+
+  /**
+   * Schedules an item to be returned by {@link #advance()} after the given number of ticks.
+   * Delays below one tick are rounded up to the next tick.
+   */
+  public void schedule(T item, long delayTicks) {
+    long delay = Math.max(1, delayTicks);
+    long deadline = tick + delay;
+    int slot = (int) (deadline & mask);
+
+    Entry<T> entry = new Entry<>(item, (delay - 1) / buckets.length);
+    entry.next = buckets[slot];
+    buckets[slot] = entry;
+    size++;
+  }
+
+  /**
+   * Moves the wheel forward by one tick and returns every item whose deadline has been reached.
+   */
+  public List<T> advance() {
+    tick++;
+    int slot = (int) (tick & mask);
+
+    List<T> expired = new ArrayList<>();
+    Entry<T> previous = null;
+    Entry<T> entry = buckets[slot];
+    while (entry != null) {
+      Entry<T> next = entry.next;
+      if (entry.remainingRounds <= 0) {
+        if (previous == null) {
+          buckets[slot] = next;
+        } else {
+          previous.next = next;
+        }
+        expired.add(entry.item);
+        size--;
+      } else {
+        entry.remainingRounds--;
+        previous = entry;
+      }
+      entry = next;
+    }
+    return expired;
+  }
+
+  public long getTick() { return tick; }
+
+  public int size() { return size; }
+
+  public int getWheelSize() { return buckets.length; }
+
+  private static final class Entry<T> {
+    private final T item;
+    private long remainingRounds;
+    private Entry<T> next;
+
+    private Entry(T item, long remainingRounds) {
+      this.item = item;
+      this.remainingRounds = remainingRounds;
+    }
+  }
+}
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.kica.ess.batch.job;
 
 import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.CycleContext;
 import com.kica.ess.batch.dto.HealthCheckResult;
+import com.kica.ess.batch.dto.HealthTransition;
+import com.kica.ess.batch.entity.TargetServer;
 import com.kica.ess.batch.service.HealthCheckService;
-import com.kica.ess.batch.service.TelegramService;
+import com.kica.ess.batch.service.NotificationService;
+import com.kica.ess.batch.service.TargetHealthTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,97 +23,108 @@ import java.util.stream.Collectors;
 public class HealthCheckBatch {
 
   private static final Logger logger = LoggerFactory.getLogger(HealthCheckBatch.class);
+  private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
   @Autowired
   private HealthCheckService healthCheckService;
 
   @Autowired
-  private TelegramService telegramService;
+  private NotificationService notificationService;
+
+  @Autowired
+  private TargetHealthTracker targetHealthTracker;
 
   @Autowired
   private BatchProperties batchProperties;
 
+  @Autowired
+  private BatchRunCoordinator batchRunCoordinator;
+
   @Scheduled(cron = "${batch.health-check.schedule.cron:0 */5 * * * *}")
   public void executeHealthCheck() {
-    logger.info("=== Health Check Batch Started at {} ===",
-        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+    runCycle(CycleContext.TRIGGER_CRON);
+  }
+
+  // Returns false if the coordinator rejected the cycle because another one is still running
+  private boolean runCycle(String trigger) {
+    CycleContext cycle = batchRunCoordinator.tryStart(trigger);
+    if (cycle == null) {
+      logger.warn("Health check cycle ({}) not started - previous cycle still running", trigger);
+      return false;
+    }
+
+    logger.info("=== Health Check Batch Started at {} ({}) ===",
+        LocalDateTime.now().format(TIME_FORMAT), trigger);
 
     long batchStartTime = System.currentTimeMillis();
+    List<HealthCheckResult> results = null;
 
     try {
-      // Perform health checks (now uses database)
-      List<HealthCheckResult> results = healthCheckService.performHealthCheck();
+      // Perform health checks (now uses database); pending probes are cancelled at the cycle deadline
+      long loadStart = System.currentTimeMillis();
+      List<TargetServer> servers = healthCheckService.getCycleServers();
+      cycle.setLoadTargetsMs(System.currentTimeMillis() - loadStart);
+
+      results = healthCheckService.performHealthCheck(servers, cycle);
 
       // Process results
-      processResults(results);
+      processResults(results, cycle);
 
       long batchEndTime = System.currentTimeMillis();
       long totalElapsedTime = batchEndTime - batchStartTime;
 
       logger.info("=== Health Check Batch Completed in {}ms ===", totalElapsedTime);
 
-      // Check if batch execution itself exceeded threshold
+      // Check if batch execution itself exceeded threshold (time spent deliberately spreading probes doesn't count)
       long threshold = batchProperties.getTimeout() != null ?
           batchProperties.getTimeout().getThreshold() : 10000L;
 
-      if (totalElapsedTime > threshold) {
+      if (totalElapsedTime - healthCheckService.getSpreadWindowMs(cycle) > threshold) {
         logger.warn("Batch execution time ({}ms) exceeded threshold ({}ms)",
             totalElapsedTime, threshold);
 
-        String message = String.format(
-            "⚠️ *Batch Execution Alert*\n\n" +
-                "Batch execution time: %dms\n" +
-                "Threshold: %dms\n" +
-                "Time: %s",
-            totalElapsedTime,
-            threshold,
-            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
-        );
-
-        telegramService.sendMessage(message);
+        notificationService.notifyBatchOverrun(totalElapsedTime, threshold);
       }
 
     } catch (Exception e) {
       logger.error("Health check batch execution failed", e);
+      cycle.setErrorMessage(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+
+      notificationService.notifyBatchError(e.getMessage());
+    } finally {
+      batchRunCoordinator.finish(cycle, results);
+    }
+    return true;
+  }
 
-      String errorMessage = String.format(
-          "🚨 *Batch Execution Error*\n\n" +
-              "Error: %s\n" +
-              "Time: %s",
-          e.getMessage(),
-          LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
-      );
+  // Entry point for targets driven by their own interval (see TargetProbeScheduler)
+  public void executeTargets(List<TargetServer> servers) {
+    logger.debug("Per-target probe run for {} servers", servers.size());
 
-      telegramService.sendMessage(errorMessage);
+    try {
+      List<HealthCheckResult> results = healthCheckService.performHealthCheck(servers);
+      processResults(results, null);
+    } catch (Exception e) {
+      logger.error("Per-target health check execution failed", e);
     }
   }
 
-  private void processResults(List<HealthCheckResult> results) {
+  private void processResults(List<HealthCheckResult> results, CycleContext cycle) {
     // Log results
     logResults(results);
 
-    // Check for failures
-    List<HealthCheckResult> failedResults = results.stream()
-        .filter(result -> !result.isSuccess())
-        .collect(Collectors.toList());
-
-    if (!failedResults.isEmpty()) {
-      logger.warn("Found {} failed health checks", failedResults.size());
-      telegramService.sendFailureAlert(failedResults);
+    // Alert only on state changes; a target that stays down produces no further messages
+    long alertStart = System.currentTimeMillis();
+    List<HealthTransition> transitions = targetHealthTracker.observe(results);
+    if (!transitions.isEmpty()) {
+      logger.warn("{} target state change(s): {}", transitions.size(), transitions.stream()
+          .map(t -> t.getServerName() + " " + t.getFrom() + "->" + t.getTo())
+          .collect(Collectors.joining(", ")));
+      notificationService.notifyStateChanges(transitions);
     }
-
-    // Check for slow responses
-    long threshold = batchProperties.getTimeout() != null ?
-        batchProperties.getTimeout().getThreshold() : 500L;
-
-    List<HealthCheckResult> slowResults = results.stream()
-        .filter(result -> result.isSuccess() &&
-            result.isSlowResponse(threshold))
-        .collect(Collectors.toList());
-
-    if (!slowResults.isEmpty()) {
-      logger.warn("Found {} slow responses", slowResults.size());
-      telegramService.sendSlowResponseAlert(slowResults);
+    if (cycle != null) {
+      cycle.setAlertMs(System.currentTimeMillis() - alertStart);
+      cycle.setTransitionCount(transitions.size());
     }
 
     // Success summary
@@ -121,7 +136,16 @@ public class HealthCheckBatch {
   private void logResults(List<HealthCheckResult> results) {
     logger.info("Health check results:");
     for (HealthCheckResult result : results) {
-      if (result.isSuccess()) {
+      if (result.isSkipped()) {
+        logger.warn("⏭️ {} - {} - {}",
+            result.getServerName(),
+            result.getErrorMessage(),
+            result.getUrl());
+      } else if (result.isCircuitOpen()) {
+        logger.info("⏸️ {} - skipped, circuit open - {}",
+            result.getServerName(),
+            result.getUrl());
+      } else if (result.isSuccess()) {
         logger.info("✅ {} - {}ms - {}",
             result.getServerName(),
             result.getElapsedTime(),
@@ -144,8 +168,8 @@ public class HealthCheckBatch {
   }
 
   // Manual trigger for testing
-  public void triggerManualHealthCheck() {
+  public boolean triggerManualHealthCheck() {
     logger.info("Manual health check triggered");
-    executeHealthCheck();
+    return runCycle(CycleContext.TRIGGER_MANUAL);
   }
 }
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.kica.ess.batch.job;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.service.ProbeRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Purges execution logs and rollups that have aged out of their retention window. Rows are
+ * deleted in bounded id-ordered chunks, each in its own short statement, with a pause between
+ * chunks so concurrent write-behind inserts never wait long on the tables.
+ */
+@Component
+public class RetentionJob {
+
+  private static final Logger logger = LoggerFactory.getLogger(RetentionJob.class);
+
+  // Rollup summaries read the leading partial hour of a 24h window from the minute table
+  private static final int MIN_MINUTE_ROLLUP_HOURS = 26;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private BatchProperties batchProperties;
+
+  @Value("${spring.profiles.active:dev}")
+  private String activeProfile;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+  private volatile Map<String, Object> lastRun;
+
+  @Scheduled(cron = "${batch.health-check.retention.cron:0 30 3 * * *}")
+  public void executeRetention() {
+    BatchProperties.Retention retention = getRetention();
+    if (!retention.isEnabled()) {
+      return;
+    }
+    purge();
+  }
+
+  /**
+   * Runs one purge pass. Returns the run report, or null if a purge is already running.
+   */
+  public Map<String, Object> purge() {
+    if (!running.compareAndSet(false, true)) {
+      logger.warn("Retention purge not started - previous purge still running");
+      return null;
+    }
+
+    BatchProperties.Retention retention = getRetention();
+    LocalDateTime now = LocalDateTime.now();
+    long start = System.currentTimeMillis();
+
+    try {
+      logger.info("=== Retention purge started (execution logs: {} days, minute rollups: {} hours, hour rollups: {} days) ===",
+          retention.getExecutionLogDays(), minuteRollupHours(retention), retention.getHourRollupDays());
+
+      Map<String, Object> purged = new HashMap<>();
+      purged.put("execution_logs", purgeChunked("execution_logs", "execution_time",
+          now.minusDays(retention.getExecutionLogDays()), true, retention));
+      purged.put("response_bodies", purgeOrphanedBodies(now.minusDays(retention.getExecutionLogDays()), retention));
+      purged.put(ProbeRollupService.MINUTE_TABLE, purgeChunked(ProbeRollupService.MINUTE_TABLE, "bucket_start",
+          now.minusHours(minuteRollupHours(retention)), false, retention));
+      purged.put(ProbeRollupService.HOUR_TABLE, purgeChunked(ProbeRollupService.HOUR_TABLE, "bucket_start",
+          now.minusDays(retention.getHourRollupDays()), false, retention));
+      purged.put("batch_runs", purgeChunked("batch_runs", "started_at",
+          now.minusDays(retention.getBatchRunDays()), true, retention));
+
+      long elapsed = System.currentTimeMillis() - start;
+      Map<String, Object> report = new HashMap<>();
+      report.put("purged", purged);
+      report.put("durationMs", elapsed);
+      report.put("completedAt", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+      lastRun = report;
+
+      logger.info("=== Retention purge completed in {}ms: {} ===", elapsed, purged);
+      return report;
+
+    } catch (Exception e) {
+      long elapsed = System.currentTimeMillis() - start;
+      logger.error("Retention purge failed after {}ms: {}", elapsed, e.getMessage(), e);
+
+      Map<String, Object> report = new HashMap<>();
+      report.put("error", e.getMessage());
+      report.put("durationMs", elapsed);
+      report.put("completedAt", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+      lastRun = report;
+      return report;
+    } finally {
+      running.set(false);
+    }
+  }
+
+  /**
+   * Deletes rows older than the cutoff, walking the primary key in chunks. Each chunk selects the
+   * next batch of expired ids after the last one seen and deletes that id range, so no statement
+   * touches more than {@code chunk-size} rows and no scan restarts from the beginning.
+   */
+  private long purgeChunked(String table, String timeColumn, LocalDateTime cutoff, boolean environmentScoped,
+                            BatchProperties.Retention retention) {
+    int chunkSize = Math.max(1, retention.getChunkSize());
+    String filter = timeColumn + " < ?" + (environmentScoped ? " AND (environment = ? OR environment IS NULL)" : "");
+    String selectSql = "SELECT id FROM " + table + " WHERE id > ? AND " + filter + " ORDER BY id LIMIT " + chunkSize;
+    String deleteSql = "DELETE FROM " + table + " WHERE id BETWEEN ? AND ? AND " + filter;
+
+    long total = 0;
+    long lastId = 0;
+    while (true) {
+      List<Long> ids = jdbcTemplate.queryForList(selectSql, Long.class, args(lastId, cutoff, environmentScoped));
+      if (ids.isEmpty()) {
+        break;
+      }
+
+      long firstId = ids.get(0);
+      lastId = ids.get(ids.size() - 1);
+      List<Object> deleteArgs = new ArrayList<>();
+      deleteArgs.add(firstId);
+      for (Object arg : args(lastId, cutoff, environmentScoped)) {
+        deleteArgs.add(arg);
+      }
+      total += jdbcTemplate.update(deleteSql, deleteArgs.toArray());
+
+      if (ids.size() < chunkSize) {
+        break;
+      }
+      if (!throttle(retention.getThrottleMs())) {
+        logger.warn("Retention purge of {} interrupted after {} rows", table, total);
+        break;
+      }
+    }
+
+    logger.debug("Purged {} rows from {} older than {}", total, table, cutoff);
+    return total;
+  }
+
+  /**
+   * Deletes stored response bodies that no execution log references any more. Only bodies not seen
+   * since the log cutoff qualify; the writer bumps last_seen_at when it reuses a body, so a body
+   * cannot be removed while a new log referencing it is being written.
+   */
+  private long purgeOrphanedBodies(LocalDateTime cutoff, BatchProperties.Retention retention) {
+    int chunkSize = Math.max(1, retention.getChunkSize());
+    String filter = "last_seen_at < ? AND NOT EXISTS " +
+        "(SELECT 1 FROM execution_logs e WHERE e.response_hash = response_bodies.body_hash)";
+    String selectSql = "SELECT body_hash FROM response_bodies WHERE body_hash > ? AND " + filter +
+        " ORDER BY body_hash LIMIT " + chunkSize;
+    String deleteSql = "DELETE FROM response_bodies WHERE body_hash BETWEEN ? AND ? AND " + filter;
+
+    long total = 0;
+    String lastHash = "";
+    while (true) {
+      List<String> hashes = jdbcTemplate.queryForList(selectSql, String.class, lastHash, Timestamp.valueOf(cutoff));
+      if (hashes.isEmpty()) {
+        break;
+      }
+
+      String firstHash = hashes.get(0);
+      lastHash = hashes.get(hashes.size() - 1);
+      total += jdbcTemplate.update(deleteSql, firstHash, lastHash, Timestamp.valueOf(cutoff));
+
+      if (hashes.size() < chunkSize) {
+        break;
+      }
+      if (!throttle(retention.getThrottleMs())) {
+        logger.warn("Retention purge of response_bodies interrupted after {} rows", total);
+        break;
+      }
+    }
+
+    logger.debug("Purged {} orphaned response bodies not seen since {}", total, cutoff);
+    return total;
+  }
+
+  private Object[] args(long id, LocalDateTime cutoff, boolean environmentScoped) {
+    return environmentScoped ?
+        new Object[]{id, Timestamp.valueOf(cutoff), activeProfile} :
+        new Object[]{id, Timestamp.valueOf(cutoff)};
+  }
+
+  private boolean throttle(long throttleMs) {
+    if (throttleMs <= 0) {
+      return true;
+    }
+    try {
+      Thread.sleep(throttleMs);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private int minuteRollupHours(BatchProperties.Retention retention) {
+    return Math.max(MIN_MINUTE_ROLLUP_HOURS, retention.getMinuteRollupHours());
+  }
+
+  private BatchProperties.Retention getRetention() {
+    return batchProperties.getRetention() != null ? batchProperties.getRetention() : new BatchProperties.Retention();
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("running", running.get());
+    stats.put("lastRun", lastRun);
+    return stats;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,203 @@
+package com.kica.ess.batch.job;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.entity.TargetServer;
+import com.kica.ess.batch.service.ProbeOffsets;
+import com.kica.ess.batch.service.TargetServerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fires targets that have their own check interval, independently of the global cron cycle.
+ * A single ticker thread owns a {@link HashedTimingWheel}; each due target is handed to a
+ * bounded dispatch pool so the ticker never waits on network or database I/O, and a slow or dead
+ * target only holds its own dispatch thread instead of delaying every target due after it.
+ */
+@Component
+public class TargetProbeScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(TargetProbeScheduler.class);
+
+  @Autowired
+  private TargetServerService targetServerService;
+
+  @Autowired
+  private HealthCheckBatch healthCheckBatch;
+
+  @Autowired
+  private BatchProperties batchProperties;
+
+  // Current schedule per target; the generation invalidates wheel entries when a target changes
+  private final Map<Long, ScheduledTarget> scheduledTargets = new ConcurrentHashMap<>();
+  private final Queue<WheelEntry> pendingEntries = new ConcurrentLinkedQueue<>();
+  private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+  private final AtomicLong generations = new AtomicLong();
+
+  private HashedTimingWheel<WheelEntry> wheel;
+  private long tickMs;
+  private ScheduledExecutorService ticker;
+  private ThreadPoolExecutor dispatcher;
+
+  @PostConstruct
+  public void start() {
+    BatchProperties.Schedule schedule = batchProperties.getSchedule() != null ?
+        batchProperties.getSchedule() : new BatchProperties.Schedule();
+
+    tickMs = Math.max(10, schedule.getWheelTickMs());
+    wheel = new HashedTimingWheel<>(schedule.getWheelSize());
+
+    ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "probe-wheel");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // At most one task per target is queued or running (see inFlight), so the queue stays bounded
+    int dispatchThreads = Math.max(1, batchProperties.getProbe() != null ?
+        batchProperties.getProbe().getMaxConcurrency() : new BatchProperties.Probe().getMaxConcurrency());
+    AtomicInteger threadCount = new AtomicInteger();
+    dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+      Thread thread = new Thread(runnable, "probe-wheel-dispatch-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    dispatcher.allowCoreThreadTimeOut(true);
+
+    ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    logger.info("Per-target probe scheduler started (tick: {}ms, wheel size: {})", tickMs, wheel.getWheelSize());
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (ticker != null) {
+      ticker.shutdownNow();
+    }
+    if (dispatcher != null) {
+      dispatcher.shutdownNow();
+    }
+  }
+
+  @Scheduled(initialDelay = 5000, fixedDelayString = "${batch.health-check.schedule.wheel-refresh-ms:30000}")
+  public void refreshTargets() {
+    try {
+      Map<Long, TargetServer> active = new HashMap<>();
+      for (TargetServer server : targetServerService.getActiveServers()) {
+        if (server.hasCustomInterval()) {
+          active.put(server.getId(), server);
+        }
+      }
+
+      scheduledTargets.keySet().removeIf(id -> !active.containsKey(id));
+
+      for (TargetServer server : active.values()) {
+        ScheduledTarget current = scheduledTargets.get(server.getId());
+        if (current != null && current.intervalTicks == toTicks(server.getCheckIntervalSeconds())) {
+          // Same schedule, just pick up the latest target definition
+          scheduledTargets.put(server.getId(), new ScheduledTarget(server, current.generation, current.intervalTicks));
+        } else {
+          ScheduledTarget target = new ScheduledTarget(server, generations.incrementAndGet(),
+              toTicks(server.getCheckIntervalSeconds()));
+          scheduledTargets.put(server.getId(), target);
+          pendingEntries.add(new WheelEntry(server.getId(), target.generation, initialDelayTicks(target)));
+        }
+      }
+
+      logger.debug("Per-target schedule refreshed: {} targets on the timing wheel", scheduledTargets.size());
+    } catch (Exception e) {
+      logger.error("Failed to refresh per-target probe schedule: {}", e.getMessage(), e);
+    }
+  }
+
+  private void tick() {
+    try {
+      WheelEntry pending;
+      while ((pending = pendingEntries.poll()) != null) {
+        wheel.schedule(pending, pending.delayTicks);
+      }
+
+      for (WheelEntry entry : wheel.advance()) {
+        ScheduledTarget target = scheduledTargets.get(entry.targetId);
+        if (target == null || target.generation != entry.generation) {
+          continue; // removed or rescheduled since this entry was queued
+        }
+
+        wheel.schedule(entry, target.intervalTicks);
+
+        if (inFlight.add(entry.targetId)) {
+          TargetServer server = target.server;
+          dispatcher.execute(() -> dispatch(server));
+        } else {
+          logger.warn("Skipping {} - previous probe still running", target.server.getName());
+        }
+      }
+    } catch (Exception e) {
+      logger.error("Probe wheel tick failed: {}", e.getMessage(), e);
+    }
+  }
+
+  private void dispatch(TargetServer server) {
+    try {
+      healthCheckBatch.executeTargets(Collections.singletonList(server));
+    } finally {
+      inFlight.remove(server.getId());
+    }
+  }
+
+  private long toTicks(Integer intervalSeconds) {
+    long intervalMs = intervalSeconds * 1000L;
+    return Math.max(1, (intervalMs + tickMs - 1) / tickMs);
+  }
+
+  // Spread first runs across one interval so a refresh does not fire every new target at once
+  private long initialDelayTicks(ScheduledTarget target) {
+    return 1 + ProbeOffsets.stableOffset(target.server.getId(), target.intervalTicks);
+  }
+
+  public int getScheduledTargetCount() {
+    return scheduledTargets.size();
+  }
+
+  private static final class ScheduledTarget {
+    private final TargetServer server;
+    private final long generation;
+    private final long intervalTicks;
+
+    private ScheduledTarget(TargetServer server, long generation, long intervalTicks) {
+      this.server = server;
+      this.generation = generation;
+      this.intervalTicks = intervalTicks;
+    }
+  }
+
+  private static final class WheelEntry {
+    private final long targetId;
+    private final long generation;
+    private final long delayTicks;
+
+    private WheelEntry(long targetId, long generation, long delayTicks) {
+      this.targetId = targetId;
+      this.generation = generation;
+      this.delayTicks = delayTicks;
+    }
+  }
+}
\ No newline at end of file
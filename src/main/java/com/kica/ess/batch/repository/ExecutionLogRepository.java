@@ -1,8 +1,9 @@
 package com.kica.ess.batch.repository;
 
+import com.kica.ess.batch.dto.ExecutionLogSummary;
 import com.kica.ess.batch.entity.ExecutionLog;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,25 +15,68 @@ import java.util.List;
 @Repository
 public interface ExecutionLogRepository extends JpaRepository<ExecutionLog, Long> {
 
-  Page<ExecutionLog> findByOrderByExecutionTimeDesc(Pageable pageable);
-
-  Page<ExecutionLog> findByTargetServerIdOrderByExecutionTimeDesc(Long targetServerId, Pageable pageable);
-
-  Page<ExecutionLog> findByServerNameContainingIgnoreCaseOrderByExecutionTimeDesc(String serverName, Pageable pageable);
-
-  Page<ExecutionLog> findBySuccessOrderByExecutionTimeDesc(Boolean success, Pageable pageable);
-
-  Page<ExecutionLog> findByExecutionTimeBetweenOrderByExecutionTimeDesc(
-      LocalDateTime startTime, LocalDateTime endTime, Pageable pageable);
-
-  @Query("SELECT e FROM ExecutionLog e WHERE e.executionTime >= :since ORDER BY e.executionTime DESC")
-  List<ExecutionLog> findRecentLogs(@Param("since") LocalDateTime since);
-
-  @Query("SELECT e FROM ExecutionLog e WHERE e.success = false AND e.executionTime >= :since ORDER BY e.executionTime DESC")
-  List<ExecutionLog> findRecentFailures(@Param("since") LocalDateTime since);
-
-  @Query("SELECT e FROM ExecutionLog e WHERE e.elapsedTimeMs > :thresholdMs AND e.executionTime >= :since ORDER BY e.executionTime DESC")
-  List<ExecutionLog> findSlowResponses(@Param("thresholdMs") Long thresholdMs, @Param("since") LocalDateTime since);
+  // List and summary queries select ExecutionLogSummary rows, never whole entities, so list pages
+  // read neither the full error message nor anything else they do not render.
+  String SUMMARY_SELECT = "SELECT new com.kica.ess.batch.dto.ExecutionLogSummary(e.id, e.targetServerId, " +
+      "e.serverName, e.url, e.method, e.success, e.statusCode, e.elapsedTimeMs, " +
+      "SUBSTRING(e.errorMessage, 1, " + ExecutionLogSummary.ERROR_PREVIEW_LENGTH + "), " +
+      "e.executionTime, e.batchExecutionId) FROM ExecutionLog e";
+
+  // Keyset pagination on (executionTime, id). Slices fetch one extra row instead of running a COUNT,
+  // and each page seeks from the cursor instead of skipping an OFFSET, so deep pages cost the same as
+  // the first. Filters are optional; pass null to ignore one.
+  // Newest-first queries walk the descending indexes and older-first (After) queries the ascending
+  // ones. The plain executionTime bound in front of each cursor condition is what lets the database
+  // seek to the cursor, and per-server queries order by targetServerId first so the composite index
+  // also delivers the sort.
+
+  String LOG_FILTER = "(:success IS NULL OR e.success = :success) AND " +
+      "(:serverName IS NULL OR LOWER(e.serverName) LIKE LOWER(CONCAT('%', :serverName, '%')))";
+
+  @Query(SUMMARY_SELECT + " WHERE " + LOG_FILTER + " ORDER BY e.executionTime DESC, e.id DESC")
+  Slice<ExecutionLogSummary> findLogSlice(@Param("success") Boolean success, @Param("serverName") String serverName,
+                                          Pageable pageable);
+
+  @Query(SUMMARY_SELECT + " WHERE " + LOG_FILTER + " AND e.executionTime <= :time AND " +
+      "(e.executionTime < :time OR (e.executionTime = :time AND e.id < :id)) " +
+      "ORDER BY e.executionTime DESC, e.id DESC")
+  Slice<ExecutionLogSummary> findLogSliceBefore(@Param("success") Boolean success, @Param("serverName") String serverName,
+                                                @Param("time") LocalDateTime time, @Param("id") Long id, Pageable pageable);
+
+  // Ascending, so the rows nearest the cursor come first; callers reverse the slice for display
+  @Query(SUMMARY_SELECT + " WHERE " + LOG_FILTER + " AND e.executionTime >= :time AND " +
+      "(e.executionTime > :time OR (e.executionTime = :time AND e.id > :id)) " +
+      "ORDER BY e.executionTime ASC, e.id ASC")
+  Slice<ExecutionLogSummary> findLogSliceAfter(@Param("success") Boolean success, @Param("serverName") String serverName,
+                                               @Param("time") LocalDateTime time, @Param("id") Long id, Pageable pageable);
+
+  // First page of one target's logs up to the given time (normally now). Without the time bound the
+  // planner picks the plain foreign key index for a bound target id and sorts every row of the target.
+  @Query(SUMMARY_SELECT + " WHERE e.targetServerId = :targetServerId AND e.executionTime <= :time " +
+      "ORDER BY e.targetServerId, e.executionTime DESC, e.id DESC")
+  Slice<ExecutionLogSummary> findServerLogSlice(@Param("targetServerId") Long targetServerId,
+                                                @Param("time") LocalDateTime time, Pageable pageable);
+
+  // Probes up to the given time not skipped at the deadline, newest first; used to seed the recent
+  // result store. Bounded by time for the same reason as findServerLogSlice.
+  @Query(SUMMARY_SELECT + " WHERE e.targetServerId = :targetServerId AND e.executionTime <= :time AND " +
+      "(e.skipped IS NULL OR e.skipped = false) ORDER BY e.targetServerId, e.executionTime DESC, e.id DESC")
+  Slice<ExecutionLogSummary> findServerProbeSlice(@Param("targetServerId") Long targetServerId,
+                                                  @Param("time") LocalDateTime time, Pageable pageable);
+
+  @Query(SUMMARY_SELECT + " WHERE e.targetServerId = :targetServerId AND e.executionTime <= :time AND " +
+      "(e.executionTime < :time OR (e.executionTime = :time AND e.id < :id)) " +
+      "ORDER BY e.targetServerId, e.executionTime DESC, e.id DESC")
+  Slice<ExecutionLogSummary> findServerLogSliceBefore(@Param("targetServerId") Long targetServerId,
+                                                      @Param("time") LocalDateTime time, @Param("id") Long id,
+                                                      Pageable pageable);
+
+  @Query(SUMMARY_SELECT + " WHERE e.targetServerId = :targetServerId AND e.executionTime >= :time AND " +
+      "(e.executionTime > :time OR (e.executionTime = :time AND e.id > :id)) " +
+      "ORDER BY e.targetServerId, e.executionTime ASC, e.id ASC")
+  Slice<ExecutionLogSummary> findServerLogSliceAfter(@Param("targetServerId") Long targetServerId,
+                                                     @Param("time") LocalDateTime time, @Param("id") Long id,
+                                                     Pageable pageable);
 
   @Query("SELECT COUNT(e) FROM ExecutionLog e WHERE e.success = true AND e.executionTime >= :since")
   long countSuccessfulExecutions(@Param("since") LocalDateTime since);
@@ -40,18 +84,6 @@ public interface ExecutionLogRepository extends JpaRepository<ExecutionLog, Long
   @Query("SELECT COUNT(e) FROM ExecutionLog e WHERE e.success = false AND e.executionTime >= :since")
   long countFailedExecutions(@Param("since") LocalDateTime since);
 
-  @Query("SELECT AVG(e.elapsedTimeMs) FROM ExecutionLog e WHERE e.success = true AND e.executionTime >= :since")
-  Double getAverageResponseTime(@Param("since") LocalDateTime since);
-
-  @Query("SELECT e.targetServerId, COUNT(e) as execCount, " +
-      "AVG(e.elapsedTimeMs) as avgTime, " +
-      "SUM(CASE WHEN e.success = true THEN 1 ELSE 0 END) as successCount " +
-      "FROM ExecutionLog e WHERE e.executionTime >= :since " +
-      "GROUP BY e.targetServerId")
-  List<Object[]> getExecutionStatsByServer(@Param("since") LocalDateTime since);
-
   @Query("SELECT e FROM ExecutionLog e WHERE e.batchExecutionId = :batchId ORDER BY e.executionTime")
   List<ExecutionLog> findByBatchExecutionId(@Param("batchId") String batchExecutionId);
-
-  void deleteByExecutionTimeBefore(LocalDateTime cutoffTime);
 }
\ No newline at end of file
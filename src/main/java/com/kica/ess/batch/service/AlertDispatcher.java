@@ -0,0 +1,397 @@
+package com.kica.ess.batch.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kica.ess.batch.config.BatchProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous Telegram delivery. Callers hand messages to a bounded queue and return
+ * immediately; a single background sender coalesces everything queued within
+ * {@code coalesce-window-ms} into as few messages as fit the length limit, keeps at least
+ * {@code min-interval-ms} between messages to the same chat, and retries failed sends with
+ * exponential backoff, waiting out Telegram's {@code retry_after} on 429 responses.
+ * When the queue is full new alerts are dropped and counted rather than blocking the caller.
+ */
+@Service
+public class AlertDispatcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(AlertDispatcher.class);
+
+  private static final String TELEGRAM_API_URL = "https://api.telegram.org/bot";
+  static final String SEPARATOR = "\n\n";
+
+  // Telegram rejects longer messages outright
+  static final int TELEGRAM_MAX_MESSAGE_LENGTH = 4096;
+  // Room kept in each chunk of a split message for its "(i/n)" marker line
+  private static final int CHUNK_MARKER_RESERVE = 16;
+
+  @Autowired(required = false)
+  private BatchProperties batchProperties;
+
+  @Autowired
+  private WebClient webClient;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private ProbeMetrics probeMetrics;
+
+  private BatchProperties.Alert settings;
+  private BlockingQueue<String> queue;
+  private Thread senderThread;
+  private volatile boolean running;
+
+  // Only touched by the sender thread
+  private final Map<String, Long> nextSendAt = new HashMap<>();
+
+  private final AtomicLong enqueued = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+  private final AtomicLong split = new AtomicLong();
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong retried = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private volatile String lastError;
+
+  @PostConstruct
+  public void start() {
+    settings = batchProperties != null && batchProperties.getAlert() != null ?
+        batchProperties.getAlert() : new BatchProperties.Alert();
+    queue = new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity()));
+
+    running = true;
+    senderThread = new Thread(this::runSender, "alert-dispatcher");
+    senderThread.setDaemon(true);
+    senderThread.start();
+    probeMetrics.gauge("healthcheck.alert.queue.depth", "Telegram alerts waiting for delivery", queue, BlockingQueue::size);
+
+    logger.info("Alert dispatcher started (queue: {}, coalesce window: {}ms, min interval: {}ms)",
+        settings.getQueueCapacity(), settings.getCoalesceWindowMs(), settings.getMinIntervalMs());
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    if (senderThread != null) {
+      senderThread.interrupt();
+      try {
+        senderThread.join(settings.getSendTimeoutMs() + 1000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    logger.info("Alert dispatcher stopped. Sent: {}, dropped: {}, failed: {}, pending: {}",
+        sent.get(), dropped.get(), failed.get(), queue.size());
+  }
+
+  /**
+   * Queues a message for delivery without blocking. Returns false if the queue is full and the
+   * message was dropped.
+   */
+  public boolean dispatch(String message) {
+    if (message == null || message.isEmpty()) {
+      return false;
+    }
+    if (queue.offer(message)) {
+      enqueued.incrementAndGet();
+      return true;
+    }
+    long total = dropped.incrementAndGet();
+    logger.warn("Alert queue full, dropped alert (total dropped: {})", total);
+    return false;
+  }
+
+  private void runSender() {
+    List<String> pending = new ArrayList<>();
+
+    while (running || !queue.isEmpty()) {
+      try {
+        String first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+          continue;
+        }
+        pending.add(first);
+
+        // Alerts raised in the same burst (e.g. one cycle's failures and slow responses) go out together
+        long deadline = System.currentTimeMillis() + settings.getCoalesceWindowMs();
+        long remaining;
+        while (running && (remaining = deadline - System.currentTimeMillis()) > 0) {
+          String next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+          if (next == null) {
+            break;
+          }
+          pending.add(next);
+        }
+        queue.drainTo(pending);
+      } catch (InterruptedException e) {
+        // Shutdown requested; deliver whatever is queued once, without retries
+        queue.drainTo(pending);
+      }
+
+      for (String message : coalesce(pending)) {
+        long start = System.currentTimeMillis();
+        boolean delivered = deliverWithRetry(message);
+        probeMetrics.recordAlertDispatch(System.currentTimeMillis() - start, delivered);
+      }
+      pending.clear();
+    }
+  }
+
+  /**
+   * Joins queued messages in order into as few messages as fit {@code max-message-length}
+   * (capped at Telegram's limit). A message longer than the limit is first split into numbered
+   * chunks, which keep their order.
+   */
+  List<String> coalesce(List<String> messages) {
+    int limit = getMessageLimit();
+    List<String> merged = new ArrayList<>();
+    StringBuilder current = new StringBuilder();
+
+    for (String message : messages) {
+      for (String part : split(message, limit)) {
+        if (current.length() > 0 && current.length() + SEPARATOR.length() + part.length() > limit) {
+          merged.add(current.toString());
+          current.setLength(0);
+        }
+        if (current.length() > 0) {
+          current.append(SEPARATOR);
+        }
+        current.append(part);
+      }
+    }
+    if (current.length() > 0) {
+      merged.add(current.toString());
+    }
+
+    coalesced.addAndGet(Math.max(0, messages.size() - merged.size()));
+    return merged;
+  }
+
+  /**
+   * Splits a message into chunks of at most {@code limit} characters, each prefixed with an
+   * "(i/n)" line. Cuts go at the last blank line before the limit, else the last line break, so
+   * Markdown spans (which never cross lines in our templates) stay intact; only a single line
+   * longer than a whole chunk is cut mid-line, never inside a surrogate pair.
+   */
+  List<String> split(String message, int limit) {
+    if (message.length() <= limit) {
+      return Collections.singletonList(message);
+    }
+    int budget = Math.max(limit / 2, limit - CHUNK_MARKER_RESERVE);
+    List<String> chunks = new ArrayList<>();
+
+    int start = 0;
+    while (start < message.length()) {
+      int end = Math.min(message.length(), start + budget);
+      if (end < message.length()) {
+        int paragraph = message.lastIndexOf(SEPARATOR, end - SEPARATOR.length());
+        int line = message.lastIndexOf('\n', end - 1);
+        if (paragraph > start) {
+          end = paragraph + SEPARATOR.length();
+        } else if (line > start) {
+          end = line + 1;
+        } else if (Character.isHighSurrogate(message.charAt(end - 1))) {
+          end--;
+        }
+      }
+      // Drop the line breaks at the cut; indentation at the start of a chunk is kept
+      int from = start;
+      int to = end;
+      while (from < to && message.charAt(from) == '\n') {
+        from++;
+      }
+      while (to > from && message.charAt(to - 1) == '\n') {
+        to--;
+      }
+      if (from < to) {
+        chunks.add(message.substring(from, to));
+      }
+      start = end;
+    }
+
+    List<String> numbered = new ArrayList<>(chunks.size());
+    for (int i = 0; i < chunks.size(); i++) {
+      numbered.add("(" + (i + 1) + "/" + chunks.size() + ")\n" + chunks.get(i));
+    }
+    split.incrementAndGet();
+    return numbered;
+  }
+
+  private int getMessageLimit() {
+    return Math.max(1, Math.min(TELEGRAM_MAX_MESSAGE_LENGTH, settings.getMaxMessageLength()));
+  }
+
+  private boolean deliverWithRetry(String message) {
+    BatchProperties.Telegram telegram = batchProperties != null ? batchProperties.getTelegram() : null;
+    String botToken = telegram != null ? telegram.getBotToken() : null;
+    String chatId = telegram != null ? telegram.getChatId() : null;
+    if (botToken == null || chatId == null || botToken.trim().isEmpty() || chatId.trim().isEmpty()) {
+      failed.incrementAndGet();
+      logger.error("Telegram bot token or chat ID is not configured properly");
+      return false;
+    }
+
+    int maxAttempts = running ? Math.max(1, settings.getMaxAttempts()) : 1;
+    for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+      if (!awaitSlot(chatId)) {
+        lastError = "interrupted";
+        break;
+      }
+
+      Delivery delivery = deliver(botToken, chatId, message);
+      long now = System.currentTimeMillis();
+      nextSendAt.put(chatId, now + settings.getMinIntervalMs());
+
+      if (delivery.sent) {
+        sent.incrementAndGet();
+        logger.info("Telegram message sent ({} chars, attempt {})", message.length(), attempt);
+        return true;
+      }
+
+      lastError = delivery.error;
+      if (!delivery.retryable || attempt == maxAttempts || !running) {
+        break;
+      }
+
+      long wait = delivery.retryAfterMs > 0 ? delivery.retryAfterMs : backoff(attempt);
+      nextSendAt.put(chatId, Math.max(nextSendAt.get(chatId), now + wait));
+      retried.incrementAndGet();
+      logger.warn("Telegram send failed (attempt {}/{}): {} - retrying in {}ms", attempt, maxAttempts, delivery.error, wait);
+    }
+
+    failed.incrementAndGet();
+    logger.error("Failed to send Telegram message: {}", lastError);
+    return false;
+  }
+
+  private boolean awaitSlot(String chatId) {
+    long wait = nextSendAt.getOrDefault(chatId, 0L) - System.currentTimeMillis();
+    if (wait <= 0) {
+      return true;
+    }
+    try {
+      Thread.sleep(wait);
+      return true;
+    } catch (InterruptedException e) {
+      // Interrupted by shutdown: send right away instead of waiting out the interval
+      return !running;
+    }
+  }
+
+  private long backoff(int attempt) {
+    long backoff = settings.getInitialBackoffMs() << Math.min(attempt - 1, 20);
+    return Math.min(settings.getMaxBackoffMs(), backoff);
+  }
+
+  private Delivery deliver(String botToken, String chatId, String message) {
+    Map<String, Object> requestBody = new HashMap<>();
+    requestBody.put("chat_id", chatId);
+    requestBody.put("text", message);
+    requestBody.put("parse_mode", "Markdown");
+
+    try {
+      Delivery delivery = webClient.post()
+          .uri(TELEGRAM_API_URL + botToken + "/sendMessage")
+          .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+          .body(BodyInserters.fromValue(requestBody))
+          .exchangeToMono(response -> response.bodyToMono(String.class)
+              .defaultIfEmpty("")
+              .map(body -> toDelivery(response.rawStatusCode(), body)))
+          .timeout(Duration.ofMillis(settings.getSendTimeoutMs()))
+          .block();
+      return delivery != null ? delivery : Delivery.retry(0, "empty response");
+    } catch (Exception e) {
+      return Delivery.retry(0, e.getMessage());
+    }
+  }
+
+  // Telegram reports flood control as 429 with parameters.retry_after in seconds
+  private Delivery toDelivery(int status, String body) {
+    if (status >= 200 && status < 300) {
+      return Delivery.SENT;
+    }
+    String description = "HTTP " + status;
+    long retryAfterMs = 0;
+    try {
+      JsonNode json = objectMapper.readTree(body);
+      if (json.hasNonNull("description")) {
+        description += " " + json.get("description").asText();
+      }
+      JsonNode retryAfter = json.path("parameters").path("retry_after");
+      if (retryAfter.isNumber()) {
+        retryAfterMs = retryAfter.asLong() * 1000;
+      }
+    } catch (Exception e) {
+      logger.debug("Unparseable Telegram error response: {}", body);
+    }
+
+    if (status == 429 || status >= 500) {
+      return Delivery.retry(retryAfterMs, description);
+    }
+    return Delivery.permanent(description);
+  }
+
+  public int getQueueDepth() {
+    return queue != null ? queue.size() : 0;
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("queueDepth", getQueueDepth());
+    stats.put("enqueued", enqueued.get());
+    stats.put("dropped", dropped.get());
+    stats.put("coalesced", coalesced.get());
+    stats.put("split", split.get());
+    stats.put("sent", sent.get());
+    stats.put("retried", retried.get());
+    stats.put("failed", failed.get());
+    stats.put("lastError", lastError);
+    return stats;
+  }
+
+  private static final class Delivery {
+    static final Delivery SENT = new Delivery(true, false, 0, null);
+
+    private final boolean sent;
+    private final boolean retryable;
+    private final long retryAfterMs;
+    private final String error;
+
+    private Delivery(boolean sent, boolean retryable, long retryAfterMs, String error) {
+      this.sent = sent;
+      this.retryable = retryable;
+      this.retryAfterMs = retryAfterMs;
+      this.error = error;
+    }
+
+    static Delivery retry(long retryAfterMs, String error) {
+      return new Delivery(false, true, retryAfterMs, error);
+    }
+
+    static Delivery permanent(String error) {
+      return new Delivery(false, false, 0, error);
+    }
+  }
+}
\ No newline at end of file
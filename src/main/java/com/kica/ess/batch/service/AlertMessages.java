@@ -0,0 +1,141 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.dto.HealthTransition;
+import com.kica.ess.batch.dto.Notification;
+import com.kica.ess.batch.dto.TargetHealthState;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds the alert notifications sent to every channel from templates compiled once at class
+ * load, rendered into a per-thread buffer that is reused across alerts.
+ */
+final class AlertMessages {
+
+  static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+  // Buffers that grew past this for one huge alert are not kept around
+  private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+  private static final AlertTemplate STATE_CHANGE_HEADER = AlertTemplate.compile(
+      "🔔 *Health State Change*\n\n⏰ Time: {time}\n\n", "time");
+  private static final AlertTemplate TRANSITION = AlertTemplate.compile(
+      "{icon} *{name}*: {from} → {to}\n   URL: {url}\n", "icon", "name", "from", "to", "url");
+  private static final AlertTemplate DOWN_DETAIL = AlertTemplate.compile(
+      "   Error: {error}\n   Consecutive failures: {failures}\n", "error", "failures");
+  private static final AlertTemplate DEGRADED_DETAIL = AlertTemplate.compile(
+      "   Response Time: {elapsed}ms (threshold {threshold}ms)\n", "elapsed", "threshold");
+  private static final AlertTemplate FLAPPING_DETAIL = AlertTemplate.compile(
+      "   Changing state repeatedly; further changes are held until it settles\n");
+  private static final AlertTemplate UP_DETAIL = AlertTemplate.compile(
+      "   Response Time: {elapsed}ms\n", "elapsed");
+  private static final AlertTemplate PREVIOUS_STATE = AlertTemplate.compile(
+      "   {from} for {duration}\n", "from", "duration");
+  private static final AlertTemplate BATCH_OVERRUN = AlertTemplate.compile(
+      "⚠️ *Batch Execution Alert*\n\nBatch execution time: {elapsed}ms\nThreshold: {threshold}ms\nTime: {time}",
+      "elapsed", "threshold", "time");
+  private static final AlertTemplate BATCH_ERROR = AlertTemplate.compile(
+      "🚨 *Batch Execution Error*\n\nError: {error}\nTime: {time}", "error", "time");
+  private static final AlertTemplate TEST = AlertTemplate.compile(
+      "🧪 *Test Message*\n\nHealth Check Batch is running successfully!\n\nTime: {time}", "time");
+
+  private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+  private AlertMessages() {
+  }
+
+  static Notification stateChange(List<HealthTransition> transitions, long slowThresholdMs) {
+    StringBuilder sb = buffer();
+    STATE_CHANGE_HEADER.render(sb, now());
+
+    for (HealthTransition transition : transitions) {
+      TRANSITION.render(sb, stateIcon(transition.getTo()), transition.getServerName(),
+          transition.getFrom(), transition.getTo(), transition.getUrl());
+
+      switch (transition.getTo()) {
+        case DOWN:
+          DOWN_DETAIL.render(sb, transition.getErrorMessage() != null ? transition.getErrorMessage() : "Unknown error",
+              transition.getConsecutiveFailures());
+          break;
+        case DEGRADED:
+          DEGRADED_DETAIL.render(sb, transition.getElapsedTime(), slowThresholdMs);
+          break;
+        case FLAPPING:
+          FLAPPING_DETAIL.render(sb);
+          break;
+        default:
+          UP_DETAIL.render(sb, transition.getElapsedTime());
+          break;
+      }
+      if (transition.getFrom() != TargetHealthState.UP) {
+        PREVIOUS_STATE.render(sb, transition.getFrom(), formatDuration(transition.getPreviousStateDurationMs()));
+      }
+      sb.append('\n');
+    }
+
+    String title = transitions.size() == 1 ?
+        transitions.get(0).getServerName() + " is " + transitions.get(0).getTo() :
+        transitions.size() + " targets changed state";
+    return new Notification(Notification.TYPE_STATE_CHANGE, title, release(sb), transitions);
+  }
+
+  static Notification batchOverrun(long elapsedMs, long thresholdMs) {
+    String text = release(BATCH_OVERRUN.render(buffer(), elapsedMs, thresholdMs, now()));
+    return new Notification(Notification.TYPE_BATCH_OVERRUN, "Batch execution took " + elapsedMs + "ms",
+        text, Collections.emptyList());
+  }
+
+  static Notification batchError(String error) {
+    String text = release(BATCH_ERROR.render(buffer(), error, now()));
+    return new Notification(Notification.TYPE_BATCH_ERROR, "Batch execution failed", text, Collections.emptyList());
+  }
+
+  static String testMessage() {
+    return release(TEST.render(buffer(), now()));
+  }
+
+  private static StringBuilder buffer() {
+    StringBuilder sb = BUFFER.get();
+    sb.setLength(0);
+    return sb;
+  }
+
+  private static String release(StringBuilder sb) {
+    String text = sb.toString();
+    if (sb.capacity() > MAX_RETAINED_BUFFER) {
+      BUFFER.remove();
+    }
+    return text;
+  }
+
+  private static String now() {
+    return LocalDateTime.now().format(TIME_FORMAT);
+  }
+
+  private static String stateIcon(TargetHealthState state) {
+    switch (state) {
+      case UP:
+        return "✅";
+      case DEGRADED:
+        return "🐌";
+      case DOWN:
+        return "🚨";
+      default:
+        return "🔁";
+    }
+  }
+
+  private static String formatDuration(long millis) {
+    long minutes = millis / 60_000;
+    if (minutes >= 60) {
+      return (minutes / 60) + "h " + (minutes % 60) + "m";
+    }
+    if (minutes > 0) {
+      return minutes + "m " + (millis / 1000 % 60) + "s";
+    }
+    return (millis / 1000) + "s";
+  }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.kica.ess.batch.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Alert text with {@code {name}} placeholders. The pattern is parsed once, when the template is
+ * compiled, into literal segments and argument slots; rendering only appends those to the
+ * caller's buffer, so nothing is scanned or looked up per alert.
+ */
+final class AlertTemplate {
+
+  private final String[] literals;
+  private final int[] slots;
+
+  private AlertTemplate(String[] literals, int[] slots) {
+    this.literals = literals;
+    this.slots = slots;
+  }
+
+  /**
+   * Compiles a pattern whose placeholders must all be among {@code params}; arguments are later
+   * passed to {@link #render} in the order of {@code params}.
+   */
+  static AlertTemplate compile(String pattern, String... params) {
+    List<String> names = Arrays.asList(params);
+    List<String> literals = new ArrayList<>();
+    List<Integer> slots = new ArrayList<>();
+
+    int start = 0;
+    int open;
+    while ((open = pattern.indexOf('{', start)) >= 0) {
+      int close = pattern.indexOf('}', open);
+      if (close < 0) {
+        throw new IllegalArgumentException("Unclosed placeholder in alert template: " + pattern);
+      }
+      int slot = names.indexOf(pattern.substring(open + 1, close));
+      if (slot < 0) {
+        throw new IllegalArgumentException("Unknown placeholder " + pattern.substring(open, close + 1) +
+            " in alert template: " + pattern);
+      }
+      literals.add(pattern.substring(start, open));
+      slots.add(slot);
+      start = close + 1;
+    }
+    literals.add(pattern.substring(start));
+
+    return new AlertTemplate(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  StringBuilder render(StringBuilder out, Object... args) {
+    out.append(literals[0]);
+    for (int i = 0; i < slots.length; i++) {
+      out.append(args[slots[i]]).append(literals[i + 1]);
+    }
+    return out;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.dto.BatchRun;
+import com.kica.ess.batch.dto.CycleContext;
+import com.kica.ess.batch.dto.HealthCheckResult;
+import com.kica.ess.batch.exception.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Batch run ledger. Every cycle gets a {@code batch_runs} row when it starts, completed with its
+ * end time, phase timings and result counts when it finishes, so cycle duration and where the
+ * time went can be compared across days. Two single-row statements per cycle; a ledger failure
+ * is logged and never fails the cycle.
+ */
+@Service
+public class BatchRunService {
+
+  private static final Logger logger = LoggerFactory.getLogger(BatchRunService.class);
+
+  static final int MAX_ERROR_LENGTH = 1000;
+
+  private static final String INSERT_SQL =
+      "INSERT INTO batch_runs (cycle_id, environment, trigger_type, status, started_at, budget_ms) " +
+          "VALUES (?, ?, ?, ?, ?, ?)";
+
+  private static final String FINISH_SQL =
+      "UPDATE batch_runs SET status = ?, finished_at = ?, duration_ms = ?, load_targets_ms = ?, prewarm_ms = ?, " +
+          "probe_ms = ?, persist_ms = ?, alert_ms = ?, target_count = ?, success_count = ?, failure_count = ?, " +
+          "skipped_count = ?, circuit_open_count = ?, transition_count = ?, overran = ?, error_message = ? " +
+          "WHERE cycle_id = ?";
+
+  private static final String SELECT_SQL =
+      "SELECT id, cycle_id, environment, trigger_type, status, started_at, finished_at, duration_ms, budget_ms, " +
+          "load_targets_ms, prewarm_ms, probe_ms, persist_ms, alert_ms, target_count, success_count, failure_count, " +
+          "skipped_count, circuit_open_count, transition_count, overran, error_message FROM batch_runs ";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Value("${spring.profiles.active:dev}")
+  private String activeProfile;
+
+  /**
+   * Cycles still marked running were cut off by the previous shutdown.
+   */
+  @PostConstruct
+  public void init() {
+    try {
+      int aborted = jdbcTemplate.update("UPDATE batch_runs SET status = ? WHERE status = ? AND environment = ?",
+          BatchRun.STATUS_ABORTED, BatchRun.STATUS_RUNNING, activeProfile);
+      if (aborted > 0) {
+        logger.warn("Marked {} batch runs interrupted by the last shutdown as aborted", aborted);
+      }
+    } catch (Exception e) {
+      logger.error("Failed to close out interrupted batch runs: {}", e.getMessage());
+    }
+  }
+
+  public void recordStart(CycleContext cycle) {
+    try {
+      jdbcTemplate.update(INSERT_SQL, cycle.getCycleId(), cycle.getEnvironment(), cycle.getTrigger(),
+          BatchRun.STATUS_RUNNING, new Timestamp(cycle.getStartedAt()), cycle.getDeadlineAt() - cycle.getStartedAt());
+    } catch (Exception e) {
+      logger.error("Failed to record start of batch run {}: {}", cycle.getCycleId(), e.getMessage());
+    }
+  }
+
+  /**
+   * Completes the cycle's row. Results may be null if the cycle failed before producing any.
+   */
+  public void recordFinish(CycleContext cycle, List<HealthCheckResult> results, long elapsedMs, boolean overran) {
+    int success = 0;
+    int failure = 0;
+    int skipped = 0;
+    int circuitOpen = 0;
+    if (results != null) {
+      for (HealthCheckResult result : results) {
+        if (result.isCircuitOpen()) {
+          circuitOpen++;
+        } else if (result.isSkipped()) {
+          skipped++;
+        } else if (result.isSuccess()) {
+          success++;
+        } else {
+          failure++;
+        }
+      }
+    }
+
+    String error = cycle.getErrorMessage();
+    if (error != null && error.length() > MAX_ERROR_LENGTH) {
+      error = error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    try {
+      jdbcTemplate.update(FINISH_SQL,
+          error != null ? BatchRun.STATUS_FAILED : BatchRun.STATUS_COMPLETED,
+          new Timestamp(cycle.getStartedAt() + elapsedMs), elapsedMs,
+          cycle.getLoadTargetsMs(), cycle.getPrewarmMs(), cycle.getProbeMs(), cycle.getPersistMs(), cycle.getAlertMs(),
+          cycle.getTargetCount(), success, failure, skipped, circuitOpen, cycle.getTransitionCount(),
+          overran, error, cycle.getCycleId());
+    } catch (Exception e) {
+      logger.error("Failed to record end of batch run {}: {}", cycle.getCycleId(), e.getMessage());
+    }
+  }
+
+  /**
+   * Most recent runs of the active environment, newest first.
+   */
+  public List<BatchRun> getRecentRuns(int limit) {
+    return jdbcTemplate.query(SELECT_SQL + "WHERE environment = ? ORDER BY started_at DESC, id DESC LIMIT ?",
+        this::mapRun, activeProfile, Math.max(1, limit));
+  }
+
+  public BatchRun getRun(String cycleId) {
+    List<BatchRun> runs = jdbcTemplate.query(SELECT_SQL + "WHERE cycle_id = ?", this::mapRun, cycleId);
+    if (runs.isEmpty()) {
+      throw new NotFoundException("Batch run not found with cycle id: " + cycleId);
+    }
+    return runs.get(0);
+  }
+
+  private BatchRun mapRun(ResultSet rs, int rowNum) throws SQLException {
+    BatchRun run = new BatchRun();
+    run.setId(rs.getLong("id"));
+    run.setCycleId(rs.getString("cycle_id"));
+    run.setEnvironment(rs.getString("environment"));
+    run.setTrigger(rs.getString("trigger_type"));
+    run.setStatus(rs.getString("status"));
+    Timestamp startedAt = rs.getTimestamp("started_at");
+    run.setStartedAt(startedAt != null ? startedAt.toLocalDateTime() : null);
+    Timestamp finishedAt = rs.getTimestamp("finished_at");
+    run.setFinishedAt(finishedAt != null ? finishedAt.toLocalDateTime() : null);
+    run.setDurationMs(rs.getObject("duration_ms", Long.class));
+    run.setBudgetMs(rs.getObject("budget_ms", Long.class));
+    run.setLoadTargetsMs(rs.getObject("load_targets_ms", Long.class));
+    run.setPrewarmMs(rs.getObject("prewarm_ms", Long.class));
+    run.setProbeMs(rs.getObject("probe_ms", Long.class));
+    run.setPersistMs(rs.getObject("persist_ms", Long.class));
+    run.setAlertMs(rs.getObject("alert_ms", Long.class));
+    run.setTargetCount(rs.getObject("target_count", Integer.class));
+    run.setSuccessCount(rs.getObject("success_count", Integer.class));
+    run.setFailureCount(rs.getObject("failure_count", Integer.class));
+    run.setSkippedCount(rs.getObject("skipped_count", Integer.class));
+    run.setCircuitOpenCount(rs.getObject("circuit_open_count", Integer.class));
+    run.setTransitionCount(rs.getObject("transition_count", Integer.class));
+    run.setOverran(rs.getBoolean("overran"));
+    run.setErrorMessage(rs.getString("error_message"));
+    return run;
+  }
+}
\ No newline at end of file
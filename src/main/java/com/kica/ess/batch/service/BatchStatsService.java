@@ -0,0 +1,116 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.RollupSummary;
+import com.kica.ess.batch.dto.StatsSnapshot;
+import com.kica.ess.batch.job.BatchRunCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the 24h statistics behind {@code /api/batch/stats} and the dashboard. The snapshot is
+ * built from the rollup tables and the target inventory, then reused until a batch cycle
+ * completes or it reaches {@link #MAX_AGE_MS}, so polling the endpoint costs a field read and
+ * concurrent pollers never trigger more than one rebuild.
+ */
+@Service
+public class BatchStatsService {
+
+  private static final Logger logger = LoggerFactory.getLogger(BatchStatsService.class);
+
+  // Targets on their own interval log outside cycles; the age limit keeps their stats moving too
+  static final long MAX_AGE_MS = 60_000L;
+
+  private static final long DEFAULT_SLOW_THRESHOLD_MS = 10000L;
+
+  @Autowired
+  private ProbeRollupService probeRollupService;
+
+  @Autowired
+  private TargetInventory targetInventory;
+
+  @Autowired
+  private BatchRunCoordinator batchRunCoordinator;
+
+  @Autowired(required = false)
+  private BatchProperties batchProperties;
+
+  private volatile StatsSnapshot snapshot;
+
+  public StatsSnapshot getSnapshot() {
+    StatsSnapshot current = snapshot;
+    if (isFresh(current)) {
+      return current;
+    }
+    synchronized (this) {
+      current = snapshot;
+      if (!isFresh(current)) {
+        current = compute();
+        snapshot = current;
+      }
+      return current;
+    }
+  }
+
+  private boolean isFresh(StatsSnapshot current) {
+    return current != null
+        && current.getCycle() == batchRunCoordinator.getCompletedCycles()
+        && System.currentTimeMillis() - current.getComputedAt() < MAX_AGE_MS;
+  }
+
+  private StatsSnapshot compute() {
+    long start = System.currentTimeMillis();
+    long cycle = batchRunCoordinator.getCompletedCycles();
+
+    Map<Long, RollupSummary> targets = probeRollupService.getTargetSummaries(LocalDateTime.now().minusHours(24));
+    RollupSummary last24h = new RollupSummary();
+    targets.values().forEach(last24h::merge);
+
+    Map<Long, String> serverNames = new HashMap<>();
+    targetInventory.getAllServers().forEach(server -> serverNames.put(server.getId(), server.getName()));
+    List<Map<String, Object>> targetLatency = new ArrayList<>();
+    targets.forEach((targetServerId, summary) -> {
+      Map<String, Object> target = toLatencyMap(summary);
+      target.put("targetServerId", targetServerId);
+      target.put("serverName", serverNames.get(targetServerId));
+      targetLatency.add(Collections.unmodifiableMap(target));
+    });
+
+    StatsSnapshot computed = new StatsSnapshot(last24h, Collections.unmodifiableMap(targets),
+        Collections.unmodifiableMap(serverNames), Collections.unmodifiableMap(toLatencyMap(last24h)),
+        Collections.unmodifiableList(targetLatency),
+        last24h.estimateCountAbove(getSlowThresholdMs()), targetInventory.getActiveServerCount(),
+        targetInventory.getTotalServerCount(), cycle, System.currentTimeMillis());
+
+    logger.debug("Stats snapshot computed for cycle {} in {}ms", cycle, computed.getComputedAt() - start);
+    return computed;
+  }
+
+  // Percentiles come from the rollup latency histograms and are within 1/16 of the true value
+  private static Map<String, Object> toLatencyMap(RollupSummary summary) {
+    Map<String, Object> latency = new HashMap<>();
+    latency.put("count", summary.getSuccessCount());
+    latency.put("average", summary.getAverageLatencyMs());
+    latency.put("p50", summary.getLatencyPercentileMs(50));
+    latency.put("p95", summary.getLatencyPercentileMs(95));
+    latency.put("p99", summary.getLatencyPercentileMs(99));
+    latency.put("max", summary.getLatencyMaxMs());
+    return latency;
+  }
+
+  private long getSlowThresholdMs() {
+    if (batchProperties != null && batchProperties.getTimeout() != null) {
+      return batchProperties.getTimeout().getThreshold();
+    }
+    return DEFAULT_SLOW_THRESHOLD_MS;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.entity.TargetServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-target circuit breakers. After {@code failure-threshold} consecutive failures a target's
+ * circuit opens and its probes are skipped until the backoff expires; then a single recovery
+ * probe is let through, with the target's own timeout so a slow but healthy target can still
+ * close it. A failed recovery probe reopens the circuit with the backoff multiplied (up to
+ * {@code max-open-ms}), a successful one closes it again.
+ */
+@Service
+public class CircuitBreakerRegistry {
+
+  private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerRegistry.class);
+
+  public enum State { CLOSED, OPEN, HALF_OPEN }
+
+  public enum Admission { PROBE, RECOVERY_PROBE, SKIP }
+
+  @Autowired(required = false)
+  private BatchProperties batchProperties;
+
+  private final Map<Long, TargetCircuit> circuits = new ConcurrentHashMap<>();
+
+  /**
+   * Decides whether the target should be probed now. A {@link Admission#RECOVERY_PROBE} moves the
+   * circuit to half-open, so concurrent callers skip until that probe reports back.
+   */
+  public Admission acquire(TargetServer server) {
+    BatchProperties.CircuitBreaker config = getConfig();
+    if (!config.isEnabled() || server.getId() == null) {
+      return Admission.PROBE;
+    }
+    TargetCircuit circuit = circuits.get(server.getId());
+    return circuit != null ? circuit.acquire(System.currentTimeMillis()) : Admission.PROBE;
+  }
+
+  public void recordSuccess(TargetServer server) {
+    if (server.getId() == null) {
+      return;
+    }
+    TargetCircuit circuit = circuits.get(server.getId());
+    if (circuit != null && circuit.recordSuccess()) {
+      logger.info("Circuit closed for {} - target recovered", server.getName());
+    }
+  }
+
+  public void recordFailure(TargetServer server) {
+    BatchProperties.CircuitBreaker config = getConfig();
+    if (!config.isEnabled() || server.getId() == null) {
+      return;
+    }
+    TargetCircuit circuit = circuits.computeIfAbsent(server.getId(), id -> new TargetCircuit(server.getName()));
+    long openForMs = circuit.recordFailure(System.currentTimeMillis(), config);
+    if (openForMs > 0) {
+      logger.warn("Circuit open for {} after {} consecutive failures - next recovery probe in {}s",
+          server.getName(), circuit.consecutiveFailures, openForMs / 1000);
+    }
+  }
+
+  public boolean isOpen(TargetServer server) {
+    TargetCircuit circuit = server.getId() != null ? circuits.get(server.getId()) : null;
+    return circuit != null && circuit.state != State.CLOSED;
+  }
+
+  public State getState(Long targetId) {
+    TargetCircuit circuit = circuits.get(targetId);
+    return circuit != null ? circuit.state : State.CLOSED;
+  }
+
+  /**
+   * Current state per target id, for the console.
+   */
+  public Map<Long, State> getStates() {
+    Map<Long, State> states = new HashMap<>();
+    circuits.forEach((id, circuit) -> states.put(id, circuit.state));
+    return states;
+  }
+
+  // Forgets a deleted target's circuit
+  public void remove(Long targetId) {
+    if (targetId != null) {
+      circuits.remove(targetId);
+    }
+  }
+
+  public Map<String, Object> getStats() {
+    List<Map<String, Object>> open = new ArrayList<>();
+    circuits.forEach((id, circuit) -> {
+      if (circuit.state != State.CLOSED) {
+        open.add(circuit.describe(id));
+      }
+    });
+
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("enabled", getConfig().isEnabled());
+    stats.put("tracked", circuits.size());
+    stats.put("open", open.size());
+    stats.put("circuits", open);
+    return stats;
+  }
+
+  private BatchProperties.CircuitBreaker getConfig() {
+    return batchProperties != null && batchProperties.getCircuitBreaker() != null ?
+        batchProperties.getCircuitBreaker() : new BatchProperties.CircuitBreaker();
+  }
+
+  private static final class TargetCircuit {
+    private final String name;
+    // Written under the circuit's lock, read without it by the state and stats accessors
+    private volatile State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openDurationMs;
+    private long nextAttemptAt;
+
+    private TargetCircuit(String name) {
+      this.name = name;
+    }
+
+    private synchronized Admission acquire(long now) {
+      switch (state) {
+        case OPEN:
+          if (now >= nextAttemptAt) {
+            state = State.HALF_OPEN;
+            return Admission.RECOVERY_PROBE;
+          }
+          return Admission.SKIP;
+        case HALF_OPEN:
+          // A recovery probe is in flight; only retry if it never reported back
+          if (now >= nextAttemptAt + openDurationMs) {
+            nextAttemptAt = now;
+            return Admission.RECOVERY_PROBE;
+          }
+          return Admission.SKIP;
+        default:
+          return Admission.PROBE;
+      }
+    }
+
+    private synchronized boolean recordSuccess() {
+      boolean wasOpen = state != State.CLOSED;
+      state = State.CLOSED;
+      consecutiveFailures = 0;
+      openDurationMs = 0;
+      return wasOpen;
+    }
+
+    // Returns how long the circuit was opened for, or 0 if it stays closed
+    private synchronized long recordFailure(long now, BatchProperties.CircuitBreaker config) {
+      consecutiveFailures++;
+      if (state == State.HALF_OPEN) {
+        openDurationMs = Math.min((long) (openDurationMs * config.getBackoffMultiplier()), config.getMaxOpenMs());
+      } else if (state == State.CLOSED && consecutiveFailures >= config.getFailureThreshold()) {
+        openDurationMs = config.getOpenMs();
+      } else {
+        return 0;
+      }
+      state = State.OPEN;
+      nextAttemptAt = now + openDurationMs;
+      return openDurationMs;
+    }
+
+    private synchronized Map<String, Object> describe(Long id) {
+      Map<String, Object> info = new HashMap<>();
+      info.put("targetServerId", id);
+      info.put("serverName", name);
+      info.put("state", state.name());
+      info.put("consecutiveFailures", consecutiveFailures);
+      info.put("openDurationMs", openDurationMs);
+      info.put("nextAttemptAt", LocalDateTime.ofInstant(Instant.ofEpochMilli(nextAttemptAt), ZoneId.systemDefault())
+          .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+      return info;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,289 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.entity.ExecutionLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind persistence for execution logs. Probes hand rows to a bounded queue and a
+ * single background writer flushes them as JDBC batches, either when a batch fills up or
+ * when the flush interval expires. When the queue is full the producer waits at most
+ * {@code offer-timeout-ms} and the row is then dropped and counted as an overflow.
+ */
+@Service
+public class ExecutionLogWriter {
+
+  private static final Logger logger = LoggerFactory.getLogger(ExecutionLogWriter.class);
+
+  private static final String INSERT_SQL =
+      "INSERT INTO execution_logs (target_server_id, server_name, url, method, success, status_code, " +
+          "elapsed_time_ms, error_message, skipped, circuit_open, response_bytes, response_hash, dns_time_ms, " +
+          "connect_time_ms, tls_time_ms, ttfb_ms, body_time_ms, execution_time, batch_execution_id, environment) " +
+          "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private BatchProperties batchProperties;
+
+  @Autowired
+  private ProbeRollupService probeRollupService;
+
+  @Autowired
+  private ResponseBodyStore responseBodyStore;
+
+  @Autowired
+  private ProbeMetrics probeMetrics;
+
+  private BlockingQueue<ExecutionLog> queue;
+  private TransactionTemplate transactionTemplate;
+  private Thread writerThread;
+  private volatile boolean running;
+
+  private int batchSize;
+  private long flushIntervalMs;
+  private long offerTimeoutMs;
+
+  private final AtomicLong enqueued = new AtomicLong();
+  private final AtomicLong written = new AtomicLong();
+  private final AtomicLong overflowed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong flushes = new AtomicLong();
+  private volatile long lastFlushMs;
+  private volatile int lastBatchSize;
+
+  @PostConstruct
+  public void start() {
+    BatchProperties.Persistence persistence = batchProperties.getPersistence() != null ?
+        batchProperties.getPersistence() : new BatchProperties.Persistence();
+
+    queue = new ArrayBlockingQueue<>(Math.max(1, persistence.getQueueCapacity()));
+    batchSize = Math.max(1, persistence.getBatchSize());
+    flushIntervalMs = Math.max(10, persistence.getFlushIntervalMs());
+    offerTimeoutMs = Math.max(0, persistence.getOfferTimeoutMs());
+    transactionTemplate = new TransactionTemplate(transactionManager);
+
+    try {
+      probeRollupService.prepareBackfill();
+    } catch (Exception e) {
+      logger.error("Failed to prepare rollup backfill: {}", e.getMessage(), e);
+    }
+
+    running = true;
+    writerThread = new Thread(this::runWriter, "execution-log-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+    probeMetrics.gauge("healthcheck.persistence.queue.depth", "Execution logs waiting for the writer",
+        this, ExecutionLogWriter::getQueueDepth);
+
+    logger.info("Execution log writer started (queue: {}, batch: {}, flush interval: {}ms)",
+        persistence.getQueueCapacity(), batchSize, flushIntervalMs);
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    if (writerThread != null) {
+      writerThread.interrupt();
+      try {
+        writerThread.join(10000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    logger.info("Execution log writer stopped. Written: {}, overflowed: {}, failed: {}, pending: {}",
+        written.get(), overflowed.get(), failed.get(), queue.size());
+  }
+
+  /**
+   * Queues a row for asynchronous insertion. Returns false if the row was dropped because
+   * the queue stayed full for longer than the offer timeout.
+   */
+  public boolean enqueue(ExecutionLog log) {
+    try {
+      if (queue.offer(log, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+        enqueued.incrementAndGet();
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    long dropped = overflowed.incrementAndGet();
+    logger.warn("Execution log queue full, dropped log for {} (total dropped: {})",
+        log.getServerName(), dropped);
+    return false;
+  }
+
+  private void runWriter() {
+    List<ExecutionLog> batch = new ArrayList<>(batchSize);
+
+    while (running || !queue.isEmpty()) {
+      // A pending rollup backfill advances one chunk per pass, between flushes of live logs
+      boolean backfilling = running && backfillChunk();
+      try {
+        ExecutionLog first = queue.poll(backfilling ? 0 : flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+
+        // Fill the batch until it is full or the flush interval since the first row expires
+        long deadline = System.currentTimeMillis() + flushIntervalMs;
+        while (batch.size() < batchSize) {
+          queue.drainTo(batch, batchSize - batch.size());
+          long remaining = deadline - System.currentTimeMillis();
+          if (batch.size() >= batchSize || remaining <= 0) {
+            break;
+          }
+          ExecutionLog next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+      } catch (InterruptedException e) {
+        // Shutdown requested; drain whatever is left before exiting
+        queue.drainTo(batch);
+      }
+
+      if (!batch.isEmpty()) {
+        flush(batch);
+        batch.clear();
+      }
+    }
+  }
+
+  // Returns true if more backfill chunks remain; after a failure the writer waits one flush interval
+  private boolean backfillChunk() {
+    if (!probeRollupService.isBackfillPending()) {
+      return false;
+    }
+    try {
+      return Boolean.TRUE.equals(transactionTemplate.execute(status -> probeRollupService.backfillChunk()));
+    } catch (Exception e) {
+      logger.error("Rollup backfill chunk failed: {}", e.getMessage(), e);
+      return false;
+    }
+  }
+
+  private void flush(List<ExecutionLog> batch) {
+    long start = System.currentTimeMillis();
+    int saved;
+    try {
+      write(batch);
+      saved = batch.size();
+    } catch (Exception e) {
+      // One bad row (e.g. a target deleted since it was probed) must not cost the rest of the batch
+      logger.warn("Failed to flush {} execution logs, retrying row by row: {}", batch.size(), e.getMessage());
+      saved = writeEach(batch);
+    }
+
+    written.addAndGet(saved);
+    flushes.incrementAndGet();
+    lastBatchSize = batch.size();
+    lastFlushMs = System.currentTimeMillis() - start;
+    logger.debug("Flushed {}/{} execution logs in {}ms", saved, batch.size(), lastFlushMs);
+  }
+
+  // Raw rows, their bodies and their rollups commit together, so none of them drift apart
+  private void write(List<ExecutionLog> logs) {
+    transactionTemplate.executeWithoutResult(status -> {
+      responseBodyStore.store(logs);
+      jdbcTemplate.batchUpdate(INSERT_SQL, logs, logs.size(), this::bindLog);
+      probeRollupService.accumulate(logs);
+    });
+  }
+
+  // Returns how many rows were written; only the rows that fail on their own are dropped
+  private int writeEach(List<ExecutionLog> batch) {
+    int saved = 0;
+    Exception lastError = null;
+    for (ExecutionLog log : batch) {
+      try {
+        write(Collections.singletonList(log));
+        saved++;
+      } catch (Exception e) {
+        failed.incrementAndGet();
+        lastError = e;
+        logger.debug("Dropped execution log for {}: {}", log.getServerName(), e.getMessage());
+      }
+    }
+    if (lastError != null) {
+      logger.error("Dropped {} of {} execution logs: {}", batch.size() - saved, batch.size(),
+          lastError.getMessage(), lastError);
+    }
+    return saved;
+  }
+
+  private void bindLog(PreparedStatement ps, ExecutionLog log) throws SQLException {
+    LocalDateTime executionTime = log.getExecutionTime() != null ? log.getExecutionTime() : LocalDateTime.now();
+
+    ps.setObject(1, log.getTargetServerId(), Types.BIGINT);
+    ps.setString(2, log.getServerName());
+    ps.setString(3, log.getUrl());
+    ps.setString(4, log.getMethod());
+    ps.setObject(5, log.getSuccess(), Types.BOOLEAN);
+    ps.setObject(6, log.getStatusCode(), Types.INTEGER);
+    ps.setObject(7, log.getElapsedTimeMs(), Types.BIGINT);
+    ps.setString(8, log.getErrorMessage());
+    ps.setBoolean(9, Boolean.TRUE.equals(log.getSkipped()));
+    ps.setBoolean(10, Boolean.TRUE.equals(log.getCircuitOpen()));
+    ps.setObject(11, log.getResponseBytes(), Types.BIGINT);
+    ps.setString(12, log.getResponseHash());
+    ps.setObject(13, log.getDnsTimeMs(), Types.BIGINT);
+    ps.setObject(14, log.getConnectTimeMs(), Types.BIGINT);
+    ps.setObject(15, log.getTlsTimeMs(), Types.BIGINT);
+    ps.setObject(16, log.getTtfbMs(), Types.BIGINT);
+    ps.setObject(17, log.getBodyTimeMs(), Types.BIGINT);
+    ps.setTimestamp(18, Timestamp.valueOf(executionTime));
+    ps.setString(19, log.getBatchExecutionId());
+    ps.setString(20, log.getEnvironment());
+  }
+
+  public int getQueueDepth() {
+    return queue != null ? queue.size() : 0;
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("queueDepth", getQueueDepth());
+    stats.put("queueRemainingCapacity", queue != null ? queue.remainingCapacity() : 0);
+    stats.put("enqueued", enqueued.get());
+    stats.put("written", written.get());
+    stats.put("overflowed", overflowed.get());
+    stats.put("failed", failed.get());
+    stats.put("flushes", flushes.get());
+    stats.put("lastBatchSize", lastBatchSize);
+    stats.put("lastFlushMs", lastFlushMs);
+    stats.put("rollupBackfill", probeRollupService.getBackfillStatus());
+    return stats;
+  }
+}
\ No newline at end of file
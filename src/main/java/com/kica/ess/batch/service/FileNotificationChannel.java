@@ -0,0 +1,54 @@
+package com.kica.ess.batch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.Notification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends each notification as one JSON line to a local NDJSON file, for log shippers or as an
+ * audit trail that does not depend on any remote service.
+ */
+@Service
+public class FileNotificationChannel implements NotificationChannel {
+
+  @Autowired(required = false)
+  private BatchProperties batchProperties;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Override
+  public String getName() { return "file"; }
+
+  @Override
+  public boolean isEnabled() {
+    BatchProperties.NdjsonFile file = getSettings();
+    return file.isEnabled() && file.getPath() != null && !file.getPath().trim().isEmpty();
+  }
+
+  @Override
+  public void send(Notification notification) throws IOException {
+    Path path = Paths.get(getSettings().getPath());
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    byte[] line = (objectMapper.writeValueAsString(NotificationService.toPayload(notification)) + "\n")
+        .getBytes(StandardCharsets.UTF_8);
+    Files.write(path, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+  }
+
+  private BatchProperties.NdjsonFile getSettings() {
+    BatchProperties.Notification notification = batchProperties != null ? batchProperties.getNotification() : null;
+    return notification != null && notification.getFile() != null ?
+        notification.getFile() : new BatchProperties.NdjsonFile();
+  }
+}
\ No newline at end of file
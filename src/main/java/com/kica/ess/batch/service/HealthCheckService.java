@@ -1,30 +1,40 @@
 package com.kica.ess.batch.service;
 
 import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.CycleContext;
 import com.kica.ess.batch.dto.HealthCheckResult;
 import com.kica.ess.batch.entity.ExecutionLog;
 import com.kica.ess.batch.entity.TargetServer;
-import com.kica.ess.batch.repository.ExecutionLogRepository;
-import com.kica.ess.batch.repository.TargetServerRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
+import java.net.URI;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class HealthCheckService {
@@ -32,16 +42,30 @@ public class HealthCheckService {
   private static final Logger logger = LoggerFactory.getLogger(HealthCheckService.class);
 
   @Autowired
-  private TargetServerRepository targetServerRepository;
+  private TargetInventory targetInventory;
 
   @Autowired
-  private ExecutionLogRepository executionLogRepository;
+  private ExecutionLogWriter executionLogWriter;
+
+  @Autowired
+  private RecentResultStore recentResultStore;
 
   @Autowired
   private BatchProperties batchProperties;
 
   @Autowired
-  private WebClient webClient;
+  private CircuitBreakerRegistry circuitBreakerRegistry;
+
+  @Autowired
+  private ProbeMetrics probeMetrics;
+
+  @Autowired
+  @Qualifier("probeWebClient")
+  private WebClient probeWebClient;
+
+  @Autowired
+  @Qualifier("coldProbeWebClient")
+  private WebClient coldProbeWebClient;
 
   @Autowired
   private ObjectMapper objectMapper;
@@ -50,136 +74,415 @@ public class HealthCheckService {
   private String activeProfile;
 
   public List<HealthCheckResult> performHealthCheck() {
-    String batchExecutionId = UUID.randomUUID().toString();
-    List<TargetServer> servers = targetServerRepository.findActiveServersByEnvironment(activeProfile);
+    return performHealthCheck(getCycleServers());
+  }
+
+  public List<HealthCheckResult> performHealthCheck(List<TargetServer> servers) {
+    return performHealthCheck(servers, null);
+  }
 
-    logger.info("Starting health check for {} servers (batch: {})", servers.size(), batchExecutionId);
+  /**
+   * Probes the given servers. With a cycle, probes still pending at the cycle deadline are
+   * cancelled and reported as skipped; without one the call runs until every probe finishes.
+   */
+  public List<HealthCheckResult> performHealthCheck(List<TargetServer> servers, CycleContext cycle) {
+    String batchExecutionId = cycle != null ? cycle.getCycleId() : UUID.randomUUID().toString();
+
+    int maxConcurrency = getMaxConcurrency();
+    logger.info("Starting health check for {} servers (batch: {}, max in-flight: {})",
+        servers.size(), batchExecutionId, maxConcurrency);
+
+    long spreadWindowMs = getSpreadWindowMs(cycle);
+    Flux<TargetServer> targets;
+    if (spreadWindowMs > 0) {
+      // Spread mode: each target starts at its stable offset from the cycle start. Pre-warm is
+      // skipped because late-starting probes would find the warmed connections already idle-evicted.
+      logger.info("Spreading probe starts over {}ms", spreadWindowMs);
+      targets = spreadAcrossWindow(servers, cycle.getStartedAt(), spreadWindowMs);
+    } else {
+      // Only cycles pre-warm; on a per-target wheel run the HEAD would just double the probe traffic
+      if (cycle != null) {
+        long prewarmStart = System.currentTimeMillis();
+        prewarmConnections(servers, maxConcurrency);
+        cycle.setPrewarmMs(System.currentTimeMillis() - prewarmStart);
+      }
+      targets = Flux.fromIterable(servers);
+    }
 
-    List<HealthCheckResult> results = new ArrayList<>();
+    // Probes run in parallel up to maxConcurrency; results are collected in completion order
+    Flux<HealthCheckResult> probes = targets.flatMap(this::probe, maxConcurrency);
+    if (cycle != null) {
+      probes = probes.takeUntilOther(Mono.delay(Duration.ofMillis(cycle.getRemainingMs())));
+    }
+    long probeStart = System.currentTimeMillis();
+    List<HealthCheckResult> results = probes.collectList().block();
 
-    for (TargetServer server : servers) {
-      HealthCheckResult result = checkSingleServer(server, batchExecutionId);
-      results.add(result);
+    if (results == null) {
+      results = new ArrayList<>();
+    }
 
-      // Save execution log to database
-      saveExecutionLog(server, result, batchExecutionId);
+    if (cycle != null && results.size() < servers.size()) {
+      addDeadlineSkips(servers, results);
+    }
+
+    // Hand execution logs to the write-behind writer; database latency never blocks the cycle
+    long persistStart = System.currentTimeMillis();
+    for (HealthCheckResult result : results) {
+      if (!result.isSkipped()) {
+        recentResultStore.record(result);
+      }
+      probeMetrics.recordProbe(result);
+      saveExecutionLog(result, batchExecutionId);
+    }
+
+    if (cycle != null) {
+      cycle.setTargetCount(servers.size());
+      cycle.setProbeMs(persistStart - probeStart);
+      cycle.setPersistMs(System.currentTimeMillis() - persistStart);
     }
 
     logger.info("Health check completed. Results: {} (batch: {})", results.size(), batchExecutionId);
     return results;
   }
 
-  private HealthCheckResult checkSingleServer(TargetServer server, String batchExecutionId) {
-    logger.debug("Checking server: {} - {}", server.getName(), server.getUrl());
+  // Targets with their own interval are driven by TargetProbeScheduler instead of the cron cycle
+  public List<TargetServer> getCycleServers() {
+    return targetInventory.getActiveServers().stream()
+        .filter(server -> !server.hasCustomInterval())
+        .collect(Collectors.toList());
+  }
 
-    long startTime = System.currentTimeMillis();
-    HealthCheckResult result = new HealthCheckResult();
-    result.setServerName(server.getName());
-    result.setUrl(server.getUrl());
-    result.setMethod(server.getMethod());
-    result.setStartTime(startTime);
+  /**
+   * Width of the window that scheduled cycle probes are spread over, or 0 when they all start
+   * at once. Manual runs and check-now are never spread.
+   */
+  public long getSpreadWindowMs(CycleContext cycle) {
+    BatchProperties.Schedule schedule = batchProperties != null ? batchProperties.getSchedule() : null;
+    if (cycle == null || schedule == null || !schedule.isSpreadProbes()
+        || !CycleContext.TRIGGER_CRON.equals(cycle.getTrigger())) {
+      return 0;
+    }
+    return (long) ((cycle.getDeadlineAt() - cycle.getStartedAt()) * schedule.getSpreadRatio());
+  }
 
-    try {
-      WebClient.RequestHeadersSpec<?> requestSpec;
-
-      if ("POST".equalsIgnoreCase(server.getMethod())) {
-        requestSpec = webClient.post()
-            .uri(server.getUrl())
-            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-            .body(server.getRequestBody() != null ?
-                BodyInserters.fromValue(server.getRequestBody()) :
-                BodyInserters.empty());
-      } else {
-        requestSpec = webClient.get().uri(server.getUrl());
+  // Emits targets in offset order, each one no earlier than cycle start + its stable offset
+  private Flux<TargetServer> spreadAcrossWindow(List<TargetServer> servers, long cycleStart, long windowMs) {
+    List<TargetServer> ordered = new ArrayList<>(servers);
+    ordered.sort(Comparator.comparingLong(server -> spreadOffset(server, windowMs)));
+
+    return Flux.fromIterable(ordered)
+        .delayUntil(server -> {
+          long wait = cycleStart + spreadOffset(server, windowMs) - System.currentTimeMillis();
+          return wait > 0 ? Mono.delay(Duration.ofMillis(wait)) : Mono.empty();
+        });
+  }
+
+  private long spreadOffset(TargetServer server, long windowMs) {
+    long key = server.getId() != null ? server.getId() : server.getUrl().hashCode();
+    return ProbeOffsets.stableOffset(key, windowMs);
+  }
+
+  private void addDeadlineSkips(List<TargetServer> servers, List<HealthCheckResult> results) {
+    Set<Long> finished = results.stream()
+        .map(HealthCheckResult::getTargetServerId)
+        .collect(Collectors.toSet());
+
+    int skipped = 0;
+    for (TargetServer server : servers) {
+      if (!finished.contains(server.getId())) {
+        HealthCheckResult result = skippedResult(server, "skipped: deadline");
+        result.setSkipped(true);
+        results.add(result);
+        skipped++;
       }
+    }
+    logger.warn("Cycle deadline reached - cancelled {} pending probes", skipped);
+  }
 
-      String response = requestSpec
-          .retrieve()
-          .bodyToMono(String.class)
-          .timeout(Duration.ofMillis(server.getTimeout()))
-          .block();
-
-      long endTime = System.currentTimeMillis();
-      long elapsedTime = endTime - startTime;
-
-      result.setEndTime(endTime);
-      result.setElapsedTime(elapsedTime);
-      result.setSuccess(true);
-      result.setResponse(response);
-      result.setStatusCode(200); // WebClient successful response
-
-      // Parse JSON response
-      if (response != null && !response.isEmpty()) {
-        try {
-          JsonNode jsonNode = objectMapper.readTree(response);
-          result.setResponseJson(jsonNode);
-          logger.debug("Server {} responded successfully in {}ms",
-              server.getName(), elapsedTime);
-        } catch (Exception e) {
-          logger.warn("Failed to parse JSON response from {}: {}",
-              server.getName(), e.getMessage());
-          result.setResponseJson(objectMapper.createObjectNode()
-              .put("raw_response", response));
+  /**
+   * Opens pooled connections to every WARM target host before the cycle starts, one per
+   * probe the host will receive (capped by the per-host pool size), so the measured probes
+   * reuse established connections instead of whichever state the pool happens to be in.
+   */
+  private void prewarmConnections(List<TargetServer> servers, int maxConcurrency) {
+    BatchProperties.Pool pool = getPool();
+    if (!pool.isPrewarm()) {
+      return;
+    }
+
+    Map<String, List<String>> urlsByOrigin = new LinkedHashMap<>();
+    for (TargetServer server : servers) {
+      if (server.isColdLatency() || circuitBreakerRegistry.isOpen(server)) {
+        continue;
+      }
+      try {
+        URI uri = URI.create(server.getUrl());
+        if (uri.getHost() == null) {
+          continue;
+        }
+        String origin = uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+        List<String> urls = urlsByOrigin.computeIfAbsent(origin, key -> new ArrayList<>());
+        if (urls.size() < pool.getMaxConnectionsPerHost()) {
+          urls.add(server.getUrl());
         }
+      } catch (IllegalArgumentException e) {
+        logger.debug("Skipping pre-warm for {}: {}", server.getName(), e.getMessage());
       }
+    }
 
-    } catch (Exception e) {
-      long endTime = System.currentTimeMillis();
-      long elapsedTime = endTime - startTime;
+    if (urlsByOrigin.isEmpty()) {
+      return;
+    }
+
+    long start = System.currentTimeMillis();
+    List<String> urls = urlsByOrigin.values().stream()
+        .flatMap(List::stream)
+        .collect(Collectors.toList());
+
+    // Concurrent HEAD requests force the pool to open one connection per request
+    Long opened = Flux.fromIterable(urls)
+        .flatMap(url -> probeWebClient.head()
+            .uri(url)
+            .exchangeToMono(ClientResponse::releaseBody)
+            .thenReturn(1)
+            .timeout(Duration.ofMillis(pool.getPrewarmTimeoutMs()))
+            .onErrorResume(e -> {
+              logger.debug("Pre-warm request to {} failed: {}", url, e.getMessage());
+              return Mono.empty();
+            }), maxConcurrency)
+        .count()
+        .block();
+
+    logger.debug("Pre-warmed {}/{} connections to {} hosts in {}ms",
+        opened, urls.size(), urlsByOrigin.size(), System.currentTimeMillis() - start);
+  }
+
+  // Targets with an open circuit are skipped, or get a single recovery probe once their backoff expires
+  private Mono<HealthCheckResult> probe(TargetServer server) {
+    return Mono.defer(() -> {
+      switch (circuitBreakerRegistry.acquire(server)) {
+        case SKIP:
+          return Mono.just(circuitOpenResult(server));
+        case RECOVERY_PROBE:
+          logger.info("Recovery probe for {} (timeout: {}ms)", server.getName(), server.getTimeout());
+          return tracked(checkSingleServer(server, server.getTimeout())).doOnNext(result -> recordOutcome(server, result));
+        default:
+          return tracked(checkSingleServer(server, server.getTimeout())).doOnNext(result -> recordOutcome(server, result));
+      }
+    });
+  }
+
+  // Counts the probe as in flight from subscription until it completes, fails or is cancelled at the deadline
+  private Mono<HealthCheckResult> tracked(Mono<HealthCheckResult> probe) {
+    return probe
+        .doOnSubscribe(subscription -> probeMetrics.probeStarted())
+        .doFinally(signal -> probeMetrics.probeFinished());
+  }
+
+  private void recordOutcome(TargetServer server, HealthCheckResult result) {
+    if (result.isSuccess()) {
+      circuitBreakerRegistry.recordSuccess(server);
+    } else {
+      circuitBreakerRegistry.recordFailure(server);
+    }
+  }
+
+  private HealthCheckResult circuitOpenResult(TargetServer server) {
+    HealthCheckResult result = skippedResult(server, "Circuit open - probe skipped after repeated failures");
+    result.setCircuitOpen(true);
+    return result;
+  }
+
+  // A result for a target that was not probed; no network I/O happened
+  private HealthCheckResult skippedResult(TargetServer server, String reason) {
+    long now = System.currentTimeMillis();
+    HealthCheckResult result = new HealthCheckResult();
+    result.setTargetServerId(server.getId());
+    result.setServerName(server.getName());
+    result.setUrl(server.getUrl());
+    result.setMethod(server.getMethod());
+    result.setStartTime(now);
+    result.setEndTime(now);
+    result.setSuccess(false);
+    result.setErrorMessage(reason);
+    return result;
+  }
+
+  private Mono<HealthCheckResult> checkSingleServer(TargetServer server, long timeoutMs) {
+    return Mono.defer(() -> {
+      logger.debug("Checking server: {} - {}", server.getName(), server.getUrl());
+
+      long startTime = System.currentTimeMillis();
+      HealthCheckResult result = new HealthCheckResult();
+      result.setTargetServerId(server.getId());
+      result.setServerName(server.getName());
+      result.setUrl(server.getUrl());
+      result.setMethod(server.getMethod());
+      result.setStartTime(startTime);
+
+      // Stream the body and keep only a capped prefix plus hash and size. The timings holder
+      // rides in the subscriber context so the HTTP client hooks can record each phase.
+      int captureLimit = getCaptureLimit(server);
+      ProbeTimings timings = new ProbeTimings();
+      return buildRequest(server)
+          .exchangeToMono(response -> {
+            int statusCode = response.rawStatusCode();
+            return response.bodyToFlux(DataBuffer.class)
+                .collect(() -> new ResponseCapture(captureLimit), ResponseCapture::append)
+                .map(capture -> {
+                  timings.markBodyComplete();
+                  return handleResponse(server, result, statusCode, capture, timings);
+                });
+          })
+          .timeout(Duration.ofMillis(timeoutMs))
+          .contextWrite(Context.of(ProbeTimings.CONTEXT_KEY, timings))
+          .onErrorResume(e -> Mono.just(handleFailure(server, result, e, timings)));
+    });
+  }
 
-      result.setEndTime(endTime);
-      result.setElapsedTime(elapsedTime);
+  private WebClient.RequestHeadersSpec<?> buildRequest(TargetServer server) {
+    WebClient webClient = server.isColdLatency() ? coldProbeWebClient : probeWebClient;
+    if ("POST".equalsIgnoreCase(server.getMethod())) {
+      return webClient.post()
+          .uri(server.getUrl())
+          .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+          .body(server.getRequestBody() != null ?
+              BodyInserters.fromValue(server.getRequestBody()) :
+              BodyInserters.empty());
+    }
+    return webClient.get().uri(server.getUrl());
+  }
+
+  private HealthCheckResult handleResponse(TargetServer server, HealthCheckResult result, int statusCode,
+                                           ResponseCapture capture, ProbeTimings timings) {
+    long endTime = System.currentTimeMillis();
+    long elapsedTime = endTime - result.getStartTime();
+    String response = capture.getBody();
+    HttpStatus status = HttpStatus.resolve(statusCode);
+
+    result.setEndTime(endTime);
+    result.setElapsedTime(elapsedTime);
+    result.setStatusCode(statusCode);
+    result.setResponse(response);
+    result.setResponseBytes(capture.getTotalBytes());
+    result.setResponseHash(capture.getContentHash());
+    result.setResponseTruncated(capture.isTruncated());
+    applyTimings(result, timings);
+
+    // 4xx and 5xx count as failures, but the status code and body prefix are still recorded
+    if (statusCode >= 400) {
       result.setSuccess(false);
-      result.setErrorMessage(e.getMessage());
-      result.setStatusCode(0); // Unknown status for exceptions
+      result.setErrorMessage("HTTP " + statusCode + (status != null ? " " + status.getReasonPhrase() : ""));
+      logger.warn("Server {} responded with {} in {}ms", server.getName(), statusCode, elapsedTime);
+      return result;
+    }
 
-      logger.error("Health check failed for server {}: {}",
-          server.getName(), e.getMessage(), e);
+    result.setSuccess(true);
+
+    // Parse JSON response (a truncated prefix is not valid JSON, so skip it)
+    if (capture.isTruncated()) {
+      logger.debug("Server {} responded successfully in {}ms ({} bytes, kept first {})",
+          server.getName(), elapsedTime, capture.getTotalBytes(), getCaptureLimit(server));
+    } else if (response != null && !response.isEmpty()) {
+      try {
+        JsonNode jsonNode = objectMapper.readTree(response);
+        result.setResponseJson(jsonNode);
+        logger.debug("Server {} responded successfully in {}ms",
+            server.getName(), elapsedTime);
+      } catch (Exception e) {
+        logger.warn("Failed to parse JSON response from {}: {}",
+            server.getName(), e.getMessage());
+        result.setResponseJson(objectMapper.createObjectNode()
+            .put("raw_response", response));
+      }
     }
 
     return result;
   }
 
-  private void saveExecutionLog(TargetServer server, HealthCheckResult result, String batchExecutionId) {
+  private HealthCheckResult handleFailure(TargetServer server, HealthCheckResult result, Throwable e,
+                                          ProbeTimings timings) {
+    long endTime = System.currentTimeMillis();
+    long elapsedTime = endTime - result.getStartTime();
+
+    result.setEndTime(endTime);
+    result.setElapsedTime(elapsedTime);
+    result.setSuccess(false);
+    result.setErrorMessage(e.getMessage());
+    result.setStatusCode(0); // No response received
+    applyTimings(result, timings); // whatever phases completed before the failure
+
+    logger.error("Health check failed for server {}: {}",
+        server.getName(), e.getMessage(), e);
+
+    return result;
+  }
+
+  private void applyTimings(HealthCheckResult result, ProbeTimings timings) {
+    result.setDnsTimeMs(timings.getDnsTimeMs());
+    result.setConnectTimeMs(timings.getConnectTimeMs());
+    result.setTlsTimeMs(timings.getTlsTimeMs());
+    result.setTtfbMs(timings.getTtfbMs());
+    result.setBodyTimeMs(timings.getBodyTimeMs());
+    result.setConnectionReused(timings.isConnectionReused());
+  }
+
+  private void saveExecutionLog(HealthCheckResult result, String batchExecutionId) {
     try {
       ExecutionLog log = new ExecutionLog();
-      log.setTargetServerId(server.getId());
-      log.setServerName(server.getName());
-      log.setUrl(server.getUrl());
-      log.setMethod(server.getMethod());
+      log.setTargetServerId(result.getTargetServerId());
+      log.setServerName(result.getServerName());
+      log.setUrl(result.getUrl());
+      log.setMethod(result.getMethod());
       log.setSuccess(result.isSuccess());
       log.setStatusCode(result.getStatusCode());
       log.setElapsedTimeMs(result.getElapsedTime());
       log.setErrorMessage(result.getErrorMessage());
+      log.setSkipped(result.isSkipped());
+      log.setCircuitOpen(result.isCircuitOpen());
       log.setResponseBody(result.getResponse());
+      if (result.getResponseHash() != null) {
+        log.setResponseBytes(result.getResponseBytes());
+        log.setResponseHash(result.getResponseHash());
+      }
+      log.setDnsTimeMs(result.getDnsTimeMs());
+      log.setConnectTimeMs(result.getConnectTimeMs());
+      log.setTlsTimeMs(result.getTlsTimeMs());
+      log.setTtfbMs(result.getTtfbMs());
+      log.setBodyTimeMs(result.getBodyTimeMs());
       log.setBatchExecutionId(batchExecutionId);
       log.setEnvironment(activeProfile);
       log.setExecutionTime(LocalDateTime.now());
 
-      executionLogRepository.save(log);
+      executionLogWriter.enqueue(log);
 
     } catch (Exception e) {
-      logger.error("Failed to save execution log for server {}: {}",
-          server.getName(), e.getMessage(), e);
+      logger.error("Failed to queue execution log for server {}: {}",
+          result.getServerName(), e.getMessage(), e);
     }
   }
 
-  public List<TargetServer> getActiveServers() {
-    return targetServerRepository.findActiveServersByEnvironment(activeProfile);
+  private int getCaptureLimit(TargetServer server) {
+    BatchProperties.Probe probe = batchProperties != null && batchProperties.getProbe() != null ?
+        batchProperties.getProbe() : new BatchProperties.Probe();
+    return Boolean.TRUE.equals(server.getCaptureFullBody()) ?
+        probe.getFullBodyLimitBytes() : probe.getCaptureLimitBytes();
   }
 
-  public List<ExecutionLog> getRecentLogs(int hours) {
-    LocalDateTime since = LocalDateTime.now().minusHours(hours);
-    return executionLogRepository.findRecentLogs(since);
+  private BatchProperties.Pool getPool() {
+    return batchProperties != null && batchProperties.getPool() != null ?
+        batchProperties.getPool() : new BatchProperties.Pool();
   }
 
-  public List<ExecutionLog> getRecentFailures(int hours) {
-    LocalDateTime since = LocalDateTime.now().minusHours(hours);
-    return executionLogRepository.findRecentFailures(since);
+  private int getMaxConcurrency() {
+    if (batchProperties != null && batchProperties.getProbe() != null
+        && batchProperties.getProbe().getMaxConcurrency() > 0) {
+      return batchProperties.getProbe().getMaxConcurrency();
+    }
+    return 16;
   }
 
-  public List<ExecutionLog> getSlowResponses(int hours, long thresholdMs) {
-    LocalDateTime since = LocalDateTime.now().minusHours(hours);
-    return executionLogRepository.findSlowResponses(thresholdMs, since);
+  public List<TargetServer> getActiveServers() {
+    return targetInventory.getActiveServers();
   }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.dto.Notification;
+
+/**
+ * A destination for alerts. Every channel bean is picked up by {@link NotificationService}, which
+ * gives it its own delivery thread and queue, so {@link #send} may block - but only for as long
+ * as the channel's own timeout allows.
+ */
+public interface NotificationChannel {
+
+  /**
+   * Short, stable name used in logs and stats.
+   */
+  String getName();
+
+  boolean isEnabled();
+
+  /**
+   * Delivers the notification, throwing if it could not be delivered.
+   */
+  void send(Notification notification) throws Exception;
+}
\ No newline at end of file
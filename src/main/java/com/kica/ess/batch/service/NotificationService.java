@@ -0,0 +1,213 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.HealthTransition;
+import com.kica.ess.batch.dto.Notification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans alerts out to every enabled {@link NotificationChannel}. Each channel gets a single
+ * delivery thread behind its own bounded queue, so channels run concurrently and a slow or
+ * hanging sink only ever delays its own backlog - never the other channels or the batch, which
+ * just enqueues and returns. When a channel's queue is full further notifications for it are
+ * dropped and counted.
+ */
+@Service
+public class NotificationService {
+
+  private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+
+  @Autowired(required = false)
+  private BatchProperties batchProperties;
+
+  @Autowired
+  private List<NotificationChannel> channels;
+
+  @Autowired
+  private ProbeMetrics probeMetrics;
+
+  private final Map<String, ChannelWorker> workers = new LinkedHashMap<>();
+
+  @PostConstruct
+  public void start() {
+    int queueCapacity = Math.max(1, getSettings().getQueueCapacity());
+    for (NotificationChannel channel : channels) {
+      workers.put(channel.getName(), new ChannelWorker(channel, queueCapacity, probeMetrics));
+    }
+    logger.info("Notification channels: {} (queue: {} per channel)", workers.keySet(), queueCapacity);
+  }
+
+  @PreDestroy
+  public void stop() {
+    for (ChannelWorker worker : workers.values()) {
+      worker.executor.shutdown();
+    }
+    for (ChannelWorker worker : workers.values()) {
+      try {
+        if (!worker.executor.awaitTermination(5, TimeUnit.SECONDS)) {
+          worker.executor.shutdownNow();
+        }
+      } catch (InterruptedException e) {
+        worker.executor.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  public void notifyStateChanges(List<HealthTransition> transitions) {
+    if (!transitions.isEmpty()) {
+      publish(AlertMessages.stateChange(transitions, getSlowThresholdMs()));
+    }
+  }
+
+  public void notifyBatchOverrun(long elapsedMs, long thresholdMs) {
+    publish(AlertMessages.batchOverrun(elapsedMs, thresholdMs));
+  }
+
+  public void notifyBatchError(String error) {
+    publish(AlertMessages.batchError(error));
+  }
+
+  /**
+   * Queues the notification on every enabled channel and returns without waiting for delivery.
+   */
+  public void publish(Notification notification) {
+    for (ChannelWorker worker : workers.values()) {
+      if (worker.channel.isEnabled()) {
+        worker.submit(notification);
+      }
+    }
+  }
+
+  /**
+   * JSON shape shared by the webhook and file channels.
+   */
+  static Map<String, Object> toPayload(Notification notification) {
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("type", notification.getType());
+    payload.put("title", notification.getTitle());
+    payload.put("text", notification.getPlainText());
+    payload.put("createdAt", format(notification.getCreatedAt()));
+
+    List<Map<String, Object>> transitions = new ArrayList<>();
+    for (HealthTransition transition : notification.getTransitions()) {
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("targetServerId", transition.getTargetServerId());
+      map.put("serverName", transition.getServerName());
+      map.put("url", transition.getUrl());
+      map.put("from", transition.getFrom().name());
+      map.put("to", transition.getTo().name());
+      map.put("at", format(transition.getAt()));
+      map.put("elapsedTimeMs", transition.getElapsedTime());
+      map.put("consecutiveFailures", transition.getConsecutiveFailures());
+      map.put("errorMessage", transition.getErrorMessage());
+      map.put("previousStateDurationMs", transition.getPreviousStateDurationMs());
+      transitions.add(map);
+    }
+    payload.put("transitions", transitions);
+    return payload;
+  }
+
+  private static String format(long epochMs) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault()).format(AlertMessages.TIME_FORMAT);
+  }
+
+  private BatchProperties.Notification getSettings() {
+    return batchProperties != null && batchProperties.getNotification() != null ?
+        batchProperties.getNotification() : new BatchProperties.Notification();
+  }
+
+  private long getSlowThresholdMs() {
+    if (batchProperties != null && batchProperties.getTimeout() != null) {
+      return batchProperties.getTimeout().getThreshold();
+    }
+    return 10000L;
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new LinkedHashMap<>();
+    workers.forEach((name, worker) -> stats.put(name, worker.getStats()));
+    return stats;
+  }
+
+  private static final class ChannelWorker {
+    private final NotificationChannel channel;
+    private final ThreadPoolExecutor executor;
+    private final ProbeMetrics probeMetrics;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long lastLatencyMs;
+    private volatile String lastError;
+
+    private ChannelWorker(NotificationChannel channel, int queueCapacity, ProbeMetrics probeMetrics) {
+      this.channel = channel;
+      this.probeMetrics = probeMetrics;
+      this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+        Thread thread = new Thread(runnable, "notify-" + channel.getName());
+        thread.setDaemon(true);
+        return thread;
+      }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    void submit(Notification notification) {
+      try {
+        executor.execute(() -> deliver(notification));
+      } catch (RejectedExecutionException e) {
+        long total = dropped.incrementAndGet();
+        logger.warn("Notification queue for {} is full, dropped '{}' (total dropped: {})",
+            channel.getName(), notification.getTitle(), total);
+      }
+    }
+
+    private void deliver(Notification notification) {
+      long start = System.currentTimeMillis();
+      boolean delivered = false;
+      try {
+        channel.send(notification);
+        sent.incrementAndGet();
+        delivered = true;
+      } catch (Exception e) {
+        failed.incrementAndGet();
+        lastError = e.getMessage();
+        logger.error("Failed to deliver '{}' via {}: {}", notification.getTitle(), channel.getName(), e.getMessage());
+      } finally {
+        lastLatencyMs = System.currentTimeMillis() - start;
+        probeMetrics.recordNotification(channel.getName(), lastLatencyMs, delivered);
+      }
+    }
+
+    Map<String, Object> getStats() {
+      Map<String, Object> stats = new HashMap<>();
+      stats.put("enabled", channel.isEnabled());
+      stats.put("queueDepth", executor.getQueue().size());
+      stats.put("sent", sent.get());
+      stats.put("failed", failed.get());
+      stats.put("dropped", dropped.get());
+      stats.put("lastLatencyMs", lastLatencyMs);
+      stats.put("lastError", lastError);
+      return stats;
+    }
+  }
+}
\ No newline at end of file
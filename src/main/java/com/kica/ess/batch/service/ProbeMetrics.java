@@ -0,0 +1,172 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.dto.HealthCheckResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer instrumentation of the probe pipeline, scraped from {@code /actuator/prometheus}.
+ * Per-target meters are created once per target and cached by id, so recording a probe result
+ * is a map lookup plus a timer and counter update, with no tag objects built on the hot path.
+ * Per-target meters are tagged with the target id (names need not be unique) and name and only
+ * keep count, sum and max; the latency histogram is published once across all targets, so the
+ * bucket series do not multiply with the number of targets. Other tags come from small fixed
+ * value sets (outcome, reason, trigger, channel).
+ */
+@Service
+public class ProbeMetrics {
+
+  static final String PROBE_LATENCY = "healthcheck.probe.latency";
+  static final String PROBE_LATENCY_DISTRIBUTION = "healthcheck.probe.latency.distribution";
+  static final String PROBE_RESULTS = "healthcheck.probe.results";
+  static final String PROBE_SKIPPED = "healthcheck.probe.skipped";
+  static final String PROBES_IN_FLIGHT = "healthcheck.probes.in.flight";
+  static final String CYCLE_DURATION = "healthcheck.cycle.duration";
+  static final String ALERT_DISPATCH = "healthcheck.alert.dispatch";
+  static final String NOTIFICATION_DELIVERY = "healthcheck.notification.delivery";
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry;
+
+  private final Map<Long, TargetMeters> targets = new ConcurrentHashMap<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile Timer latencyDistribution;
+
+  @PostConstruct
+  public void init() {
+    gauge(PROBES_IN_FLIGHT, "Probes currently waiting on a target", inFlight, AtomicInteger::get);
+  }
+
+  /**
+   * Records one probe result: latency and outcome per target for probes that ran, a reason
+   * counter for probes skipped at the deadline or behind an open circuit.
+   */
+  public void recordProbe(HealthCheckResult result) {
+    if (result.isCircuitOpen() || result.isSkipped()) {
+      registry().counter(PROBE_SKIPPED, "reason", result.isCircuitOpen() ? "circuit_open" : "deadline").increment();
+      return;
+    }
+    if (result.getTargetServerId() == null) {
+      return;
+    }
+
+    TargetMeters meters = targets.get(result.getTargetServerId());
+    if (meters == null || !meters.name.equals(String.valueOf(result.getServerName()))) {
+      meters = register(result.getTargetServerId(), String.valueOf(result.getServerName()));
+    }
+    meters.latency.record(result.getElapsedTime(), TimeUnit.MILLISECONDS);
+    latencyDistribution().record(result.getElapsedTime(), TimeUnit.MILLISECONDS);
+    (result.isSuccess() ? meters.success : meters.failure).increment();
+  }
+
+  public void probeStarted() {
+    inFlight.incrementAndGet();
+  }
+
+  public void probeFinished() {
+    inFlight.decrementAndGet();
+  }
+
+  public void recordCycle(String trigger, long elapsedMs, boolean overrun) {
+    Timer.builder(CYCLE_DURATION)
+        .description("Wall time of a health check cycle")
+        .tag("trigger", String.valueOf(trigger))
+        .tag("overrun", String.valueOf(overrun))
+        .register(registry())
+        .record(elapsedMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Time a Telegram message spent in delivery, including rate-limit waits and retries.
+   */
+  public void recordAlertDispatch(long elapsedMs, boolean sent) {
+    registry().timer(ALERT_DISPATCH, "outcome", sent ? "sent" : "failed").record(elapsedMs, TimeUnit.MILLISECONDS);
+  }
+
+  public void recordNotification(String channel, long elapsedMs, boolean delivered) {
+    registry().timer(NOTIFICATION_DELIVERY, "channel", channel, "outcome", delivered ? "delivered" : "failed")
+        .record(elapsedMs, TimeUnit.MILLISECONDS);
+  }
+
+  public <T> void gauge(String name, String description, T target, ToDoubleFunction<T> value) {
+    Gauge.builder(name, target, value).description(description).register(registry());
+  }
+
+  public void remove(Long targetServerId) {
+    TargetMeters meters = targets.remove(targetServerId);
+    if (meters != null) {
+      meters.removeFrom(registry());
+    }
+  }
+
+  private synchronized TargetMeters register(Long targetServerId, String name) {
+    TargetMeters existing = targets.get(targetServerId);
+    if (existing != null) {
+      if (existing.name.equals(name)) {
+        return existing;
+      }
+      // Renamed target: retire the meters tagged with the old name
+      existing.removeFrom(registry());
+    }
+    TargetMeters meters = new TargetMeters(registry(), targetServerId, name);
+    targets.put(targetServerId, meters);
+    return meters;
+  }
+
+  private Timer latencyDistribution() {
+    Timer timer = latencyDistribution;
+    if (timer == null) {
+      // Buckets bounded to the range a probe can take; registering twice returns the same timer
+      timer = Timer.builder(PROBE_LATENCY_DISTRIBUTION)
+          .description("Probe response time across all targets")
+          .publishPercentileHistogram()
+          .minimumExpectedValue(Duration.ofMillis(1))
+          .maximumExpectedValue(Duration.ofSeconds(60))
+          .register(registry());
+      latencyDistribution = timer;
+    }
+    return timer;
+  }
+
+  private MeterRegistry registry() {
+    return meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+  }
+
+  private static final class TargetMeters {
+    private final String name;
+    private final Timer latency;
+    private final Counter success;
+    private final Counter failure;
+
+    private TargetMeters(MeterRegistry registry, Long targetServerId, String name) {
+      this.name = name;
+      Tags tags = Tags.of("target_id", String.valueOf(targetServerId), "target", name);
+      this.latency = Timer.builder(PROBE_LATENCY)
+          .description("Probe response time per target")
+          .tags(tags)
+          .register(registry);
+      this.success = Counter.builder(PROBE_RESULTS).tags(tags).tag("outcome", "success").register(registry);
+      this.failure = Counter.builder(PROBE_RESULTS).tags(tags).tag("outcome", "failure").register(registry);
+    }
+
+    void removeFrom(MeterRegistry registry) {
+      registry.remove(latency);
+      registry.remove(success);
+      registry.remove(failure);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.kica.ess.batch.service;
+
+/**
+ * Stable per-target offsets. The same target always lands on the same point of a window,
+ * while different targets are spread evenly across it.
+ */
+public final class ProbeOffsets {
+
+  private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+  private ProbeOffsets() {}
+
+  /**
+   * Returns a value in {@code [0, range)} derived only from the key.
+   */
+  public static long stableOffset(long key, long range) {
+    if (range <= 0) {
+      return 0;
+    }
+    long hash = key * GOLDEN_RATIO;
+    return Math.floorMod(hash ^ (hash >>> 32), range);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,362 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.dto.LatencyHistogram;
+import com.kica.ess.batch.dto.RollupSummary;
+import com.kica.ess.batch.entity.ExecutionLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-target 1-minute and 1-hour rollups of execution logs. The write-behind writer folds
+ * every flushed batch into both tables inside the same transaction, so dashboard and stats
+ * queries read a few rollup rows instead of scanning {@code execution_logs}. Each bucket also
+ * carries a serialized {@link LatencyHistogram}, so latency percentiles for any window come from
+ * merging rollup rows as well.
+ */
+@Service
+public class ProbeRollupService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProbeRollupService.class);
+
+  public static final String MINUTE_TABLE = "probe_rollup_minute";
+  public static final String HOUR_TABLE = "probe_rollup_hour";
+
+  private static final String[] HISTOGRAM_COLUMNS = histogramColumns();
+
+  private static final int BACKFILL_CHUNK = 2000;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private volatile boolean backfillPending;
+  private volatile long backfillLastId;
+  private volatile long backfillCutoffId;
+
+  /**
+   * Adds the given logs to their minute and hour buckets. Called by the single writer thread
+   * inside its flush transaction, so the update-then-insert upsert never races.
+   */
+  public void accumulate(List<ExecutionLog> logs) {
+    Map<BucketKey, RollupSummary> minutes = new HashMap<>();
+    Map<BucketKey, RollupSummary> hours = new HashMap<>();
+
+    for (ExecutionLog log : logs) {
+      // Deadline skips say nothing about the target, so they count neither as checks nor as failures
+      if (log.getTargetServerId() == null || Boolean.TRUE.equals(log.getSkipped())) {
+        continue;
+      }
+      LocalDateTime time = log.getExecutionTime() != null ? log.getExecutionTime() : LocalDateTime.now();
+      boolean success = Boolean.TRUE.equals(log.getSuccess());
+
+      minutes.computeIfAbsent(new BucketKey(log.getTargetServerId(), time.truncatedTo(ChronoUnit.MINUTES), log.getServerName()),
+          key -> new RollupSummary()).add(success, log.getElapsedTimeMs());
+      hours.computeIfAbsent(new BucketKey(log.getTargetServerId(), time.truncatedTo(ChronoUnit.HOURS), log.getServerName()),
+          key -> new RollupSummary()).add(success, log.getElapsedTimeMs());
+    }
+
+    upsert(MINUTE_TABLE, minutes);
+    upsert(HOUR_TABLE, hours);
+  }
+
+  private void upsert(String table, Map<BucketKey, RollupSummary> deltas) {
+    if (deltas.isEmpty()) {
+      return;
+    }
+    List<Map.Entry<BucketKey, RollupSummary>> entries = new ArrayList<>(deltas.entrySet());
+    Map<BucketKey, byte[]> sketches = mergeSketches(table, deltas);
+
+    StringBuilder update = new StringBuilder("UPDATE ").append(table).append(" SET ")
+        .append("total_count = total_count + ?, success_count = success_count + ?, ")
+        .append("latency_sum_ms = latency_sum_ms + ?, ")
+        .append("latency_min_ms = LEAST(latency_min_ms, ?), latency_max_ms = GREATEST(latency_max_ms, ?)");
+    for (String column : HISTOGRAM_COLUMNS) {
+      update.append(", ").append(column).append(" = ").append(column).append(" + ?");
+    }
+    update.append(", latency_sketch = ? WHERE target_server_id = ? AND bucket_start = ?");
+
+    int[][] updated = jdbcTemplate.batchUpdate(update.toString(), entries, entries.size(), (ps, entry) -> {
+      int index = bindCounters(ps, 1, entry.getValue());
+      ps.setBytes(index++, sketches.get(entry.getKey()));
+      ps.setLong(index++, entry.getKey().targetServerId);
+      ps.setTimestamp(index, Timestamp.valueOf(entry.getKey().bucketStart));
+    });
+
+    List<Map.Entry<BucketKey, RollupSummary>> missing = new ArrayList<>();
+    for (int i = 0; i < entries.size(); i++) {
+      if (updated[0][i] == 0) {
+        missing.add(entries.get(i));
+      }
+    }
+    if (missing.isEmpty()) {
+      return;
+    }
+
+    String insert = "INSERT INTO " + table + " (total_count, success_count, latency_sum_ms, latency_min_ms, " +
+        "latency_max_ms, " + String.join(", ", HISTOGRAM_COLUMNS) + ", latency_sketch, target_server_id, bucket_start, " +
+        "server_name) VALUES (" + placeholders(5 + HISTOGRAM_COLUMNS.length + 4) + ")";
+
+    jdbcTemplate.batchUpdate(insert, missing, missing.size(), (ps, entry) -> {
+      int index = bindCounters(ps, 1, entry.getValue());
+      ps.setBytes(index++, sketches.get(entry.getKey()));
+      ps.setLong(index++, entry.getKey().targetServerId);
+      ps.setTimestamp(index++, Timestamp.valueOf(entry.getKey().bucketStart));
+      ps.setString(index, entry.getKey().serverName);
+    });
+  }
+
+  /**
+   * Returns the serialized sketch each bucket should hold after this flush: the stored sketch, if
+   * the bucket exists, merged with the batch's delta. Sketches cannot be added in SQL, so the
+   * existing ones are read first; only the single writer thread updates rollups, so this is safe.
+   */
+  private Map<BucketKey, byte[]> mergeSketches(String table, Map<BucketKey, RollupSummary> deltas) {
+    Set<Long> targetIds = new LinkedHashSet<>();
+    Set<Timestamp> bucketStarts = new LinkedHashSet<>();
+    for (BucketKey key : deltas.keySet()) {
+      targetIds.add(key.targetServerId);
+      bucketStarts.add(Timestamp.valueOf(key.bucketStart));
+    }
+    List<Object> args = new ArrayList<>(targetIds);
+    args.addAll(bucketStarts);
+
+    Map<BucketKey, LatencyHistogram> stored = new HashMap<>();
+    jdbcTemplate.query("SELECT target_server_id, bucket_start, latency_sketch FROM " + table +
+            " WHERE target_server_id IN (" + placeholders(targetIds.size()) + ")" +
+            " AND bucket_start IN (" + placeholders(bucketStarts.size()) + ")",
+        rs -> {
+          stored.put(new BucketKey(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), null),
+              LatencyHistogram.fromBytes(rs.getBytes(3)));
+        }, args.toArray());
+
+    Map<BucketKey, byte[]> sketches = new HashMap<>();
+    deltas.forEach((key, delta) -> {
+      LatencyHistogram sketch = stored.getOrDefault(key, new LatencyHistogram());
+      sketch.merge(delta.getLatencyHistogram());
+      sketches.put(key, sketch.toBytes());
+    });
+    return sketches;
+  }
+
+  private int bindCounters(PreparedStatement ps, int index, RollupSummary summary) throws SQLException {
+    ps.setLong(index++, summary.getTotalCount());
+    ps.setLong(index++, summary.getSuccessCount());
+    ps.setLong(index++, summary.getLatencySumMs());
+    ps.setObject(index++, summary.getLatencyMinMs(), Types.BIGINT);
+    ps.setObject(index++, summary.getLatencyMaxMs(), Types.BIGINT);
+    for (long count : summary.getHistogram()) {
+      ps.setLong(index++, count);
+    }
+    return index;
+  }
+
+  /**
+   * Summary across all targets since the given time. Whole hours come from the hour table
+   * and the leading partial hour from the minute table, so the window is minute-accurate.
+   */
+  public RollupSummary getSummary(LocalDateTime since) {
+    RollupSummary summary = new RollupSummary();
+    getTargetSummaries(since).values().forEach(summary::merge);
+    return summary;
+  }
+
+  /**
+   * Per-target summaries since the given time, keyed by target server id, built the same way as
+   * {@link #getSummary(LocalDateTime)}. Targets without rollups in the window are absent.
+   */
+  public Map<Long, RollupSummary> getTargetSummaries(LocalDateTime since) {
+    LocalDateTime from = since.truncatedTo(ChronoUnit.MINUTES);
+    LocalDateTime firstFullHour = from.truncatedTo(ChronoUnit.HOURS);
+    if (firstFullHour.isBefore(from)) {
+      firstFullHour = firstFullHour.plusHours(1);
+    }
+
+    Map<Long, RollupSummary> summaries = new TreeMap<>();
+    if (from.isBefore(firstFullHour)) {
+      collectSummaries(MINUTE_TABLE, from, firstFullHour, summaries);
+    }
+    collectSummaries(HOUR_TABLE, firstFullHour, null, summaries);
+    return summaries;
+  }
+
+  // Rows are merged in Java because the sketches cannot be aggregated in SQL; a 24h window is at
+  // most 24 hour rows plus 59 minute rows per target
+  private void collectSummaries(String table, LocalDateTime from, LocalDateTime to, Map<Long, RollupSummary> summaries) {
+    StringBuilder sql = new StringBuilder("SELECT target_server_id, total_count, success_count, latency_sum_ms, ")
+        .append("latency_min_ms, latency_max_ms, ").append(String.join(", ", HISTOGRAM_COLUMNS))
+        .append(", latency_sketch FROM ").append(table).append(" WHERE bucket_start >= ?");
+
+    List<Object> args = new ArrayList<>();
+    args.add(Timestamp.valueOf(from));
+    if (to != null) {
+      sql.append(" AND bucket_start < ?");
+      args.add(Timestamp.valueOf(to));
+    }
+
+    jdbcTemplate.query(sql.toString(), rs -> {
+      summaries.computeIfAbsent(rs.getLong(1), id -> new RollupSummary()).merge(mapSummary(rs));
+    }, args.toArray());
+  }
+
+  private RollupSummary mapSummary(ResultSet rs) throws SQLException {
+    RollupSummary summary = new RollupSummary();
+    summary.setTotalCount(rs.getLong(2));
+    summary.setSuccessCount(rs.getLong(3));
+    summary.setLatencySumMs(rs.getLong(4));
+    summary.setLatencyMinMs(rs.getObject(5) != null ? rs.getLong(5) : null);
+    summary.setLatencyMaxMs(rs.getObject(6) != null ? rs.getLong(6) : null);
+    long[] histogram = summary.getHistogram();
+    for (int i = 0; i < histogram.length; i++) {
+      histogram[i] = rs.getLong(7 + i);
+    }
+    summary.setLatencyHistogram(LatencyHistogram.fromBytes(rs.getBytes(7 + histogram.length)));
+    return summary;
+  }
+
+  /**
+   * Schedules a rebuild of both rollup tables from {@code execution_logs} when they are empty but
+   * raw logs exist, e.g. the first start after upgrading, or resumes one an earlier run left
+   * unfinished. Only records where the rebuild stands; the work itself is done chunk by chunk by
+   * the log writer thread through {@link #backfillChunk()}, so startup is never blocked by it.
+   * Called before the writer thread starts, so the cutoff excludes every log the writer adds.
+   */
+  public void prepareBackfill() {
+    List<long[]> state = jdbcTemplate.query("SELECT last_id, cutoff_id FROM rollup_backfill WHERE completed_at IS NULL",
+        (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    if (!state.isEmpty()) {
+      backfillLastId = state.get(0)[0];
+      backfillCutoffId = state.get(0)[1];
+      backfillPending = true;
+      logger.info("Resuming rollup backfill at log id {} of {}", backfillLastId, backfillCutoffId);
+      return;
+    }
+
+    Long backfilled = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rollup_backfill", Long.class);
+    List<Long> rollups = jdbcTemplate.queryForList("SELECT id FROM " + HOUR_TABLE + " LIMIT 1", Long.class);
+    Long cutoff = jdbcTemplate.queryForObject("SELECT MAX(id) FROM execution_logs", Long.class);
+    if ((backfilled != null && backfilled > 0) || !rollups.isEmpty() || cutoff == null) {
+      return;
+    }
+
+    jdbcTemplate.update("INSERT INTO rollup_backfill (last_id, cutoff_id, started_at) VALUES (0, ?, ?)",
+        cutoff, Timestamp.valueOf(LocalDateTime.now()));
+    backfillLastId = 0;
+    backfillCutoffId = cutoff;
+    backfillPending = true;
+    logger.info("Rollups are empty - rebuilding them from execution logs up to id {} in the background", cutoff);
+  }
+
+  /**
+   * Folds the next chunk of pre-upgrade logs into the rollups through the same path as live
+   * flushes. Must run on the writer thread inside a transaction, so the chunk and the recorded
+   * progress commit together and an interrupted rebuild resumes without counting a log twice.
+   * Returns true while more chunks remain.
+   */
+  public boolean backfillChunk() {
+    long lastId = jdbcTemplate.queryForObject("SELECT last_id FROM rollup_backfill WHERE completed_at IS NULL",
+        Long.class);
+    List<ExecutionLog> logs = jdbcTemplate.query("SELECT id, target_server_id, server_name, success, elapsed_time_ms, " +
+            "execution_time, skipped FROM execution_logs WHERE id > ? AND id <= ? ORDER BY id LIMIT " + BACKFILL_CHUNK,
+        (rs, rowNum) -> {
+          ExecutionLog log = new ExecutionLog();
+          log.setId(rs.getLong(1));
+          log.setTargetServerId(rs.getObject(2) != null ? rs.getLong(2) : null);
+          log.setServerName(rs.getString(3));
+          log.setSuccess(rs.getBoolean(4));
+          log.setElapsedTimeMs(rs.getObject(5) != null ? rs.getLong(5) : null);
+          log.setExecutionTime(rs.getTimestamp(6).toLocalDateTime());
+          log.setSkipped(rs.getBoolean(7));
+          return log;
+        }, lastId, backfillCutoffId);
+
+    if (logs.isEmpty()) {
+      jdbcTemplate.update("UPDATE rollup_backfill SET completed_at = ? WHERE completed_at IS NULL",
+          Timestamp.valueOf(LocalDateTime.now()));
+      backfillPending = false;
+      logger.info("Rollup backfill completed at log id {}", lastId);
+      return false;
+    }
+
+    accumulate(logs);
+    long nextId = logs.get(logs.size() - 1).getId();
+    jdbcTemplate.update("UPDATE rollup_backfill SET last_id = ? WHERE completed_at IS NULL", nextId);
+    backfillLastId = nextId;
+    return true;
+  }
+
+  /**
+   * True while pre-upgrade logs are still being folded in; rollup figures are incomplete until then.
+   */
+  public boolean isBackfillPending() {
+    return backfillPending;
+  }
+
+  public Map<String, Object> getBackfillStatus() {
+    Map<String, Object> status = new HashMap<>();
+    status.put("pending", backfillPending);
+    status.put("lastLogId", backfillLastId);
+    status.put("cutoffLogId", backfillCutoffId);
+    return status;
+  }
+
+  private static String[] histogramColumns() {
+    String[] columns = new String[RollupSummary.LATENCY_BOUNDS_MS.length + 1];
+    for (int i = 0; i < RollupSummary.LATENCY_BOUNDS_MS.length; i++) {
+      columns[i] = "le_" + RollupSummary.LATENCY_BOUNDS_MS[i];
+    }
+    columns[columns.length - 1] = "le_inf";
+    return columns;
+  }
+
+  private static String placeholders(int count) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      sb.append(i == 0 ? "?" : ", ?");
+    }
+    return sb.toString();
+  }
+
+  private static final class BucketKey {
+    private final long targetServerId;
+    private final LocalDateTime bucketStart;
+    private final String serverName;
+
+    private BucketKey(long targetServerId, LocalDateTime bucketStart, String serverName) {
+      this.targetServerId = targetServerId;
+      this.bucketStart = bucketStart;
+      this.serverName = serverName;
+    }
+
+    // The server name is carried along for inserts but is not part of the bucket identity
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof BucketKey)) return false;
+      BucketKey other = (BucketKey) o;
+      return targetServerId == other.targetServerId && bucketStart.equals(other.bucketStart);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(targetServerId, bucketStart);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.kica.ess.batch.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phase timestamps for a single probe. An instance travels with the request through the
+ * Reactor context under {@link #CONTEXT_KEY}; the HTTP client hooks fill in the connection
+ * and request phases and the service marks the end of the body. All values are
+ * {@link System#nanoTime()} readings, {@code 0} meaning the phase was not observed.
+ * <p>
+ * When the request reuses a pooled connection the DNS, connect and TLS phases are reported
+ * as zero because no such work was done for this probe.
+ */
+public class ProbeTimings {
+
+  public static final String CONTEXT_KEY = ProbeTimings.class.getName();
+
+  private final long startNanos = System.nanoTime();
+
+  private volatile boolean connectionObserved;
+  private volatile boolean connectionReused;
+  private volatile long dnsNanos;
+  private volatile long connectNanos;
+  private volatile long tlsNanos;
+  private volatile long requestSentNanos;
+  private volatile long responseHeadersNanos;
+  private volatile long bodyCompleteNanos;
+
+  /**
+   * Records the setup cost of the connection this probe ran on. Durations are in nanoseconds.
+   */
+  public void connectionReady(boolean reused, long dnsNanos, long connectNanos, long tlsNanos) {
+    this.connectionObserved = true;
+    this.connectionReused = reused;
+    this.dnsNanos = reused ? 0 : dnsNanos;
+    this.connectNanos = reused ? 0 : connectNanos;
+    this.tlsNanos = reused ? 0 : tlsNanos;
+  }
+
+  public void markRequestSent() { requestSentNanos = System.nanoTime(); }
+
+  public void markResponseHeaders() { responseHeadersNanos = System.nanoTime(); }
+
+  public void markBodyComplete() { bodyCompleteNanos = System.nanoTime(); }
+
+  public boolean isConnectionReused() { return connectionReused; }
+
+  public Long getDnsTimeMs() { return connectionObserved ? toMillis(dnsNanos) : null; }
+
+  public Long getConnectTimeMs() { return connectionObserved ? toMillis(connectNanos) : null; }
+
+  public Long getTlsTimeMs() { return connectionObserved ? toMillis(tlsNanos) : null; }
+
+  /**
+   * Time to first byte: from the request being written until the response headers arrived.
+   */
+  public Long getTtfbMs() {
+    if (responseHeadersNanos == 0) {
+      return null;
+    }
+    long from = requestSentNanos != 0 ? requestSentNanos : startNanos;
+    return toMillis(responseHeadersNanos - from);
+  }
+
+  public Long getBodyTimeMs() {
+    if (responseHeadersNanos == 0 || bodyCompleteNanos == 0) {
+      return null;
+    }
+    return toMillis(bodyCompleteNanos - responseHeadersNanos);
+  }
+
+  private static long toMillis(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(Math.max(0, nanos));
+  }
+}
\ No newline at end of file
@@ -0,0 +1,193 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.ExecutionLogSummary;
+import com.kica.ess.batch.dto.HealthCheckResult;
+import com.kica.ess.batch.dto.RecentResult;
+import com.kica.ess.batch.dto.RecentResultSummary;
+import com.kica.ess.batch.entity.TargetServer;
+import com.kica.ess.batch.repository.ExecutionLogRepository;
+import com.kica.ess.batch.repository.TargetServerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last N probe results per target, held in fixed-size primitive ring buffers. The probe engine
+ * records every result it hands to the log writer, so console and API reads of a target's recent
+ * history are answered from memory. Footprint is fixed at about 14 bytes per slot per target.
+ */
+@Service
+public class RecentResultStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(RecentResultStore.class);
+
+  @Autowired
+  private BatchProperties batchProperties;
+
+  @Autowired
+  private TargetServerRepository targetServerRepository;
+
+  @Autowired
+  private ExecutionLogRepository executionLogRepository;
+
+  private final Map<Long, ResultRing> rings = new ConcurrentHashMap<>();
+  private int capacity;
+
+  @PostConstruct
+  public void init() {
+    BatchProperties.Probe probe = batchProperties.getProbe() != null ?
+        batchProperties.getProbe() : new BatchProperties.Probe();
+    capacity = Math.max(1, probe.getRecentResultCapacity());
+
+    // Seed from the newest persisted logs so a restart does not start with empty history
+    try {
+      int seeded = 0;
+      LocalDateTime now = LocalDateTime.now();
+      for (TargetServer server : targetServerRepository.findAll()) {
+        List<ExecutionLogSummary> logs = executionLogRepository
+            .findServerProbeSlice(server.getId(), now, PageRequest.of(0, capacity)).getContent();
+        for (int i = logs.size() - 1; i >= 0; i--) {
+          ExecutionLogSummary log = logs.get(i);
+          long timestamp = log.getExecutionTime() != null ?
+              log.getExecutionTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+          record(server.getId(), timestamp, log.getElapsedTimeMs() != null ? log.getElapsedTimeMs() : 0L,
+              log.getStatusCode() != null ? log.getStatusCode() : 0, Boolean.TRUE.equals(log.getSuccess()));
+          seeded++;
+        }
+      }
+      logger.info("Recent result store initialized (capacity: {} per target, seeded: {} results)", capacity, seeded);
+    } catch (Exception e) {
+      logger.error("Failed to seed recent result store: {}", e.getMessage(), e);
+    }
+  }
+
+  public void record(HealthCheckResult result) {
+    if (result.getTargetServerId() == null) {
+      return;
+    }
+    long timestamp = result.getEndTime() > 0 ? result.getEndTime() : System.currentTimeMillis();
+    record(result.getTargetServerId(), timestamp, result.getElapsedTime(), result.getStatusCode(), result.isSuccess());
+  }
+
+  public void record(Long targetServerId, long timestamp, long latencyMs, int statusCode, boolean success) {
+    rings.computeIfAbsent(targetServerId, id -> new ResultRing(capacity))
+        .add(timestamp, latencyMs, statusCode, success);
+  }
+
+  /**
+   * Returns up to {@code limit} of the target's most recent results, newest first.
+   */
+  public List<RecentResult> getRecent(Long targetServerId, int limit) {
+    ResultRing ring = rings.get(targetServerId);
+    return ring != null ? ring.latest(limit) : new ArrayList<>();
+  }
+
+  public RecentResultSummary getSummary(Long targetServerId) {
+    ResultRing ring = rings.get(targetServerId);
+    return ring != null ? ring.summarize() : null;
+  }
+
+  public Map<Long, RecentResultSummary> getSummaries() {
+    Map<Long, RecentResultSummary> summaries = new HashMap<>();
+    rings.forEach((id, ring) -> summaries.put(id, ring.summarize()));
+    return summaries;
+  }
+
+  public void remove(Long targetServerId) {
+    rings.remove(targetServerId);
+  }
+
+  public int getCapacity() { return capacity; }
+
+  /**
+   * Fixed-capacity ring of results in parallel primitive arrays. Writers and readers synchronize
+   * on the ring; every operation is a short loop over at most {@code capacity} slots.
+   */
+  private static final class ResultRing {
+    private final long[] timestamps;
+    private final int[] latencies;
+    private final short[] statusCodes;
+    private final long[] successBits;
+    private int next;
+    private int size;
+
+    private ResultRing(int capacity) {
+      this.timestamps = new long[capacity];
+      this.latencies = new int[capacity];
+      this.statusCodes = new short[capacity];
+      this.successBits = new long[(capacity + 63) >>> 6];
+    }
+
+    synchronized void add(long timestamp, long latencyMs, int statusCode, boolean success) {
+      timestamps[next] = timestamp;
+      latencies[next] = (int) Math.min(Integer.MAX_VALUE, Math.max(0, latencyMs));
+      statusCodes[next] = (short) statusCode;
+      if (success) {
+        successBits[next >>> 6] |= 1L << next;
+      } else {
+        successBits[next >>> 6] &= ~(1L << next);
+      }
+      next = (next + 1) % timestamps.length;
+      if (size < timestamps.length) {
+        size++;
+      }
+    }
+
+    private int slot(int age) {
+      return (next - 1 - age + timestamps.length) % timestamps.length;
+    }
+
+    private boolean isSuccess(int slot) {
+      return (successBits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private RecentResult at(int slot) {
+      return new RecentResult(timestamps[slot], latencies[slot], statusCodes[slot], isSuccess(slot));
+    }
+
+    synchronized List<RecentResult> latest(int limit) {
+      int count = Math.min(size, Math.max(0, limit));
+      List<RecentResult> results = new ArrayList<>(count);
+      for (int age = 0; age < count; age++) {
+        results.add(at(slot(age)));
+      }
+      return results;
+    }
+
+    synchronized RecentResultSummary summarize() {
+      int successCount = 0;
+      long latencySum = 0;
+      long maxLatency = 0;
+      int consecutiveFailures = 0;
+      boolean streak = true;
+
+      for (int age = 0; age < size; age++) {
+        int slot = slot(age);
+        if (isSuccess(slot)) {
+          successCount++;
+          latencySum += latencies[slot];
+          maxLatency = Math.max(maxLatency, latencies[slot]);
+          streak = false;
+        } else if (streak) {
+          consecutiveFailures++;
+        }
+      }
+
+      long averageLatency = successCount > 0 ? latencySum / successCount : 0;
+      return new RecentResultSummary(size, successCount, averageLatency, maxLatency, consecutiveFailures,
+          size > 0 ? at(slot(0)) : null);
+    }
+  }
+}
\ No newline at end of file
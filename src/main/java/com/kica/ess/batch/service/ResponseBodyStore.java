@@ -0,0 +1,199 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.entity.ExecutionLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed store for captured response bodies. Each distinct body is gzip-compressed
+ * and stored once in {@code response_bodies} under the log's {@code response_hash}, the SHA-256
+ * the probe already computed while streaming the response; execution logs only carry that hash.
+ * A truncated capture is stored as the prefix of the body with that hash. Health endpoints
+ * mostly return the same body every cycle, so nearly every log row references a body that is
+ * already stored.
+ */
+@Service
+public class ResponseBodyStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(ResponseBodyStore.class);
+
+  public static final String COMPRESSION_GZIP = "gzip";
+  public static final String COMPRESSION_NONE = "none";
+
+  // Reused bodies get last_seen_at bumped at most this often, so steady-state reuse costs no writes
+  private static final long TOUCH_INTERVAL_MS = 60 * 60 * 1000L;
+
+  private static final String INSERT_SQL =
+      "INSERT INTO response_bodies (body_hash, compression, original_bytes, stored_bytes, content, created_at, last_seen_at) " +
+          "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String TOUCH_SQL =
+      "UPDATE response_bodies SET last_seen_at = ? WHERE body_hash = ? AND last_seen_at < ?";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final AtomicLong bodiesStored = new AtomicLong();
+  private final AtomicLong bodiesReused = new AtomicLong();
+  private final AtomicLong originalBytes = new AtomicLong();
+  private final AtomicLong storedBytes = new AtomicLong();
+
+  /**
+   * Inserts the captured bodies that are not stored yet. Called by the single writer thread inside
+   * its flush transaction. A log that carries a body but no response hash is hashed here.
+   */
+  public void store(List<ExecutionLog> logs) {
+    Map<String, byte[]> bodies = new LinkedHashMap<>();
+    int referencing = 0;
+    for (ExecutionLog log : logs) {
+      String body = log.getResponseBody();
+      if (body == null || body.isEmpty()) {
+        continue;
+      }
+      byte[] content = body.getBytes(StandardCharsets.UTF_8);
+      if (log.getResponseHash() == null) {
+        log.setResponseHash(sha256(content));
+      }
+      bodies.putIfAbsent(log.getResponseHash(), content);
+      referencing++;
+    }
+    if (bodies.isEmpty()) {
+      return;
+    }
+
+    List<String> hashes = new ArrayList<>(bodies.keySet());
+    String placeholders = String.join(", ", Collections.nCopies(hashes.size(), "?"));
+    Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+        "SELECT body_hash FROM response_bodies WHERE body_hash IN (" + placeholders + ")", String.class, hashes.toArray()));
+
+    long nowMs = System.currentTimeMillis();
+    Timestamp now = new Timestamp(nowMs);
+    Timestamp touchBefore = new Timestamp(nowMs - TOUCH_INTERVAL_MS);
+    List<Object[]> touches = new ArrayList<>();
+    List<Object[]> inserts = new ArrayList<>();
+
+    for (Map.Entry<String, byte[]> entry : bodies.entrySet()) {
+      if (existing.contains(entry.getKey())) {
+        touches.add(new Object[]{now, entry.getKey(), touchBefore});
+        continue;
+      }
+      byte[] content = entry.getValue();
+      byte[] compressed = gzip(content);
+      // Very small bodies can grow under gzip; those are kept as-is
+      boolean useGzip = compressed.length < content.length;
+      byte[] stored = useGzip ? compressed : content;
+      inserts.add(new Object[]{entry.getKey(), useGzip ? COMPRESSION_GZIP : COMPRESSION_NONE,
+          content.length, stored.length, stored, now, now});
+
+      originalBytes.addAndGet(content.length);
+      storedBytes.addAndGet(stored.length);
+    }
+
+    if (!touches.isEmpty()) {
+      jdbcTemplate.batchUpdate(TOUCH_SQL, touches);
+    }
+    if (!inserts.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+    }
+
+    bodiesStored.addAndGet(inserts.size());
+    bodiesReused.addAndGet(referencing - inserts.size());
+  }
+
+  /**
+   * Returns the stored body for the given hash, or null if there is none.
+   */
+  public String load(String bodyHash) {
+    if (bodyHash == null) {
+      return null;
+    }
+    List<String> bodies = jdbcTemplate.query("SELECT compression, content FROM response_bodies WHERE body_hash = ?",
+        (rs, rowNum) -> {
+          byte[] content = rs.getBytes("content");
+          byte[] raw = COMPRESSION_GZIP.equals(rs.getString("compression")) ? gunzip(content) : content;
+          return new String(raw, StandardCharsets.UTF_8);
+        }, bodyHash);
+
+    if (bodies.isEmpty()) {
+      // Normal for an empty response or one probed with capture disabled
+      logger.debug("No stored response body for {}", bodyHash);
+      return null;
+    }
+    return bodies.get(0);
+  }
+
+  /**
+   * Attaches the stored body to a log loaded through JPA, which only maps the hash.
+   */
+  public ExecutionLog attachBody(ExecutionLog log) {
+    if (log != null && log.getResponseBody() == null) {
+      log.setResponseBody(load(log.getResponseHash()));
+    }
+    return log;
+  }
+
+  static String sha256(byte[] content) {
+    try {
+      return ResponseCapture.toHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  static byte[] gzip(byte[] content) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(content);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  static byte[] gunzip(byte[] compressed) {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("bodiesStored", bodiesStored.get());
+    stats.put("bodiesReused", bodiesReused.get());
+    stats.put("originalBytes", originalBytes.get());
+    stats.put("storedBytes", storedBytes.get());
+    return stats;
+  }
+}
\ No newline at end of file
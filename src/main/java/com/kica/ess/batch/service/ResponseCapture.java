@@ -0,0 +1,88 @@
+package com.kica.ess.batch.service;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Accumulates a streamed response body without buffering all of it. Only the first
+ * {@code limit} bytes are retained; every byte still feeds the SHA-256 content hash
+ * and the byte count. Each {@link DataBuffer} is released as soon as it is consumed.
+ */
+public final class ResponseCapture {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final int limit;
+  private final MessageDigest digest;
+  private byte[] prefix = new byte[0];
+  private int prefixLength;
+  private long totalBytes;
+  private String contentHash;
+
+  public ResponseCapture(int limit) {
+    this.limit = Math.max(0, limit);
+    try {
+      this.digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  public void append(DataBuffer buffer) {
+    try {
+      int readable = buffer.readableByteCount();
+      byte[] chunk = new byte[readable];
+      buffer.read(chunk);
+
+      digest.update(chunk);
+      totalBytes += readable;
+
+      int keep = Math.min(readable, limit - prefixLength);
+      if (keep > 0) {
+        ensureCapacity(prefixLength + keep);
+        System.arraycopy(chunk, 0, prefix, prefixLength, keep);
+        prefixLength += keep;
+      }
+    } finally {
+      DataBufferUtils.release(buffer);
+    }
+  }
+
+  private void ensureCapacity(int required) {
+    if (required > prefix.length) {
+      int grown = Math.max(required, Math.min(limit, Math.max(256, prefix.length * 2)));
+      byte[] expanded = new byte[grown];
+      System.arraycopy(prefix, 0, expanded, 0, prefixLength);
+      prefix = expanded;
+    }
+  }
+
+  public String getBody() {
+    return prefixLength > 0 ? new String(prefix, 0, prefixLength, StandardCharsets.UTF_8) : null;
+  }
+
+  public long getTotalBytes() { return totalBytes; }
+
+  public boolean isTruncated() { return totalBytes > prefixLength; }
+
+  public String getContentHash() {
+    if (contentHash != null) {
+      return contentHash;
+    }
+    contentHash = toHex(digest.digest());
+    return contentHash;
+  }
+
+  static String toHex(byte[] hash) {
+    char[] hex = new char[hash.length * 2];
+    for (int i = 0; i < hash.length; i++) {
+      hex[i * 2] = HEX[(hash[i] >> 4) & 0x0f];
+      hex[i * 2 + 1] = HEX[hash[i] & 0x0f];
+    }
+    return new String(hex);
+  }
+}
\ No newline at end of file
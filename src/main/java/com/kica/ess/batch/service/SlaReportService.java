@@ -0,0 +1,137 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.RollupSummary;
+import com.kica.ess.batch.dto.ServerSlaReport;
+import com.kica.ess.batch.dto.SlaStats;
+import com.kica.ess.batch.entity.TargetServer;
+import com.kica.ess.batch.exception.NotFoundException;
+import com.kica.ess.batch.job.BatchRunCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-target uptime, error budget consumption and p95 latency over 24h, 7d and 30d, computed
+ * from the hour rollups (plus minute rollups for the leading partial hour). A 30-day report
+ * reads at most 720 rollup rows per target however many raw logs there are, and the result is
+ * reused until the next batch cycle completes or it is {@link #MAX_AGE_MS} old.
+ */
+@Service
+public class SlaReportService {
+
+  private static final Logger logger = LoggerFactory.getLogger(SlaReportService.class);
+
+  public static final Map<String, Duration> WINDOWS = windows();
+
+  static final long MAX_AGE_MS = 5 * 60 * 1000L;
+
+  @Autowired
+  private ProbeRollupService probeRollupService;
+
+  @Autowired
+  private TargetInventory targetInventory;
+
+  @Autowired
+  private BatchRunCoordinator batchRunCoordinator;
+
+  @Autowired(required = false)
+  private BatchProperties batchProperties;
+
+  private volatile CachedReport cached;
+
+  public List<ServerSlaReport> getReport() {
+    CachedReport current = cached;
+    if (isFresh(current)) {
+      return current.reports;
+    }
+    synchronized (this) {
+      current = cached;
+      if (!isFresh(current)) {
+        boolean complete = isComplete();
+        current = new CachedReport(batchRunCoordinator.getCompletedCycles(), System.currentTimeMillis(), complete, compute());
+        cached = current;
+      }
+      return current.reports;
+    }
+  }
+
+  public ServerSlaReport getReport(Long targetServerId) {
+    return getReport().stream()
+        .filter(report -> report.getTargetServerId().equals(targetServerId))
+        .findFirst()
+        .orElseThrow(() -> new NotFoundException("Target server not found with id: " + targetServerId));
+  }
+
+  /**
+   * False while the rollups are still being rebuilt from older logs; figures then cover only part
+   * of each window.
+   */
+  public boolean isComplete() {
+    return !probeRollupService.isBackfillPending();
+  }
+
+  public double getTargetPercent() {
+    return batchProperties != null && batchProperties.getSla() != null ?
+        batchProperties.getSla().getTargetPercent() : new BatchProperties.Sla().getTargetPercent();
+  }
+
+  private boolean isFresh(CachedReport current) {
+    return current != null
+        && current.cycle == batchRunCoordinator.getCompletedCycles()
+        && System.currentTimeMillis() - current.computedAt < MAX_AGE_MS
+        && (current.complete || !isComplete());
+  }
+
+  private List<ServerSlaReport> compute() {
+    long start = System.currentTimeMillis();
+    double targetPercent = getTargetPercent();
+    LocalDateTime now = LocalDateTime.now();
+
+    Map<String, Map<Long, RollupSummary>> summaries = new LinkedHashMap<>();
+    WINDOWS.forEach((name, length) -> summaries.put(name, probeRollupService.getTargetSummaries(now.minus(length))));
+
+    List<ServerSlaReport> reports = new ArrayList<>();
+    for (TargetServer server : targetInventory.getAllServers()) {
+      Map<String, SlaStats> windows = new LinkedHashMap<>();
+      summaries.forEach((name, byTarget) -> windows.put(name,
+          new SlaStats(byTarget.getOrDefault(server.getId(), new RollupSummary()), targetPercent)));
+      reports.add(new ServerSlaReport(server.getId(), server.getName(), Boolean.TRUE.equals(server.getEnabled()),
+          Collections.unmodifiableMap(windows)));
+    }
+
+    logger.debug("SLA report computed for {} targets in {}ms", reports.size(), System.currentTimeMillis() - start);
+    return Collections.unmodifiableList(reports);
+  }
+
+  private static Map<String, Duration> windows() {
+    Map<String, Duration> windows = new LinkedHashMap<>();
+    windows.put("24h", Duration.ofHours(24));
+    windows.put("7d", Duration.ofDays(7));
+    windows.put("30d", Duration.ofDays(30));
+    return Collections.unmodifiableMap(windows);
+  }
+
+  private static final class CachedReport {
+    private final long cycle;
+    private final long computedAt;
+    private final boolean complete;
+    private final List<ServerSlaReport> reports;
+
+    private CachedReport(long cycle, long computedAt, boolean complete, List<ServerSlaReport> reports) {
+      this.cycle = cycle;
+      this.computedAt = computedAt;
+      this.complete = complete;
+      this.reports = reports;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.Notification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Sends each notification as a plain-text e-mail. Speaks SMTP directly over a socket (optionally
+ * implicit TLS or STARTTLS, with AUTH PLAIN when a username is set), so no mail library is needed
+ * for what is a single short message. TLS connections verify the server's certificate against
+ * {@code host}, and credentials are only ever sent over TLS. Connect and every server reply are
+ * bounded by {@code timeout-ms}.
+ */
+@Service
+public class SmtpNotificationChannel implements NotificationChannel {
+
+  private static final String CRLF = "\r\n";
+
+  @Autowired(required = false)
+  private BatchProperties batchProperties;
+
+  @Override
+  public String getName() { return "smtp"; }
+
+  @Override
+  public boolean isEnabled() {
+    BatchProperties.Smtp smtp = getSettings();
+    return smtp.isEnabled() && smtp.getHost() != null && smtp.getFrom() != null &&
+        smtp.getTo() != null && !smtp.getTo().isEmpty();
+  }
+
+  @Override
+  public void send(Notification notification) throws IOException {
+    BatchProperties.Smtp smtp = getSettings();
+    int timeout = (int) Math.max(1, smtp.getTimeoutMs());
+    boolean authenticate = smtp.getUsername() != null && !smtp.getUsername().isEmpty();
+    if (authenticate && !smtp.isSsl() && !smtp.isStarttls()) {
+      throw new IOException("Refusing to send SMTP credentials over an unencrypted connection - enable ssl or starttls");
+    }
+
+    Socket socket = smtp.isSsl() ? verifyHostname((SSLSocket) SSLSocketFactory.getDefault().createSocket()) : new Socket();
+    try {
+      socket.connect(new InetSocketAddress(smtp.getHost(), smtp.getPort()), timeout);
+      socket.setSoTimeout(timeout);
+      SmtpSession session = new SmtpSession(socket);
+      session.expect(220);
+      session.command("EHLO " + localHostName(), 250);
+
+      if (smtp.isStarttls() && !smtp.isSsl()) {
+        session.command("STARTTLS", 220);
+        SSLSocket tls = verifyHostname((SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault())
+            .createSocket(socket, smtp.getHost(), smtp.getPort(), true));
+        socket = tls;
+        tls.startHandshake();
+        session = new SmtpSession(socket);
+        session.command("EHLO " + localHostName(), 250);
+      }
+
+      if (authenticate) {
+        String credentials = "\0" + smtp.getUsername() + "\0" + (smtp.getPassword() != null ? smtp.getPassword() : "");
+        session.command("AUTH PLAIN " + base64(credentials), 235);
+      }
+
+      session.command("MAIL FROM:<" + smtp.getFrom() + ">", 250);
+      for (String recipient : smtp.getTo()) {
+        session.command("RCPT TO:<" + recipient.trim() + ">", 250, 251);
+      }
+      session.command("DATA", 354);
+      session.write(buildMessage(smtp.getFrom(), smtp.getTo(), notification));
+      session.command(".", 250);
+      session.command("QUIT", 221);
+    } finally {
+      socket.close();
+    }
+  }
+
+  /**
+   * Builds the message; the body is base64-encoded, so non-ASCII text needs no 8BITMIME support
+   * and no line of it can start with a dot.
+   */
+  static String buildMessage(String from, List<String> to, Notification notification) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("From: ").append(from).append(CRLF);
+    sb.append("To: ").append(String.join(", ", to)).append(CRLF);
+    sb.append("Subject: =?UTF-8?B?").append(base64("[Health Check] " + notification.getTitle())).append("?=").append(CRLF);
+    sb.append("Date: ").append(ZonedDateTime.now().format(DateTimeFormatter.RFC_1123_DATE_TIME)).append(CRLF);
+    sb.append("MIME-Version: 1.0").append(CRLF);
+    sb.append("Content-Type: text/plain; charset=UTF-8").append(CRLF);
+    sb.append("Content-Transfer-Encoding: base64").append(CRLF);
+    sb.append(CRLF);
+    String body = Base64.getMimeEncoder().encodeToString(notification.getPlainText().getBytes(StandardCharsets.UTF_8));
+    sb.append(body).append(CRLF);
+    return sb.toString();
+  }
+
+  // The JDK checks the certificate chain but not the host name unless an identification algorithm is set
+  private static SSLSocket verifyHostname(SSLSocket socket) {
+    SSLParameters parameters = socket.getSSLParameters();
+    parameters.setEndpointIdentificationAlgorithm("HTTPS");
+    socket.setSSLParameters(parameters);
+    return socket;
+  }
+
+  private static String base64(String value) {
+    return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String localHostName() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (IOException e) {
+      return "localhost";
+    }
+  }
+
+  private BatchProperties.Smtp getSettings() {
+    BatchProperties.Notification notification = batchProperties != null ? batchProperties.getNotification() : null;
+    return notification != null && notification.getSmtp() != null ?
+        notification.getSmtp() : new BatchProperties.Smtp();
+  }
+
+  private static final class SmtpSession {
+    private final BufferedReader reader;
+    private final OutputStream out;
+
+    private SmtpSession(Socket socket) throws IOException {
+      this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      this.out = socket.getOutputStream();
+    }
+
+    void write(String data) throws IOException {
+      out.write(data.getBytes(StandardCharsets.UTF_8));
+      out.flush();
+    }
+
+    void command(String command, int... expected) throws IOException {
+      write(command + CRLF);
+      expect(expected);
+    }
+
+    /**
+     * Reads one (possibly multi-line) reply and fails unless its code is one of the expected ones.
+     */
+    void expect(int... expected) throws IOException {
+      String line;
+      do {
+        line = reader.readLine();
+        if (line == null) {
+          throw new IOException("SMTP server closed the connection");
+        }
+      } while (line.length() > 3 && line.charAt(3) == '-');
+
+      int code;
+      try {
+        code = Integer.parseInt(line.substring(0, Math.min(3, line.length())));
+      } catch (NumberFormatException e) {
+        throw new IOException("Malformed SMTP reply: " + line);
+      }
+      for (int candidate : expected) {
+        if (code == candidate) {
+          return;
+        }
+      }
+      throw new IOException("Unexpected SMTP reply: " + line);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,187 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.HealthCheckResult;
+import com.kica.ess.batch.dto.HealthTransition;
+import com.kica.ess.batch.dto.TargetHealthState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-target health state machine that turns the stream of probe results into state changes,
+ * so alerts go out once per change instead of once per failing probe.
+ * <ul>
+ *   <li>{@code failure-threshold} consecutive failures make a target DOWN.</li>
+ *   <li>{@code degraded-threshold} consecutive slow successes make an UP target DEGRADED.</li>
+ *   <li>{@code recovery-threshold} consecutive fast successes bring it back UP; a DOWN target
+ *       that recovers with slow responses becomes DEGRADED.</li>
+ *   <li>{@code flap-threshold} state changes within {@code flap-window-minutes} make it FLAPPING,
+ *       which holds until the window passes without a change.</li>
+ * </ul>
+ * Targets start UP. Results of probes skipped at the deadline or behind an open circuit carry
+ * no new information and are ignored.
+ */
+@Service
+public class TargetHealthTracker {
+
+  private static final long DEFAULT_SLOW_THRESHOLD_MS = 10000L;
+
+  @Autowired(required = false)
+  private BatchProperties batchProperties;
+
+  private final Map<Long, TargetHealth> targets = new ConcurrentHashMap<>();
+
+  /**
+   * Feeds probe results into the state machine and returns the resulting state changes,
+   * in result order. Most cycles return an empty list.
+   */
+  public List<HealthTransition> observe(List<HealthCheckResult> results) {
+    BatchProperties.HealthState settings = getSettings();
+    long slowThresholdMs = getSlowThresholdMs();
+
+    List<HealthTransition> transitions = new ArrayList<>();
+    for (HealthCheckResult result : results) {
+      if (result.getTargetServerId() == null || result.isSkipped() || result.isCircuitOpen()) {
+        continue;
+      }
+      long now = result.getEndTime() > 0 ? result.getEndTime() : System.currentTimeMillis();
+      HealthTransition transition = targets.computeIfAbsent(result.getTargetServerId(), id -> new TargetHealth(now))
+          .observe(result, settings, slowThresholdMs, now);
+      if (transition != null) {
+        transitions.add(transition);
+      }
+    }
+    return transitions;
+  }
+
+  public TargetHealthState getState(Long targetServerId) {
+    TargetHealth health = targets.get(targetServerId);
+    return health != null ? health.getState() : TargetHealthState.UP;
+  }
+
+  public Map<Long, TargetHealthState> getStates() {
+    Map<Long, TargetHealthState> states = new HashMap<>();
+    targets.forEach((id, health) -> states.put(id, health.getState()));
+    return states;
+  }
+
+  public Map<TargetHealthState, Integer> getStateCounts() {
+    Map<TargetHealthState, Integer> counts = new EnumMap<>(TargetHealthState.class);
+    for (TargetHealthState state : TargetHealthState.values()) {
+      counts.put(state, 0);
+    }
+    targets.values().forEach(health -> counts.merge(health.getState(), 1, Integer::sum));
+    return counts;
+  }
+
+  public void remove(Long targetServerId) {
+    targets.remove(targetServerId);
+  }
+
+  private BatchProperties.HealthState getSettings() {
+    return batchProperties != null && batchProperties.getHealthState() != null ?
+        batchProperties.getHealthState() : new BatchProperties.HealthState();
+  }
+
+  private long getSlowThresholdMs() {
+    if (batchProperties != null && batchProperties.getTimeout() != null) {
+      return batchProperties.getTimeout().getThreshold();
+    }
+    return DEFAULT_SLOW_THRESHOLD_MS;
+  }
+
+  private static final class TargetHealth {
+    private TargetHealthState state = TargetHealthState.UP;
+    // State ignoring flap detection; its changes are what flap detection counts
+    private TargetHealthState baseState = TargetHealthState.UP;
+    private long stateSince;
+    private int consecutiveFailures;
+    private int consecutiveSlow;
+    private int consecutiveFast;
+    private int consecutiveSuccesses;
+    private final Deque<Long> baseChanges = new ArrayDeque<>();
+
+    private TargetHealth(long now) {
+      this.stateSince = now;
+    }
+
+    synchronized TargetHealthState getState() {
+      return state;
+    }
+
+    synchronized HealthTransition observe(HealthCheckResult result, BatchProperties.HealthState settings,
+                                          long slowThresholdMs, long now) {
+      if (!result.isSuccess()) {
+        consecutiveFailures++;
+        consecutiveSlow = 0;
+        consecutiveFast = 0;
+        consecutiveSuccesses = 0;
+      } else {
+        consecutiveFailures = 0;
+        consecutiveSuccesses++;
+        if (result.isSlowResponse(slowThresholdMs)) {
+          consecutiveSlow++;
+          consecutiveFast = 0;
+        } else {
+          consecutiveFast++;
+          consecutiveSlow = 0;
+        }
+      }
+
+      TargetHealthState nextBase = nextBaseState(settings);
+      if (nextBase != baseState) {
+        baseState = nextBase;
+        baseChanges.addLast(now);
+      }
+
+      long windowStart = now - settings.getFlapWindowMinutes() * 60_000L;
+      while (!baseChanges.isEmpty() && baseChanges.peekFirst() < windowStart) {
+        baseChanges.removeFirst();
+      }
+
+      TargetHealthState next;
+      if (state == TargetHealthState.FLAPPING) {
+        next = baseChanges.isEmpty() ? baseState : TargetHealthState.FLAPPING;
+      } else {
+        next = baseChanges.size() >= Math.max(2, settings.getFlapThreshold()) ? TargetHealthState.FLAPPING : baseState;
+      }
+
+      if (next == state) {
+        return null;
+      }
+      HealthTransition transition = new HealthTransition(result, state, next, consecutiveFailures, stateSince);
+      state = next;
+      stateSince = now;
+      return transition;
+    }
+
+    private TargetHealthState nextBaseState(BatchProperties.HealthState settings) {
+      switch (baseState) {
+        case UP:
+          if (consecutiveFailures >= settings.getFailureThreshold()) {
+            return TargetHealthState.DOWN;
+          }
+          return consecutiveSlow >= settings.getDegradedThreshold() ? TargetHealthState.DEGRADED : TargetHealthState.UP;
+        case DEGRADED:
+          if (consecutiveFailures >= settings.getFailureThreshold()) {
+            return TargetHealthState.DOWN;
+          }
+          return consecutiveFast >= settings.getRecoveryThreshold() ? TargetHealthState.UP : TargetHealthState.DEGRADED;
+        default:
+          if (consecutiveFast >= settings.getRecoveryThreshold()) {
+            return TargetHealthState.UP;
+          }
+          return consecutiveSuccesses >= settings.getRecoveryThreshold() ? TargetHealthState.DEGRADED : TargetHealthState.DOWN;
+      }
+    }
+  }
+}
\ No newline at end of file
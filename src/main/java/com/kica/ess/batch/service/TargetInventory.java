@@ -0,0 +1,135 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.entity.TargetServer;
+import com.kica.ess.batch.repository.TargetServerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Copy-on-write snapshot of the target servers. Targets only change through
+ * {@link TargetServerService}, which invalidates the snapshot on every mutation; the next read
+ * reloads it with a single query. Reads between mutations are a volatile load and never touch
+ * the database.
+ * <p>
+ * The returned lists are immutable and shared, and the targets in them must be treated as
+ * read-only. Code that modifies a target loads its own copy through the repository.
+ */
+@Service
+public class TargetInventory {
+
+  private static final Logger logger = LoggerFactory.getLogger(TargetInventory.class);
+
+  @Autowired
+  private TargetServerRepository targetServerRepository;
+
+  @Value("${spring.profiles.active:dev}")
+  private String activeProfile;
+
+  private final AtomicLong generation = new AtomicLong();
+  private volatile Snapshot snapshot;
+
+  /**
+   * Enabled targets of the active environment, including targets with no environment set.
+   */
+  public List<TargetServer> getActiveServers() {
+    return getActiveServers(activeProfile);
+  }
+
+  public List<TargetServer> getActiveServers(String environment) {
+    return current().activeServers(environment);
+  }
+
+  public long getActiveServerCount() {
+    return getActiveServers().size();
+  }
+
+  /**
+   * All targets, newest first.
+   */
+  public List<TargetServer> getAllServers() {
+    return current().allServers;
+  }
+
+  public long getTotalServerCount() {
+    return current().allServers.size();
+  }
+
+  /**
+   * Drops the snapshot. Inside a transaction the snapshot is dropped again after commit, so a
+   * read that reloads it before the commit cannot keep the pre-commit state cached.
+   */
+  public void invalidate() {
+    evict();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          evict();
+        }
+      });
+    }
+  }
+
+  private void evict() {
+    generation.incrementAndGet();
+    snapshot = null;
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      current = snapshot;
+      if (current != null) {
+        return current;
+      }
+      long loadedGeneration = generation.get();
+      current = load();
+      // A mutation that raced with the load leaves the snapshot empty for the next reader
+      if (generation.get() == loadedGeneration) {
+        snapshot = current;
+      }
+      return current;
+    }
+  }
+
+  private Snapshot load() {
+    List<TargetServer> servers = new ArrayList<>(targetServerRepository.findAll());
+    servers.sort(Comparator.comparing(TargetServer::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+    logger.debug("Loaded target inventory: {} targets", servers.size());
+    return new Snapshot(Collections.unmodifiableList(servers));
+  }
+
+  private static final class Snapshot {
+    private final List<TargetServer> allServers;
+    private final Map<String, List<TargetServer>> activeByEnvironment = new ConcurrentHashMap<>();
+
+    private Snapshot(List<TargetServer> allServers) {
+      this.allServers = allServers;
+    }
+
+    // Same rule as TargetServerRepository.findActiveServersByEnvironment, derived once per environment
+    List<TargetServer> activeServers(String environment) {
+      return activeByEnvironment.computeIfAbsent(environment, env -> Collections.unmodifiableList(allServers.stream()
+          .filter(server -> Boolean.TRUE.equals(server.getEnabled()))
+          .filter(server -> server.getEnvironment() == null || server.getEnvironment().equals(env))
+          .collect(Collectors.toList())));
+    }
+  }
+}
\ No newline at end of file
@@ -6,7 +6,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +22,21 @@ public class TargetServerService {
   @Autowired
   private TargetServerRepository targetServerRepository;
 
+  @Autowired
+  private RecentResultStore recentResultStore;
+
+  @Autowired
+  private TargetInventory targetInventory;
+
+  @Autowired
+  private TargetHealthTracker targetHealthTracker;
+
+  @Autowired
+  private ProbeMetrics probeMetrics;
+
+  @Autowired
+  private CircuitBreakerRegistry circuitBreakerRegistry;
+
   @Value("${spring.profiles.active:dev}")
   private String activeProfile;
 
@@ -65,16 +79,17 @@ public class TargetServerService {
     server.setEnabled(true);
 
     TargetServer saved = targetServerRepository.save(server);
+    targetInventory.invalidate();
     logger.info("Created target server: {}", saved);
     return saved;
   }
 
   public List<TargetServer> getAllServers() {
-    return targetServerRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
+    return targetInventory.getAllServers();
   }
 
   public List<TargetServer> getActiveServers() {
-    return targetServerRepository.findActiveServersByEnvironment(activeProfile);
+    return targetInventory.getActiveServers();
   }
 
   public List<TargetServer> getServersByEnvironment(String environment) {
@@ -91,6 +106,7 @@ public class TargetServerService {
     }
 
     TargetServer saved = targetServerRepository.save(server);
+    targetInventory.invalidate();
     logger.info("Saved target server: {}", saved);
     return saved;
   }
@@ -107,8 +123,12 @@ public class TargetServerService {
       server.setDescription(serverDetails.getDescription());
       server.setEnvironment(serverDetails.getEnvironment());
       server.setEnabled(serverDetails.getEnabled());
+      server.setCheckIntervalSeconds(serverDetails.getCheckIntervalSeconds());
+      server.setCaptureFullBody(serverDetails.getCaptureFullBody());
+      server.setLatencyMode(serverDetails.getLatencyMode());
 
       TargetServer updated = targetServerRepository.save(server);
+      targetInventory.invalidate();
       logger.info("Updated target server: {}", updated);
       return updated;
     }
@@ -118,6 +138,11 @@ public class TargetServerService {
   public void deleteServer(Long id) {
     if (targetServerRepository.existsById(id)) {
       targetServerRepository.deleteById(id);
+      targetInventory.invalidate();
+      recentResultStore.remove(id);
+      targetHealthTracker.remove(id);
+      probeMetrics.remove(id);
+      circuitBreakerRegistry.remove(id);
       logger.info("Deleted target server with id: {}", id);
     } else {
       throw new RuntimeException("Target server not found with id: " + id);
@@ -130,6 +155,7 @@ public class TargetServerService {
       TargetServer server = optionalServer.get();
       server.setEnabled(!server.getEnabled());
       targetServerRepository.save(server);
+      targetInventory.invalidate();
       logger.info("Toggled server {} status to: {}", server.getName(), server.getEnabled());
     } else {
       throw new RuntimeException("Target server not found with id: " + id);
@@ -154,10 +180,10 @@ public class TargetServerService {
   }
 
   public long getActiveServerCount() {
-    return targetServerRepository.countActiveServersByEnvironment(activeProfile);
+    return targetInventory.getActiveServerCount();
   }
 
   public long getTotalServerCount() {
-    return targetServerRepository.count();
+    return targetInventory.getTotalServerCount();
   }
 }
\ No newline at end of file
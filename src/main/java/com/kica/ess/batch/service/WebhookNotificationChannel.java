@@ -0,0 +1,51 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.Notification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * Posts each notification as a JSON document to a generic HTTP webhook.
+ */
+@Service
+public class WebhookNotificationChannel implements NotificationChannel {
+
+  @Autowired(required = false)
+  private BatchProperties batchProperties;
+
+  @Autowired
+  private WebClient webClient;
+
+  @Override
+  public String getName() { return "webhook"; }
+
+  @Override
+  public boolean isEnabled() {
+    BatchProperties.Webhook webhook = getSettings();
+    return webhook.isEnabled() && webhook.getUrl() != null && !webhook.getUrl().trim().isEmpty();
+  }
+
+  @Override
+  public void send(Notification notification) {
+    BatchProperties.Webhook webhook = getSettings();
+    webClient.post()
+        .uri(webhook.getUrl())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(BodyInserters.fromValue(NotificationService.toPayload(notification)))
+        .retrieve()
+        .toBodilessEntity()
+        .block(Duration.ofMillis(Math.max(1, webhook.getTimeoutMs())));
+  }
+
+  private BatchProperties.Webhook getSettings() {
+    BatchProperties.Notification notification = batchProperties != null ? batchProperties.getNotification() : null;
+    return notification != null && notification.getWebhook() != null ?
+        notification.getWebhook() : new BatchProperties.Webhook();
+  }
+}
\ No newline at end of file
@@ -18,13 +18,13 @@ INSERT INTO target_servers (name, url, method, timeout_ms, request_body, enabled
 
 -- Sample execution logs for demonstration (uncomment if you want sample data for testing)
 /*
-INSERT INTO execution_logs (target_server_id, server_name, url, method, success, status_code, elapsed_time_ms, response_body, execution_time, batch_execution_id, environment) VALUES
-(1, 'JSONPlaceholder Posts', 'https://jsonplaceholder.typicode.com/posts/1', 'GET', true, 200, 234, '{"id": 1, "title": "Sample Post", "body": "Sample body content"}', DATEADD('MINUTE', -5, CURRENT_TIMESTAMP), 'sample-batch-001', 'dev'),
-(2, 'HTTPBin Status', 'https://httpbin.org/status/200', 'GET', true, 200, 156, '{"status": "ok", "timestamp": "2024-01-01T10:00:00Z"}', DATEADD('MINUTE', -5, CURRENT_TIMESTAMP), 'sample-batch-001', 'dev'),
-(3, 'HTTPBin POST Test', 'https://httpbin.org/post', 'POST', true, 200, 445, '{"args": {}, "data": "{\"test\": \"data\"}", "json": {"test": "data"}}', DATEADD('MINUTE', -5, CURRENT_TIMESTAMP), 'sample-batch-001', 'dev'),
-(1, 'JSONPlaceholder Posts', 'https://jsonplaceholder.typicode.com/posts/1', 'GET', true, 200, 298, '{"id": 1, "title": "Sample Post", "body": "Sample body content"}', DATEADD('MINUTE', -10, CURRENT_TIMESTAMP), 'sample-batch-002', 'dev'),
-(2, 'HTTPBin Status', 'https://httpbin.org/status/200', 'GET', false, 0, 5000, NULL, DATEADD('MINUTE', -10, CURRENT_TIMESTAMP), 'sample-batch-002', 'dev'),
-(3, 'HTTPBin POST Test', 'https://httpbin.org/post', 'POST', true, 200, 612, '{"args": {}, "data": "{\"test\": \"data\"}", "json": {"test": "data"}}', DATEADD('MINUTE', -10, CURRENT_TIMESTAMP), 'sample-batch-002', 'dev');
+INSERT INTO execution_logs (target_server_id, server_name, url, method, success, status_code, elapsed_time_ms, execution_time, batch_execution_id, environment) VALUES
+(1, 'JSONPlaceholder Posts', 'https://jsonplaceholder.typicode.com/posts/1', 'GET', true, 200, 234, DATEADD('MINUTE', -5, CURRENT_TIMESTAMP), 'sample-batch-001', 'dev'),
+(2, 'HTTPBin Status', 'https://httpbin.org/status/200', 'GET', true, 200, 156, DATEADD('MINUTE', -5, CURRENT_TIMESTAMP), 'sample-batch-001', 'dev'),
+(3, 'HTTPBin POST Test', 'https://httpbin.org/post', 'POST', true, 200, 445, DATEADD('MINUTE', -5, CURRENT_TIMESTAMP), 'sample-batch-001', 'dev'),
+(1, 'JSONPlaceholder Posts', 'https://jsonplaceholder.typicode.com/posts/1', 'GET', true, 200, 298, DATEADD('MINUTE', -10, CURRENT_TIMESTAMP), 'sample-batch-002', 'dev'),
+(2, 'HTTPBin Status', 'https://httpbin.org/status/200', 'GET', false, 0, 5000, DATEADD('MINUTE', -10, CURRENT_TIMESTAMP), 'sample-batch-002', 'dev'),
+(3, 'HTTPBin POST Test', 'https://httpbin.org/post', 'POST', true, 200, 612, DATEADD('MINUTE', -10, CURRENT_TIMESTAMP), 'sample-batch-002', 'dev');
 
 -- Add error message for failed log
 UPDATE execution_logs SET error_message = 'Connection timeout after 5000ms' WHERE success = false;
@@ -2,7 +2,12 @@
 -- Place this file in src/main/resources/
 
 -- Drop tables if they exist (for clean recreation)
+DROP TABLE IF EXISTS batch_runs;
+DROP TABLE IF EXISTS rollup_backfill;
+DROP TABLE IF EXISTS probe_rollup_hour;
+DROP TABLE IF EXISTS probe_rollup_minute;
 DROP TABLE IF EXISTS execution_logs;
+DROP TABLE IF EXISTS response_bodies;
 DROP TABLE IF EXISTS target_servers;
 
 -- Create target_servers table
@@ -16,6 +21,9 @@ CREATE TABLE target_servers (
                               enabled BOOLEAN DEFAULT TRUE,
                               description VARCHAR(500),
                               environment VARCHAR(20),
+                              check_interval_seconds INTEGER,
+                              capture_full_body BOOLEAN DEFAULT FALSE,
+                              latency_mode VARCHAR(10) DEFAULT 'WARM',
                               created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                               updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -31,21 +39,141 @@ CREATE TABLE execution_logs (
                               status_code INTEGER,
                               elapsed_time_ms BIGINT,
                               error_message TEXT,
-                              response_body TEXT,
+                              skipped BOOLEAN DEFAULT FALSE,
+                              circuit_open BOOLEAN DEFAULT FALSE,
+                              response_bytes BIGINT,
+                              response_hash VARCHAR(64),
+                              dns_time_ms BIGINT,
+                              connect_time_ms BIGINT,
+                              tls_time_ms BIGINT,
+                              ttfb_ms BIGINT,
+                              body_time_ms BIGINT,
                               execution_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                               batch_execution_id VARCHAR(255),
                               environment VARCHAR(20),
                               FOREIGN KEY (target_server_id) REFERENCES target_servers(id)
 );
 
+-- Captured response bodies, stored once per distinct content and referenced by execution_logs.response_hash
+CREATE TABLE response_bodies (
+                              body_hash VARCHAR(64) PRIMARY KEY,
+                              compression VARCHAR(10) NOT NULL,
+                              original_bytes INTEGER NOT NULL,
+                              stored_bytes INTEGER NOT NULL,
+                              content VARBINARY NOT NULL,
+                              created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                              last_seen_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Per-target 1-minute rollups of execution_logs, maintained by the log writer
+-- le_N columns count successful probes with latency in (previous bound, N] ms; le_inf is everything above 30s
+-- latency_sketch is a serialized LatencyHistogram of the same probes, used for percentiles
+CREATE TABLE probe_rollup_minute (
+                              id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                              target_server_id BIGINT NOT NULL,
+                              server_name VARCHAR(100),
+                              bucket_start TIMESTAMP NOT NULL,
+                              total_count BIGINT NOT NULL DEFAULT 0,
+                              success_count BIGINT NOT NULL DEFAULT 0,
+                              latency_sum_ms BIGINT NOT NULL DEFAULT 0,
+                              latency_min_ms BIGINT,
+                              latency_max_ms BIGINT,
+                              le_100 BIGINT NOT NULL DEFAULT 0,
+                              le_250 BIGINT NOT NULL DEFAULT 0,
+                              le_500 BIGINT NOT NULL DEFAULT 0,
+                              le_1000 BIGINT NOT NULL DEFAULT 0,
+                              le_2500 BIGINT NOT NULL DEFAULT 0,
+                              le_5000 BIGINT NOT NULL DEFAULT 0,
+                              le_10000 BIGINT NOT NULL DEFAULT 0,
+                              le_30000 BIGINT NOT NULL DEFAULT 0,
+                              le_inf BIGINT NOT NULL DEFAULT 0,
+                              latency_sketch VARBINARY(4096),
+                              CONSTRAINT uk_probe_rollup_minute UNIQUE (target_server_id, bucket_start)
+);
+
+-- Per-target 1-hour rollups of execution_logs
+-- le_N columns count successful probes with latency in (previous bound, N] ms; le_inf is everything above 30s
+CREATE TABLE probe_rollup_hour (
+                              id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                              target_server_id BIGINT NOT NULL,
+                              server_name VARCHAR(100),
+                              bucket_start TIMESTAMP NOT NULL,
+                              total_count BIGINT NOT NULL DEFAULT 0,
+                              success_count BIGINT NOT NULL DEFAULT 0,
+                              latency_sum_ms BIGINT NOT NULL DEFAULT 0,
+                              latency_min_ms BIGINT,
+                              latency_max_ms BIGINT,
+                              le_100 BIGINT NOT NULL DEFAULT 0,
+                              le_250 BIGINT NOT NULL DEFAULT 0,
+                              le_500 BIGINT NOT NULL DEFAULT 0,
+                              le_1000 BIGINT NOT NULL DEFAULT 0,
+                              le_2500 BIGINT NOT NULL DEFAULT 0,
+                              le_5000 BIGINT NOT NULL DEFAULT 0,
+                              le_10000 BIGINT NOT NULL DEFAULT 0,
+                              le_30000 BIGINT NOT NULL DEFAULT 0,
+                              le_inf BIGINT NOT NULL DEFAULT 0,
+                              latency_sketch VARBINARY(4096),
+                              CONSTRAINT uk_probe_rollup_hour UNIQUE (target_server_id, bucket_start)
+);
+
+-- Progress of rebuilding the rollups from execution_logs after an upgrade; logs up to cutoff_id are
+-- folded in by the log writer in chunks, last_id committed together with each chunk
+CREATE TABLE rollup_backfill (
+                              id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                              last_id BIGINT NOT NULL,
+                              cutoff_id BIGINT NOT NULL,
+                              started_at TIMESTAMP NOT NULL,
+                              completed_at TIMESTAMP
+);
+
+-- One row per health check cycle: written when the cycle starts, completed when it finishes.
+-- prewarm_ms is connection pre-warming before the first probe; probe_ms includes any deliberate probe spreading;
+-- persist_ms is the hand-off to the write-behind writer.
+CREATE TABLE batch_runs (
+                              id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                              cycle_id VARCHAR(36) NOT NULL,
+                              environment VARCHAR(20),
+                              trigger_type VARCHAR(20),
+                              status VARCHAR(20) NOT NULL,
+                              started_at TIMESTAMP NOT NULL,
+                              finished_at TIMESTAMP,
+                              duration_ms BIGINT,
+                              budget_ms BIGINT,
+                              load_targets_ms BIGINT,
+                              prewarm_ms BIGINT,
+                              probe_ms BIGINT,
+                              persist_ms BIGINT,
+                              alert_ms BIGINT,
+                              target_count INTEGER,
+                              success_count INTEGER,
+                              failure_count INTEGER,
+                              skipped_count INTEGER,
+                              circuit_open_count INTEGER,
+                              transition_count INTEGER,
+                              overran BOOLEAN NOT NULL DEFAULT FALSE,
+                              error_message VARCHAR(1000),
+                              CONSTRAINT uk_batch_runs_cycle UNIQUE (cycle_id)
+);
+
 -- Create indexes for better performance
 CREATE INDEX idx_target_servers_enabled ON target_servers(enabled);
 CREATE INDEX idx_target_servers_environment ON target_servers(environment);
 CREATE INDEX idx_target_servers_enabled_env ON target_servers(enabled, environment);
 
-CREATE INDEX idx_execution_logs_execution_time ON execution_logs(execution_time);
-CREATE INDEX idx_execution_logs_target_server_id ON execution_logs(target_server_id);
+-- Newest-first log pages walk the descending indexes; the ascending ones serve the older-to-newer (After) pages
+CREATE INDEX idx_execution_logs_time_desc ON execution_logs(execution_time DESC, id DESC);
+CREATE INDEX idx_execution_logs_target_time_desc ON execution_logs(target_server_id, execution_time DESC, id DESC);
+CREATE INDEX idx_execution_logs_execution_time ON execution_logs(execution_time, id);
+CREATE INDEX idx_execution_logs_target_server_id ON execution_logs(target_server_id, execution_time, id);
 CREATE INDEX idx_execution_logs_success ON execution_logs(success);
 CREATE INDEX idx_execution_logs_batch_id ON execution_logs(batch_execution_id);
 CREATE INDEX idx_execution_logs_server_name ON execution_logs(server_name);
-CREATE INDEX idx_execution_logs_environment ON execution_logs(environment);
\ No newline at end of file
+CREATE INDEX idx_execution_logs_environment ON execution_logs(environment);
+CREATE INDEX idx_execution_logs_response_hash ON execution_logs(response_hash);
+
+CREATE INDEX idx_response_bodies_last_seen ON response_bodies(last_seen_at);
+
+CREATE INDEX idx_probe_rollup_minute_bucket ON probe_rollup_minute(bucket_start);
+CREATE INDEX idx_probe_rollup_hour_bucket ON probe_rollup_hour(bucket_start);
+
+CREATE INDEX idx_batch_runs_started_at ON batch_runs(started_at, id);
\ No newline at end of file
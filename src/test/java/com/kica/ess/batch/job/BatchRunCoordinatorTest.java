@@ -0,0 +1,60 @@
+package com.kica.ess.batch.job;
+
+import com.kica.ess.batch.dto.CycleContext;
+import com.kica.ess.batch.dto.HealthCheckResult;
+import com.kica.ess.batch.service.BatchRunService;
+import com.kica.ess.batch.service.ProbeMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class BatchRunCoordinatorTest {
+
+  private BatchRunCoordinator coordinator;
+
+  @BeforeEach
+  void setUp() {
+    coordinator = new BatchRunCoordinator();
+    ReflectionTestUtils.setField(coordinator, "activeProfile", "test");
+    ReflectionTestUtils.setField(coordinator, "probeMetrics", new ProbeMetrics());
+    ReflectionTestUtils.setField(coordinator, "batchRunService", mock(BatchRunService.class));
+  }
+
+  @Test
+  void testOnlyOneCycleRunsAtATime() {
+    CycleContext first = coordinator.tryStart("cron");
+    assertNotNull(first);
+    assertNull(coordinator.tryStart("manual"));
+
+    coordinator.finish(first, Collections.emptyList());
+    assertNotNull(coordinator.tryStart("check-now"));
+    assertEquals(1L, coordinator.getStats().get("rejected"));
+  }
+
+  @Test
+  void testDeadlineFollowsCronPeriod() {
+    // Default schedule fires every 5 minutes; the cycle gets 90% of that
+    CycleContext cycle = coordinator.tryStart("cron");
+    assertEquals(270000, cycle.getDeadlineAt() - cycle.getStartedAt());
+  }
+
+  @Test
+  void testCycleWithDeadlineSkipsCountsAsOverrun() {
+    CycleContext cycle = coordinator.tryStart("cron");
+    HealthCheckResult skipped = new HealthCheckResult("Slow", "http://slow.example.com");
+    skipped.setSkipped(true);
+
+    coordinator.finish(cycle, Collections.singletonList(skipped));
+
+    Map<String, Object> stats = coordinator.getStats();
+    assertEquals(1L, stats.get("overruns"));
+    assertEquals(1L, stats.get("deadlineSkippedProbes"));
+    assertEquals(false, stats.get("running"));
+  }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.kica.ess.batch.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+  private static List<String> advance(HashedTimingWheel<String> wheel, int ticks) {
+    List<String> fired = new ArrayList<>();
+    for (int i = 0; i < ticks; i++) {
+      fired.addAll(wheel.advance());
+    }
+    return fired;
+  }
+
+  @Test
+  void testItemFiresOnItsDeadlineTick() {
+    HashedTimingWheel<String> wheel = new HashedTimingWheel<>(8);
+    wheel.schedule("a", 3);
+
+    assertTrue(advance(wheel, 2).isEmpty());
+    assertEquals(1, wheel.size());
+
+    List<String> fired = wheel.advance();
+    assertEquals(1, fired.size());
+    assertEquals("a", fired.get(0));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void testDelaysLongerThanWheelWaitForFullRounds() {
+    HashedTimingWheel<String> wheel = new HashedTimingWheel<>(8);
+    wheel.schedule("exact", 8);
+    wheel.schedule("wrap", 9);
+    wheel.schedule("twice", 16);
+
+    assertTrue(advance(wheel, 7).isEmpty());
+    assertEquals(1, wheel.advance().size()); // tick 8
+    assertEquals(1, wheel.advance().size()); // tick 9
+    assertTrue(advance(wheel, 6).isEmpty());
+    List<String> fired = wheel.advance(); // tick 16
+    assertEquals(1, fired.size());
+    assertEquals("twice", fired.get(0));
+  }
+
+  @Test
+  void testWheelSizeRoundsUpToPowerOfTwo() {
+    HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100);
+    assertEquals(128, wheel.getWheelSize());
+  }
+
+  @Test
+  void testRescheduledItemsFireAtFixedInterval() {
+    HashedTimingWheel<String> wheel = new HashedTimingWheel<>(4);
+    wheel.schedule("target", 5);
+
+    List<Long> fireTicks = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      for (String item : wheel.advance()) {
+        fireTicks.add(wheel.getTick());
+        wheel.schedule(item, 5);
+      }
+    }
+
+    assertEquals(4, fireTicks.size());
+    assertEquals(Long.valueOf(5), fireTicks.get(0));
+    assertEquals(Long.valueOf(10), fireTicks.get(1));
+    assertEquals(Long.valueOf(15), fireTicks.get(2));
+    assertEquals(Long.valueOf(20), fireTicks.get(3));
+  }
+}
\ No newline at end of file
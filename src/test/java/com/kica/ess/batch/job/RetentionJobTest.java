@@ -0,0 +1,99 @@
+package com.kica.ess.batch.job;
+
+import com.kica.ess.batch.config.BatchProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetentionJobTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private RetentionJob retentionJob;
+  private BatchProperties.Retention retention;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+        "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.update("INSERT INTO target_servers (id, name, url, method) VALUES (1, 'api', 'http://api', 'GET')");
+
+    retention = new BatchProperties.Retention();
+    retention.setExecutionLogDays(7);
+    retention.setChunkSize(3);
+    retention.setThrottleMs(0);
+    BatchProperties batchProperties = new BatchProperties();
+    batchProperties.setRetention(retention);
+
+    retentionJob = new RetentionJob();
+    ReflectionTestUtils.setField(retentionJob, "jdbcTemplate", jdbcTemplate);
+    ReflectionTestUtils.setField(retentionJob, "batchProperties", batchProperties);
+    ReflectionTestUtils.setField(retentionJob, "activeProfile", "prod");
+  }
+
+  private void insertLog(LocalDateTime time, String environment) {
+    jdbcTemplate.update("INSERT INTO execution_logs (target_server_id, server_name, success, elapsed_time_ms, " +
+        "execution_time, environment) VALUES (1, 'api', TRUE, 100, ?, ?)", Timestamp.valueOf(time), environment);
+  }
+
+  private long count(String table) {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testPurgesExpiredLogsAcrossChunks() {
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < 10; i++) {
+      insertLog(now.minusDays(10), "prod");
+      insertLog(now.minusDays(1), "prod");
+    }
+
+    Map<String, Object> report = retentionJob.purge();
+
+    Map<String, Object> purged = (Map<String, Object>) report.get("purged");
+    assertEquals(10L, purged.get("execution_logs"));
+    assertEquals(10, count("execution_logs"));
+    assertEquals(0L, (long) jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM execution_logs WHERE execution_time < ?", Long.class, Timestamp.valueOf(now.minusDays(7))));
+    assertSame(report, retentionJob.getStats().get("lastRun"));
+  }
+
+  @Test
+  void testLeavesOtherEnvironmentsAlone() {
+    LocalDateTime old = LocalDateTime.now().minusDays(30);
+    insertLog(old, "prod");
+    insertLog(old, "dev");
+    insertLog(old, null);
+
+    retentionJob.purge();
+
+    assertEquals(1, count("execution_logs"));
+    assertEquals("dev", jdbcTemplate.queryForObject("SELECT environment FROM execution_logs", String.class));
+  }
+
+  @Test
+  void testMinuteRollupsKeepAtLeastTheSummaryWindow() {
+    retention.setMinuteRollupHours(1);
+    LocalDateTime now = LocalDateTime.now();
+    jdbcTemplate.update("INSERT INTO probe_rollup_minute (target_server_id, server_name, bucket_start, total_count, " +
+        "success_count, latency_sum_ms) VALUES (1, 'api', ?, 1, 1, 100), (1, 'api', ?, 1, 1, 100)",
+        Timestamp.valueOf(now.minusHours(25)), Timestamp.valueOf(now.minusHours(30)));
+
+    retentionJob.purge();
+
+    assertEquals(1, count("probe_rollup_minute"));
+  }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.kica.ess.batch.repository;
+
+import com.kica.ess.batch.dto.ExecutionLogSummary;
+import com.kica.ess.batch.entity.ExecutionLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ExecutionLogRepositoryTest {
+
+  @Autowired
+  private ExecutionLogRepository executionLogRepository;
+
+  private final List<ExecutionLog> newestFirst = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    // Pairs of rows share an execution time, so the id tie-breaker decides their order
+    LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+    for (int i = 0; i < 10; i++) {
+      ExecutionLog log = new ExecutionLog();
+      log.setServerName(i % 2 == 0 ? "Payment API" : "User API");
+      log.setSuccess(i % 3 != 0);
+      log.setElapsedTimeMs(100L);
+      log.setExecutionTime(base.plusMinutes(i / 2));
+      newestFirst.add(0, executionLogRepository.save(log));
+    }
+  }
+
+  private static List<Long> ids(List<ExecutionLog> logs) {
+    return logs.stream().map(ExecutionLog::getId).collect(Collectors.toList());
+  }
+
+  private static List<Long> summaryIds(List<ExecutionLogSummary> logs) {
+    return logs.stream().map(ExecutionLogSummary::getId).collect(Collectors.toList());
+  }
+
+  @Test
+  void testSlicesWalkAllRowsNewestFirst() {
+    List<ExecutionLogSummary> walked = new ArrayList<>();
+    Slice<ExecutionLogSummary> slice = executionLogRepository.findLogSlice(null, null, PageRequest.of(0, 3));
+    walked.addAll(slice.getContent());
+
+    while (slice.hasNext()) {
+      ExecutionLogSummary last = walked.get(walked.size() - 1);
+      slice = executionLogRepository.findLogSliceBefore(null, null, last.getExecutionTime(), last.getId(),
+          PageRequest.of(0, 3));
+      walked.addAll(slice.getContent());
+    }
+
+    assertEquals(ids(newestFirst), summaryIds(walked));
+  }
+
+  @Test
+  void testSliceAfterReturnsNearestNewerRows() {
+    ExecutionLog cursor = newestFirst.get(6);
+
+    Slice<ExecutionLogSummary> slice = executionLogRepository.findLogSliceAfter(null, null, cursor.getExecutionTime(),
+        cursor.getId(), PageRequest.of(0, 3));
+
+    // Ascending from the cursor: the three rows just newer than it, nearest first
+    assertTrue(slice.hasNext());
+    List<Long> expected = new ArrayList<>(ids(newestFirst.subList(3, 6)));
+    Collections.reverse(expected);
+    assertEquals(expected, summaryIds(slice.getContent()));
+  }
+
+  @Test
+  void testFiltersApplyToSlices() {
+    Slice<ExecutionLogSummary> failures = executionLogRepository.findLogSlice(false, null, PageRequest.of(0, 20));
+    assertEquals(4, failures.getNumberOfElements());
+    assertFalse(failures.hasNext());
+
+    Slice<ExecutionLogSummary> payment = executionLogRepository.findLogSlice(null, "payment", PageRequest.of(0, 20));
+    assertEquals(5, payment.getNumberOfElements());
+    assertTrue(payment.getContent().stream().allMatch(log -> log.getServerName().equals("Payment API")));
+  }
+
+  @Test
+  void testSummariesTruncateErrorMessages() {
+    ExecutionLog failed = new ExecutionLog();
+    failed.setServerName("Payment API");
+    failed.setSuccess(false);
+    failed.setErrorMessage(String.join("", Collections.nCopies(500, "x")));
+    failed.setExecutionTime(LocalDateTime.of(2024, 1, 2, 0, 0));
+    executionLogRepository.save(failed);
+
+    ExecutionLogSummary summary = executionLogRepository.findLogSlice(false, null, PageRequest.of(0, 1)).getContent().get(0);
+    assertEquals(failed.getId(), summary.getId());
+    assertEquals(ExecutionLogSummary.ERROR_PREVIEW_LENGTH, summary.getErrorMessage().length());
+  }
+}
\ No newline at end of file
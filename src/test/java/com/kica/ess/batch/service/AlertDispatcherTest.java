@@ -0,0 +1,162 @@
+package com.kica.ess.batch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kica.ess.batch.config.BatchProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertDispatcherTest {
+
+  private AlertDispatcher dispatcher;
+  private BatchProperties.Alert alert;
+  private final List<Long> requestTimes = Collections.synchronizedList(new ArrayList<>());
+  private final AtomicInteger rateLimitedResponses = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    BatchProperties.Telegram telegram = new BatchProperties.Telegram();
+    telegram.setEnabled(true);
+    telegram.setBotToken("token");
+    telegram.setChatId("chat");
+    alert = new BatchProperties.Alert();
+    alert.setCoalesceWindowMs(200);
+    alert.setMinIntervalMs(100);
+    alert.setInitialBackoffMs(50);
+    BatchProperties batchProperties = new BatchProperties();
+    batchProperties.setTelegram(telegram);
+    batchProperties.setAlert(alert);
+
+    // Answers 429 with retry_after while rateLimitedResponses is positive, 200 afterwards
+    WebClient webClient = WebClient.builder().exchangeFunction(request -> {
+      requestTimes.add(System.currentTimeMillis());
+      if (rateLimitedResponses.getAndDecrement() > 0) {
+        return Mono.just(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .body("{\"ok\":false,\"error_code\":429,\"parameters\":{\"retry_after\":1}}")
+            .build());
+      }
+      return Mono.just(ClientResponse.create(HttpStatus.OK)
+          .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+          .body("{\"ok\":true}")
+          .build());
+    }).build();
+
+    dispatcher = new AlertDispatcher();
+    ReflectionTestUtils.setField(dispatcher, "batchProperties", batchProperties);
+    ReflectionTestUtils.setField(dispatcher, "webClient", webClient);
+    ReflectionTestUtils.setField(dispatcher, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(dispatcher, "probeMetrics", new ProbeMetrics());
+  }
+
+  @AfterEach
+  void tearDown() {
+    dispatcher.stop();
+  }
+
+  private void awaitStat(String name, long expected) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (System.currentTimeMillis() < deadline && !Long.valueOf(expected).equals(dispatcher.getStats().get(name))) {
+      Thread.sleep(20);
+    }
+    assertEquals(expected, dispatcher.getStats().get(name));
+  }
+
+  @Test
+  void testBurstIsCoalescedIntoOneMessage() throws InterruptedException {
+    dispatcher.start();
+    long start = System.currentTimeMillis();
+    assertTrue(dispatcher.dispatch("first"));
+    assertTrue(dispatcher.dispatch("second"));
+    assertTrue(dispatcher.dispatch("third"));
+    assertTrue(System.currentTimeMillis() - start < 50, "dispatch must not block");
+
+    awaitStat("sent", 1L);
+    assertEquals(1, requestTimes.size());
+    assertEquals(2L, dispatcher.getStats().get("coalesced"));
+  }
+
+  @Test
+  void testRetryAfterIsHonored() throws InterruptedException {
+    rateLimitedResponses.set(1);
+    dispatcher.start();
+    dispatcher.dispatch("alert");
+
+    awaitStat("sent", 1L);
+    assertEquals(2, requestTimes.size());
+    assertTrue(requestTimes.get(1) - requestTimes.get(0) >= 1000, "second attempt must wait out retry_after");
+    assertEquals(1L, dispatcher.getStats().get("retried"));
+  }
+
+  @Test
+  void testCoalescingRespectsLengthLimitAndFullQueueDrops() {
+    alert.setMaxMessageLength(12);
+    alert.setQueueCapacity(1);
+    ReflectionTestUtils.setField(dispatcher, "settings", alert);
+
+    assertEquals(Arrays.asList("aaaa\n\nbbbb", "cccc"), dispatcher.coalesce(Arrays.asList("aaaa", "bbbb", "cccc")));
+
+    // Not started, so nothing drains the single-slot queue
+    ReflectionTestUtils.setField(dispatcher, "queue", new ArrayBlockingQueue<String>(1));
+    assertTrue(dispatcher.dispatch("one"));
+    assertFalse(dispatcher.dispatch("two"));
+    assertEquals(1L, dispatcher.getStats().get("dropped"));
+  }
+
+  @Test
+  void testOversizedMessageIsSplitIntoOrderedChunksWithinLimit() {
+    ReflectionTestUtils.setField(dispatcher, "settings", alert);
+    ReflectionTestUtils.setField(dispatcher, "queue", new ArrayBlockingQueue<String>(1));
+
+    StringBuilder message = new StringBuilder("🔔 *Health State Change*\n\n");
+    for (int i = 0; i < 300; i++) {
+      message.append("🚨 *server-").append(i).append("*: UP → DOWN\n   URL: http://10.0.0.").append(i % 250)
+          .append("/health\n   Consecutive failures: 3\n\n");
+    }
+    assertTrue(message.length() > 3 * AlertDispatcher.TELEGRAM_MAX_MESSAGE_LENGTH);
+
+    List<String> chunks = dispatcher.coalesce(Arrays.asList(message.toString(), "next alert"));
+    assertTrue(chunks.size() > 3);
+    int expectedServer = 0;
+    for (int i = 0; i < chunks.size(); i++) {
+      String chunk = chunks.get(i);
+      assertTrue(chunk.length() <= alert.getMaxMessageLength(), "chunk " + i + " is " + chunk.length() + " chars");
+      assertTrue(chunk.startsWith("(" + (i + 1) + "/" + chunks.size() + ")\n"));
+      // Every target block stays whole and in order
+      int at;
+      while ((at = chunk.indexOf("*server-" + expectedServer + "*")) >= 0) {
+        assertTrue(chunk.indexOf("Consecutive failures", at) > at);
+        expectedServer++;
+      }
+    }
+    assertEquals(300, expectedServer);
+    assertTrue(chunks.get(chunks.size() - 1).endsWith("next alert"));
+    assertEquals(1L, dispatcher.getStats().get("split"));
+
+    // A single line longer than a chunk is cut without splitting a surrogate pair
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < 3000; i++) {
+      line.append("😀");
+    }
+    for (String chunk : dispatcher.split(line.toString(), 4000)) {
+      assertFalse(Character.isHighSurrogate(chunk.charAt(chunk.length() - 1)));
+      assertTrue(chunk.length() <= 4000);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.kica.ess.batch.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertTemplateTest {
+
+  @Test
+  void testRendersPlaceholdersIntoReusedBuffer() {
+    AlertTemplate template = AlertTemplate.compile("{name} is {state} ({name}, {ms}ms)", "state", "name", "ms");
+    StringBuilder out = new StringBuilder("> ");
+
+    template.render(out, "DOWN", "api", 1500L);
+    assertEquals("> api is DOWN (api, 1500ms)", out.toString());
+
+    out.setLength(0);
+    assertEquals("no placeholders", AlertTemplate.compile("no placeholders").render(out).toString());
+  }
+
+  @Test
+  void testRejectsUnknownOrUnclosedPlaceholders() {
+    assertThrows(IllegalArgumentException.class, () -> AlertTemplate.compile("{missing}", "name"));
+    assertThrows(IllegalArgumentException.class, () -> AlertTemplate.compile("{name", "name"));
+  }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.dto.BatchRun;
+import com.kica.ess.batch.dto.CycleContext;
+import com.kica.ess.batch.dto.HealthCheckResult;
+import com.kica.ess.batch.exception.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunServiceTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private BatchRunService batchRunService;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+        "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+
+    batchRunService = new BatchRunService();
+    ReflectionTestUtils.setField(batchRunService, "jdbcTemplate", jdbcTemplate);
+    ReflectionTestUtils.setField(batchRunService, "activeProfile", "prod");
+  }
+
+  private CycleContext newCycle() {
+    long now = System.currentTimeMillis();
+    return new CycleContext(UUID.randomUUID().toString(), "prod", "cron", now, now + 270000);
+  }
+
+  private HealthCheckResult result(boolean success, boolean skipped, boolean circuitOpen) {
+    HealthCheckResult result = new HealthCheckResult("api", "http://api");
+    result.setSuccess(success);
+    result.setSkipped(skipped);
+    result.setCircuitOpen(circuitOpen);
+    return result;
+  }
+
+  @Test
+  void testRecordsPhaseTimingsAndCounts() {
+    CycleContext cycle = newCycle();
+    batchRunService.recordStart(cycle);
+    assertEquals(BatchRun.STATUS_RUNNING, batchRunService.getRun(cycle.getCycleId()).getStatus());
+
+    cycle.setLoadTargetsMs(5);
+    cycle.setPrewarmMs(40);
+    cycle.setProbeMs(1200);
+    cycle.setPersistMs(30);
+    cycle.setAlertMs(8);
+    cycle.setTargetCount(5);
+    cycle.setTransitionCount(1);
+    // Circuit-open probes are reported as skipped too but are counted separately
+    List<HealthCheckResult> results = Arrays.asList(result(true, false, false), result(true, false, false),
+        result(false, false, false), result(false, true, false), result(false, true, true));
+    batchRunService.recordFinish(cycle, results, 1300, true);
+
+    BatchRun run = batchRunService.getRun(cycle.getCycleId());
+    assertEquals(BatchRun.STATUS_COMPLETED, run.getStatus());
+    assertEquals(Long.valueOf(1300), run.getDurationMs());
+    assertEquals(Long.valueOf(270000), run.getBudgetMs());
+    assertEquals(Long.valueOf(40), run.getPrewarmMs());
+    assertEquals(Long.valueOf(1200), run.getProbeMs());
+    assertEquals(Long.valueOf(30), run.getPersistMs());
+    assertEquals(Integer.valueOf(2), run.getSuccessCount());
+    assertEquals(Integer.valueOf(1), run.getFailureCount());
+    assertEquals(Integer.valueOf(1), run.getSkippedCount());
+    assertEquals(Integer.valueOf(1), run.getCircuitOpenCount());
+    assertEquals(Integer.valueOf(1), run.getTransitionCount());
+    assertTrue(run.isOverran());
+    assertNotNull(run.getFinishedAt());
+  }
+
+  @Test
+  void testFailedCycleKeepsErrorMessage() {
+    CycleContext cycle = newCycle();
+    batchRunService.recordStart(cycle);
+    cycle.setErrorMessage("Connection refused");
+    batchRunService.recordFinish(cycle, null, 40, false);
+
+    BatchRun run = batchRunService.getRun(cycle.getCycleId());
+    assertEquals(BatchRun.STATUS_FAILED, run.getStatus());
+    assertEquals("Connection refused", run.getErrorMessage());
+    assertEquals(Integer.valueOf(0), run.getSuccessCount());
+  }
+
+  @Test
+  void testInterruptedRunsAreAbortedOnStartup() {
+    CycleContext interrupted = newCycle();
+    batchRunService.recordStart(interrupted);
+    CycleContext finished = newCycle();
+    batchRunService.recordStart(finished);
+    batchRunService.recordFinish(finished, null, 10, false);
+
+    batchRunService.init();
+
+    assertEquals(BatchRun.STATUS_ABORTED, batchRunService.getRun(interrupted.getCycleId()).getStatus());
+    assertEquals(BatchRun.STATUS_COMPLETED, batchRunService.getRun(finished.getCycleId()).getStatus());
+    assertEquals(2, batchRunService.getRecentRuns(10).size());
+    assertThrows(NotFoundException.class, () -> batchRunService.getRun("missing"));
+  }
+}
\ No newline at end of file
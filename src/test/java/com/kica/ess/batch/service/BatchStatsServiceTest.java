@@ -0,0 +1,83 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.dto.RollupSummary;
+import com.kica.ess.batch.dto.StatsSnapshot;
+import com.kica.ess.batch.entity.TargetServer;
+import com.kica.ess.batch.job.BatchRunCoordinator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BatchStatsServiceTest {
+
+  private ProbeRollupService probeRollupService;
+  private BatchRunCoordinator batchRunCoordinator;
+  private BatchStatsService statsService;
+
+  @BeforeEach
+  void setUp() {
+    RollupSummary api = new RollupSummary();
+    api.add(true, 100L);
+    api.add(false, null);
+    RollupSummary web = new RollupSummary();
+    web.add(true, 20000L);
+    Map<Long, RollupSummary> targets = new HashMap<>();
+    targets.put(1L, api);
+    targets.put(2L, web);
+
+    probeRollupService = mock(ProbeRollupService.class);
+    when(probeRollupService.getTargetSummaries(any())).thenReturn(targets);
+    batchRunCoordinator = mock(BatchRunCoordinator.class);
+    when(batchRunCoordinator.getCompletedCycles()).thenReturn(1L);
+    TargetInventory targetInventory = mock(TargetInventory.class);
+    when(targetInventory.getActiveServerCount()).thenReturn(2L);
+    when(targetInventory.getTotalServerCount()).thenReturn(3L);
+    TargetServer apiServer = new TargetServer("api", "http://api", "GET");
+    apiServer.setId(1L);
+    when(targetInventory.getAllServers()).thenReturn(Collections.singletonList(apiServer));
+
+    statsService = new BatchStatsService();
+    ReflectionTestUtils.setField(statsService, "probeRollupService", probeRollupService);
+    ReflectionTestUtils.setField(statsService, "targetInventory", targetInventory);
+    ReflectionTestUtils.setField(statsService, "batchRunCoordinator", batchRunCoordinator);
+  }
+
+  @Test
+  void testSnapshotAggregatesTargets() {
+    StatsSnapshot snapshot = statsService.getSnapshot();
+
+    assertEquals(3, snapshot.getLast24h().getTotalCount());
+    assertEquals(1, snapshot.getLast24h().getFailureCount());
+    assertEquals(1, snapshot.getSlowResponses24h());
+    assertEquals(2, snapshot.getActiveServers());
+    assertEquals(3, snapshot.getTotalServers());
+    assertEquals(2, snapshot.getTargets24h().size());
+
+    // The stats response's latency blocks are prebuilt with the snapshot
+    assertEquals(2L, snapshot.getLatencyStats24h().get("count"));
+    Map<String, Object> api = snapshot.getTargetLatencyStats24h().stream()
+        .filter(target -> Long.valueOf(1L).equals(target.get("targetServerId")))
+        .findFirst().orElseThrow(AssertionError::new);
+    assertEquals("api", api.get("serverName"));
+    assertEquals(1L, api.get("count"));
+  }
+
+  @Test
+  void testSnapshotIsReusedUntilNextCycle() {
+    StatsSnapshot first = statsService.getSnapshot();
+    assertSame(first, statsService.getSnapshot());
+    verify(probeRollupService, times(1)).getTargetSummaries(any());
+
+    when(batchRunCoordinator.getCompletedCycles()).thenReturn(2L);
+    assertNotSame(first, statsService.getSnapshot());
+    verify(probeRollupService, times(2)).getTargetSummaries(any());
+  }
+}
\ No newline at end of file
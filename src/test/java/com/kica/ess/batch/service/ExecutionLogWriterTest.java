@@ -0,0 +1,74 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.entity.ExecutionLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionLogWriterTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private ProbeRollupService rollupService;
+  private ExecutionLogWriter writer;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+        "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.update("INSERT INTO target_servers (id, name, url, method) VALUES (1, 'api', 'http://api', 'GET')");
+
+    rollupService = new ProbeRollupService();
+    ReflectionTestUtils.setField(rollupService, "jdbcTemplate", jdbcTemplate);
+    ResponseBodyStore bodyStore = new ResponseBodyStore();
+    ReflectionTestUtils.setField(bodyStore, "jdbcTemplate", jdbcTemplate);
+
+    writer = new ExecutionLogWriter();
+    ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+    ReflectionTestUtils.setField(writer, "transactionManager", new DataSourceTransactionManager(dataSource));
+    ReflectionTestUtils.setField(writer, "batchProperties", new BatchProperties());
+    ReflectionTestUtils.setField(writer, "probeRollupService", rollupService);
+    ReflectionTestUtils.setField(writer, "responseBodyStore", bodyStore);
+    ReflectionTestUtils.setField(writer, "probeMetrics", new ProbeMetrics());
+  }
+
+  private static ExecutionLog log(Long targetServerId, boolean success) {
+    ExecutionLog log = new ExecutionLog();
+    log.setTargetServerId(targetServerId);
+    log.setServerName("api");
+    log.setSuccess(success);
+    log.setElapsedTimeMs(100L);
+    log.setExecutionTime(LocalDateTime.now());
+    return log;
+  }
+
+  @Test
+  void testFailingRowDoesNotDropTheRestOfTheBatch() {
+    // Act - target 2 does not exist, so its row breaks the foreign key
+    writer.start();
+    assertTrue(writer.enqueue(log(1L, true)));
+    assertTrue(writer.enqueue(log(2L, true)));
+    assertTrue(writer.enqueue(log(1L, false)));
+    writer.stop();
+
+    // Assert - only the bad row was dropped; the others and their rollups were written
+    assertEquals(2L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM execution_logs", Long.class));
+    assertEquals(2, rollupService.getSummary(LocalDateTime.now().minusMinutes(5)).getTotalCount());
+    Map<String, Object> stats = writer.getStats();
+    assertEquals(2L, stats.get("written"));
+    assertEquals(1L, stats.get("failed"));
+  }
+}
\ No newline at end of file
@@ -1,88 +1,113 @@
 package com.kica.ess.batch.service;
 
 import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.CycleContext;
 import com.kica.ess.batch.dto.HealthCheckResult;
+import com.kica.ess.batch.entity.TargetServer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class HealthCheckServiceTest {
 
   @Mock
-  private BatchProperties batchProperties;
+  private TargetInventory targetInventory;
 
   @Mock
-  private WebClient webClient;
+  private ExecutionLogWriter executionLogWriter;
 
   @Mock
-  private ObjectMapper objectMapper;
+  private RecentResultStore recentResultStore;
 
   @Mock
-  private WebClient.RequestHeadersUriSpec requestHeadersUriSpec;
+  private BatchProperties batchProperties;
 
-  @Mock
-  private WebClient.RequestHeadersSpec requestHeadersSpec;
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper();
 
-  @Mock
-  private WebClient.ResponseSpec responseSpec;
+  @Spy
+  private CircuitBreakerRegistry circuitBreakerRegistry = new CircuitBreakerRegistry();
+
+  @Spy
+  private ProbeMetrics probeMetrics = new ProbeMetrics();
 
   @InjectMocks
   private HealthCheckService healthCheckService;
 
+  private BatchProperties.Pool pool;
+  private TargetServer server2;
+
   @BeforeEach
   void setUp() {
+    // Pre-warm is off unless a test turns it on
+    pool = new BatchProperties.Pool();
+    pool.setPrewarm(false);
+    lenient().when(batchProperties.getPool()).thenReturn(pool);
+
     // Setup mock target servers
-    BatchProperties.TargetServer server1 = new BatchProperties.TargetServer();
-    server1.setName("Test Server 1");
-    server1.setUrl("http://test1.com/health");
-    server1.setMethod("GET");
-    server1.setTimeout(5000);
-
-    BatchProperties.TargetServer server2 = new BatchProperties.TargetServer();
-    server2.setName("Test Server 2");
-    server2.setUrl("http://test2.com/status");
-    server2.setMethod("POST");
-    server2.setTimeout(3000);
-    server2.setBody("{\"service\":\"test\"}");
-
-    when(batchProperties.getTargetServers()).thenReturn(Arrays.asList(server1, server2));
+    TargetServer server1 = new TargetServer("Test Server 1", "http://test1.com/health", "GET");
+    server1.setId(1L);
+    server1.setTimeout(5000L);
+
+    server2 = new TargetServer("Test Server 2", "http://test2.com/status", "POST");
+    server2.setId(2L);
+    server2.setTimeout(3000L);
+    server2.setRequestBody("{\"service\":\"test\"}");
+
+    when(targetInventory.getActiveServers()).thenReturn(Arrays.asList(server1, server2));
+  }
+
+  private void stubExchange(ExchangeFunction exchangeFunction) {
+    WebClient webClient = WebClient.builder().exchangeFunction(exchangeFunction).build();
+    ReflectionTestUtils.setField(healthCheckService, "probeWebClient", webClient);
+    ReflectionTestUtils.setField(healthCheckService, "coldProbeWebClient", webClient);
+  }
+
+  private static Mono<ClientResponse> jsonResponse(String body) {
+    return Mono.just(ClientResponse.create(HttpStatus.OK)
+        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .body(body)
+        .build());
+  }
+
+  private static HealthCheckResult findResult(List<HealthCheckResult> results, String serverName) {
+    return results.stream()
+        .filter(result -> serverName.equals(result.getServerName()))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("No result for " + serverName));
   }
 
   @Test
   void testSuccessfulHealthCheck() {
     // Arrange
     String mockResponse = "{\"status\":\"healthy\",\"version\":\"1.0\"}";
-
-    when(webClient.get()).thenReturn(requestHeadersUriSpec);
-    when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-    when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-    when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just(mockResponse));
-
-    when(webClient.post()).thenReturn(requestHeadersUriSpec);
-    when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-    when(requestHeadersSpec.header(anyString(), anyString())).thenReturn(requestHeadersSpec);
-    when(requestHeadersSpec.body(any())).thenReturn(requestHeadersSpec);
-
-    try {
-      when(objectMapper.readTree(mockResponse)).thenReturn(objectMapper.createObjectNode());
-    } catch (Exception e) {
-      // Mock exception handling
-    }
+    stubExchange(request -> jsonResponse(mockResponse));
 
     // Act
     List<HealthCheckResult> results = healthCheckService.performHealthCheck();
@@ -91,32 +116,27 @@ class HealthCheckServiceTest {
     assertNotNull(results);
     assertEquals(2, results.size());
 
-    HealthCheckResult result1 = results.get(0);
-    assertEquals("Test Server 1", result1.getServerName());
+    HealthCheckResult result1 = findResult(results, "Test Server 1");
+    assertEquals(Long.valueOf(1L), result1.getTargetServerId());
     assertEquals("http://test1.com/health", result1.getUrl());
     assertEquals("GET", result1.getMethod());
     assertTrue(result1.isSuccess());
+    assertEquals(200, result1.getStatusCode());
     assertNotNull(result1.getResponse());
+    assertNotNull(result1.getResponseJson());
 
-    HealthCheckResult result2 = results.get(1);
-    assertEquals("Test Server 2", result2.getServerName());
+    HealthCheckResult result2 = findResult(results, "Test Server 2");
     assertEquals("http://test2.com/status", result2.getUrl());
     assertEquals("POST", result2.getMethod());
     assertTrue(result2.isSuccess());
+
+    verify(executionLogWriter, times(2)).enqueue(any());
   }
 
   @Test
   void testFailedHealthCheck() {
     // Arrange
-    when(webClient.get()).thenReturn(requestHeadersUriSpec);
-    when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-    when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-    when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.error(new RuntimeException("Connection timeout")));
-
-    when(webClient.post()).thenReturn(requestHeadersUriSpec);
-    when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-    when(requestHeadersSpec.header(anyString(), anyString())).thenReturn(requestHeadersSpec);
-    when(requestHeadersSpec.body(any())).thenReturn(requestHeadersSpec);
+    stubExchange(request -> Mono.error(new RuntimeException("Connection timeout")));
 
     // Act
     List<HealthCheckResult> results = healthCheckService.performHealthCheck();
@@ -132,23 +152,61 @@ class HealthCheckServiceTest {
     }
   }
 
+  @Test
+  void testErrorStatusIsRecordedAsFailure() {
+    // Arrange
+    stubExchange(request -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE)
+        .body("{\"status\":\"down\"}")
+        .build()));
+
+    // Act
+    List<HealthCheckResult> results = healthCheckService.performHealthCheck();
+
+    // Assert - the real status code and body are kept even though the check failed
+    for (HealthCheckResult result : results) {
+      assertFalse(result.isSuccess());
+      assertEquals(503, result.getStatusCode());
+      assertEquals("HTTP 503 Service Unavailable", result.getErrorMessage());
+      assertEquals("{\"status\":\"down\"}", result.getResponse());
+    }
+  }
+
+  @Test
+  void testCircuitOpensAfterConsecutiveFailures() {
+    // Arrange
+    AtomicInteger requests = new AtomicInteger();
+    stubExchange(request -> {
+      requests.incrementAndGet();
+      return Mono.error(new RuntimeException("Connection refused"));
+    });
+    int threshold = new BatchProperties.CircuitBreaker().getFailureThreshold();
+
+    // Act - fail enough cycles to open both circuits, then run one more
+    for (int i = 0; i < threshold; i++) {
+      healthCheckService.performHealthCheck();
+    }
+    List<HealthCheckResult> results = healthCheckService.performHealthCheck();
+
+    // Assert - the last cycle made no requests and reported the targets as skipped
+    assertEquals(threshold * 2, requests.get());
+    for (HealthCheckResult result : results) {
+      assertFalse(result.isSuccess());
+      assertTrue(result.isCircuitOpen());
+    }
+    assertEquals(CircuitBreakerRegistry.State.OPEN, circuitBreakerRegistry.getState(1L));
+
+    // Probes skipped behind an open circuit still count as failures, so the target's downtime shows up
+    verify(recentResultStore, times((threshold + 1) * 2)).record(any(HealthCheckResult.class));
+    verify(executionLogWriter, times(2)).enqueue(argThat(log -> Boolean.TRUE.equals(log.getCircuitOpen()) &&
+        Boolean.FALSE.equals(log.getSkipped()) && Boolean.FALSE.equals(log.getSuccess())));
+  }
+
   @Test
   void testSlowResponse() {
     // Arrange
     String mockResponse = "{\"status\":\"healthy\"}";
     long slowDelay = 2000; // 2 seconds
-
-    when(webClient.get()).thenReturn(requestHeadersUriSpec);
-    when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-    when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-    when(responseSpec.bodyToMono(String.class)).thenReturn(
-        Mono.just(mockResponse).delayElement(java.time.Duration.ofMillis(slowDelay))
-    );
-
-    when(webClient.post()).thenReturn(requestHeadersUriSpec);
-    when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-    when(requestHeadersSpec.header(anyString(), anyString())).thenReturn(requestHeadersSpec);
-    when(requestHeadersSpec.body(any())).thenReturn(requestHeadersSpec);
+    stubExchange(request -> jsonResponse(mockResponse).delayElement(Duration.ofMillis(slowDelay)));
 
     // Act
     List<HealthCheckResult> results = healthCheckService.performHealthCheck();
@@ -163,4 +221,126 @@ class HealthCheckServiceTest {
       assertTrue(result.isSlowResponse(1000)); // 1 second threshold
     }
   }
+
+  @Test
+  void testLargeResponseKeepsOnlyPrefix() {
+    // Arrange
+    StringBuilder body = new StringBuilder();
+    while (body.length() < 10000) {
+      body.append("0123456789");
+    }
+    stubExchange(request -> jsonResponse(body.toString()));
+
+    // Act
+    List<HealthCheckResult> results = healthCheckService.performHealthCheck();
+
+    // Assert
+    for (HealthCheckResult result : results) {
+      assertTrue(result.isSuccess());
+      assertEquals(10000, result.getResponseBytes());
+      assertTrue(result.isResponseTruncated());
+      assertEquals(new BatchProperties.Probe().getCaptureLimitBytes(), result.getResponse().length());
+      assertEquals(64, result.getResponseHash().length());
+      assertNull(result.getResponseJson());
+    }
+  }
+
+  @Test
+  void testPrewarmOpensConnectionsForWarmTargetsOnly() {
+    // Arrange
+    pool.setPrewarm(true);
+    server2.setLatencyMode(TargetServer.LATENCY_COLD);
+    List<String> requests = new CopyOnWriteArrayList<>();
+    stubExchange(request -> {
+      requests.add(request.method() + " " + request.url());
+      return jsonResponse("{}");
+    });
+
+    long now = System.currentTimeMillis();
+    CycleContext cycle = new CycleContext("cycle-1", "test", CycleContext.TRIGGER_CRON, now, now + 5000);
+
+    // Act
+    List<HealthCheckResult> results = healthCheckService.performHealthCheck(healthCheckService.getCycleServers(), cycle);
+
+    // Assert - one HEAD for the warm target before any probe, none for the cold target
+    assertEquals(2, results.size());
+    assertEquals(3, requests.size());
+    assertEquals("HEAD http://test1.com/health", requests.get(0));
+    assertFalse(requests.contains("HEAD http://test2.com/status"));
+
+    // Runs without a cycle (timing wheel, check-now) probe directly
+    requests.clear();
+    healthCheckService.performHealthCheck(healthCheckService.getCycleServers());
+    assertEquals(2, requests.size());
+    assertFalse(requests.contains("HEAD http://test1.com/health"));
+  }
+
+  @Test
+  void testPendingProbesAreSkippedAtCycleDeadline() {
+    // Arrange
+    stubExchange(request -> jsonResponse("{}").delayElement(Duration.ofMillis(3000)));
+    long now = System.currentTimeMillis();
+    CycleContext cycle = new CycleContext("cycle-1", "test", "cron", now, now + 500);
+
+    // Act
+    long start = System.currentTimeMillis();
+    List<HealthCheckResult> results = healthCheckService.performHealthCheck(healthCheckService.getCycleServers(), cycle);
+    long cycleTime = System.currentTimeMillis() - start;
+
+    // Assert - in-flight probes were cancelled at the deadline and reported as skipped
+    assertTrue(cycleTime < 3000, "cycle took " + cycleTime + "ms");
+    assertEquals(2, results.size());
+    for (HealthCheckResult result : results) {
+      assertTrue(result.isSkipped());
+      assertFalse(result.isSuccess());
+      assertEquals("skipped: deadline", result.getErrorMessage());
+    }
+    verify(executionLogWriter, times(2)).enqueue(any());
+  }
+
+  @Test
+  void testSpreadProbesStartAtStableOffsets() {
+    // Arrange
+    BatchProperties.Schedule schedule = new BatchProperties.Schedule();
+    schedule.setSpreadProbes(true);
+    schedule.setSpreadRatio(0.5);
+    when(batchProperties.getSchedule()).thenReturn(schedule);
+
+    Map<String, Long> startedAt = new ConcurrentHashMap<>();
+    stubExchange(request -> {
+      startedAt.put(request.url().getHost(), System.currentTimeMillis());
+      return jsonResponse("{}");
+    });
+    long now = System.currentTimeMillis();
+    CycleContext cycle = new CycleContext("cycle-1", "test", CycleContext.TRIGGER_CRON, now, now + 2000);
+
+    // Act
+    List<HealthCheckResult> results = healthCheckService.performHealthCheck(healthCheckService.getCycleServers(), cycle);
+
+    // Assert - each target started at its own offset within the 1000ms spread window
+    assertEquals(2, results.size());
+    assertEquals(1000, healthCheckService.getSpreadWindowMs(cycle));
+    long offset1 = startedAt.get("test1.com") - now;
+    long offset2 = startedAt.get("test2.com") - now;
+    assertTrue(offset1 >= ProbeOffsets.stableOffset(1L, 1000), "test1 started at +" + offset1 + "ms");
+    assertTrue(offset2 >= ProbeOffsets.stableOffset(2L, 1000), "test2 started at +" + offset2 + "ms");
+    assertTrue(offset1 < ProbeOffsets.stableOffset(1L, 1000) + 500, "test1 started at +" + offset1 + "ms");
+    assertTrue(offset2 < ProbeOffsets.stableOffset(2L, 1000) + 500, "test2 started at +" + offset2 + "ms");
+  }
+
+  @Test
+  void testProbesRunConcurrently() {
+    // Arrange
+    long delay = 1500;
+    stubExchange(request -> jsonResponse("{}").delayElement(Duration.ofMillis(delay)));
+
+    // Act
+    long start = System.currentTimeMillis();
+    List<HealthCheckResult> results = healthCheckService.performHealthCheck();
+    long cycleTime = System.currentTimeMillis() - start;
+
+    // Assert - cycle time tracks the slowest target, not the sum of all targets
+    assertEquals(2, results.size());
+    assertTrue(cycleTime < delay * 2, "cycle took " + cycleTime + "ms");
+  }
 }
\ No newline at end of file
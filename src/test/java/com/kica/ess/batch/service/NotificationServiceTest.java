@@ -0,0 +1,173 @@
+package com.kica.ess.batch.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.HealthCheckResult;
+import com.kica.ess.batch.dto.HealthTransition;
+import com.kica.ess.batch.dto.Notification;
+import com.kica.ess.batch.dto.TargetHealthState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class NotificationServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private NotificationService service;
+
+  @AfterEach
+  void tearDown() {
+    if (service != null) {
+      service.stop();
+    }
+  }
+
+  @Test
+  void testSlowChannelDelaysNeitherCallerNorOtherChannels() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    RecordingChannel slow = new RecordingChannel("slow", release);
+    RecordingChannel fast = new RecordingChannel("fast", null);
+    service = newService(1, slow, fast);
+
+    for (int i = 0; i < 3; i++) {
+      long start = System.currentTimeMillis();
+      service.notifyBatchError("error " + i);
+      assertTrue(System.currentTimeMillis() - start < 1000);
+      // The fast channel keeps delivering while the slow one is stuck on the first notification
+      assertTrue(fast.awaitDeliveries(i + 1));
+    }
+
+    // The slow channel holds one in delivery and one in its queue, and drops the rest
+    Map<String, Object> slowStats = stats("slow");
+    assertEquals(1L, slowStats.get("dropped"));
+    assertEquals(0L, slowStats.get("sent"));
+    assertEquals(0L, stats("fast").get("dropped"));
+
+    release.countDown();
+  }
+
+  @Test
+  void testFileChannelAppendsOneJsonLinePerNotification() throws Exception {
+    Path file = tempDir.resolve("out/notifications.ndjson");
+    BatchProperties batchProperties = new BatchProperties();
+    batchProperties.setNotification(new BatchProperties.Notification());
+    batchProperties.getNotification().getFile().setEnabled(true);
+    batchProperties.getNotification().getFile().setPath(file.toString());
+
+    FileNotificationChannel channel = new FileNotificationChannel();
+    ReflectionTestUtils.setField(channel, "batchProperties", batchProperties);
+    ReflectionTestUtils.setField(channel, "objectMapper", new ObjectMapper());
+    assertTrue(channel.isEnabled());
+
+    HealthCheckResult result = new HealthCheckResult("api", "http://api/health");
+    result.setTargetServerId(7L);
+    result.setErrorMessage("Connection refused");
+    HealthTransition transition = new HealthTransition(result, TargetHealthState.UP, TargetHealthState.DOWN, 3, 0L);
+
+    channel.send(AlertMessages.stateChange(Collections.singletonList(transition), 1000L));
+    channel.send(AlertMessages.batchError("boom"));
+
+    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    assertEquals(2, lines.size());
+    JsonNode first = new ObjectMapper().readTree(lines.get(0));
+    assertEquals(Notification.TYPE_STATE_CHANGE, first.get("type").asText());
+    assertEquals("api is DOWN", first.get("title").asText());
+    assertEquals("DOWN", first.get("transitions").get(0).get("to").asText());
+    assertEquals(7L, first.get("transitions").get(0).get("targetServerId").asLong());
+    assertFalse(first.get("text").asText().contains("*"));
+    assertEquals(Notification.TYPE_BATCH_ERROR, new ObjectMapper().readTree(lines.get(1)).get("type").asText());
+  }
+
+  @Test
+  void testTelegramDropIsReportedAsFailedDelivery() throws Exception {
+    BatchProperties batchProperties = new BatchProperties();
+    batchProperties.setTelegram(new BatchProperties.Telegram());
+    batchProperties.getTelegram().setEnabled(true);
+    AlertDispatcher alertDispatcher = mock(AlertDispatcher.class);
+    when(alertDispatcher.dispatch(anyString())).thenReturn(false);
+
+    TelegramService telegram = new TelegramService();
+    ReflectionTestUtils.setField(telegram, "batchProperties", batchProperties);
+    ReflectionTestUtils.setField(telegram, "alertDispatcher", alertDispatcher);
+    service = newService(10, telegram);
+
+    service.notifyBatchError("boom");
+    verify(alertDispatcher, timeout(5000)).dispatch(anyString());
+    long deadline = System.currentTimeMillis() + 5000;
+    while ((Long) stats("telegram").get("failed") == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1L, stats("telegram").get("failed"));
+    assertEquals(0L, stats("telegram").get("sent"));
+  }
+
+  private NotificationService newService(int queueCapacity, NotificationChannel... channels) {
+    BatchProperties batchProperties = new BatchProperties();
+    batchProperties.setNotification(new BatchProperties.Notification());
+    batchProperties.getNotification().setQueueCapacity(queueCapacity);
+
+    NotificationService notificationService = new NotificationService();
+    ReflectionTestUtils.setField(notificationService, "batchProperties", batchProperties);
+    ReflectionTestUtils.setField(notificationService, "channels", Arrays.asList(channels));
+    ReflectionTestUtils.setField(notificationService, "probeMetrics", new ProbeMetrics());
+    notificationService.start();
+    return notificationService;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> stats(String channel) {
+    return (Map<String, Object>) service.getStats().get(channel);
+  }
+
+  private static final class RecordingChannel implements NotificationChannel {
+    private final String name;
+    private final CountDownLatch release;
+    private final AtomicInteger deliveries = new AtomicInteger();
+
+    private RecordingChannel(String name, CountDownLatch release) {
+      this.name = name;
+      this.release = release;
+    }
+
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public boolean isEnabled() { return true; }
+
+    @Override
+    public void send(Notification notification) throws Exception {
+      if (release != null) {
+        release.await(10, TimeUnit.SECONDS);
+      }
+      deliveries.incrementAndGet();
+    }
+
+    boolean awaitDeliveries(int expected) throws InterruptedException {
+      long deadline = System.currentTimeMillis() + 5000;
+      while (deliveries.get() < expected && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      return deliveries.get() >= expected;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.dto.HealthCheckResult;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProbeMetricsTest {
+
+  private SimpleMeterRegistry registry;
+  private ProbeMetrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    metrics = new ProbeMetrics();
+    ReflectionTestUtils.setField(metrics, "meterRegistry", registry);
+    metrics.init();
+  }
+
+  @Test
+  void testRecordsLatencyAndOutcomesPerTarget() {
+    metrics.recordProbe(result(1L, "api", true, 120));
+    metrics.recordProbe(result(1L, "api", true, 80));
+    metrics.recordProbe(result(1L, "api", false, 5000));
+    metrics.recordProbe(result(2L, "web", true, 40));
+
+    Timer api = registry.get(ProbeMetrics.PROBE_LATENCY).tag("target", "api").timer();
+    assertEquals(3, api.count());
+    assertEquals(5000, api.max(TimeUnit.MILLISECONDS), 0.001);
+    assertEquals(2.0, registry.get(ProbeMetrics.PROBE_RESULTS).tags("target", "api", "outcome", "success").counter().count());
+    assertEquals(1.0, registry.get(ProbeMetrics.PROBE_RESULTS).tags("target", "api", "outcome", "failure").counter().count());
+    assertEquals(1, registry.get(ProbeMetrics.PROBE_LATENCY).tag("target", "web").timer().count());
+    assertEquals(4, registry.get(ProbeMetrics.PROBE_LATENCY_DISTRIBUTION).timer().count());
+
+    // Skipped probes only count by reason, never as per-target latency
+    HealthCheckResult circuitOpen = result(1L, "api", false, 0);
+    circuitOpen.setCircuitOpen(true);
+    metrics.recordProbe(circuitOpen);
+    assertEquals(1.0, registry.get(ProbeMetrics.PROBE_SKIPPED).tag("reason", "circuit_open").counter().count());
+    assertEquals(3, api.count());
+
+    metrics.probeStarted();
+    metrics.probeStarted();
+    metrics.probeFinished();
+    assertEquals(1.0, registry.get(ProbeMetrics.PROBES_IN_FLIGHT).gauge().value());
+  }
+
+  @Test
+  void testRenamedAndRemovedTargetsRetireTheirMeters() {
+    metrics.recordProbe(result(1L, "api", true, 100));
+    metrics.recordProbe(result(1L, "api-v2", true, 100));
+
+    assertNull(registry.find(ProbeMetrics.PROBE_LATENCY).tag("target", "api").timer());
+    assertEquals(1, registry.get(ProbeMetrics.PROBE_LATENCY).tag("target", "api-v2").timer().count());
+
+    metrics.remove(1L);
+    assertNull(registry.find(ProbeMetrics.PROBE_LATENCY).timer());
+    assertNull(registry.find(ProbeMetrics.PROBE_RESULTS).counter());
+  }
+
+  @Test
+  void testTargetsSharingANameKeepSeparateMeters() {
+    metrics.recordProbe(result(1L, "api", true, 100));
+    metrics.recordProbe(result(2L, "api", true, 200));
+    metrics.recordProbe(result(2L, "api", true, 300));
+
+    assertEquals(1, registry.get(ProbeMetrics.PROBE_LATENCY).tags("target_id", "1", "target", "api").timer().count());
+    assertEquals(2, registry.get(ProbeMetrics.PROBE_LATENCY).tags("target_id", "2", "target", "api").timer().count());
+
+    // Deleting one target leaves the other one's series in the scrape
+    metrics.remove(1L);
+    assertNull(registry.find(ProbeMetrics.PROBE_LATENCY).tag("target_id", "1").timer());
+    assertEquals(2, registry.get(ProbeMetrics.PROBE_LATENCY).tag("target_id", "2").timer().count());
+    metrics.recordProbe(result(2L, "api", false, 5000));
+    assertEquals(1.0, registry.get(ProbeMetrics.PROBE_RESULTS).tags("target_id", "2", "outcome", "failure").counter().count());
+  }
+
+  private static HealthCheckResult result(Long id, String name, boolean success, long elapsedMs) {
+    HealthCheckResult result = new HealthCheckResult(name, "http://" + name + "/health");
+    result.setTargetServerId(id);
+    result.setSuccess(success);
+    result.setElapsedTime(elapsedMs);
+    return result;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,232 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.dto.LatencyHistogram;
+import com.kica.ess.batch.dto.RollupSummary;
+import com.kica.ess.batch.entity.ExecutionLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProbeRollupServiceTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private ProbeRollupService rollupService;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+        "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.update("INSERT INTO target_servers (id, name, url, method) VALUES (1, 'api', 'http://api', 'GET')");
+
+    rollupService = new ProbeRollupService();
+    ReflectionTestUtils.setField(rollupService, "jdbcTemplate", jdbcTemplate);
+  }
+
+  private static ExecutionLog log(boolean success, long elapsedMs, LocalDateTime time) {
+    ExecutionLog log = new ExecutionLog();
+    log.setTargetServerId(1L);
+    log.setServerName("api");
+    log.setSuccess(success);
+    log.setElapsedTimeMs(elapsedMs);
+    log.setExecutionTime(time);
+    return log;
+  }
+
+  private void runBackfill() {
+    rollupService.prepareBackfill();
+    while (rollupService.backfillChunk()) {
+      assertTrue(rollupService.isBackfillPending());
+    }
+    assertFalse(rollupService.isBackfillPending());
+  }
+
+  @Test
+  void testBatchesAccumulateIntoExistingBuckets() {
+    LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+    rollupService.accumulate(Arrays.asList(log(true, 80, now), log(true, 300, now)));
+    rollupService.accumulate(Arrays.asList(log(false, 5000, now), log(true, 1200, now.minusMinutes(1))));
+
+    RollupSummary summary = rollupService.getSummary(now.minusMinutes(5));
+    assertEquals(4, summary.getTotalCount());
+    assertEquals(3, summary.getSuccessCount());
+    assertEquals(1, summary.getFailureCount());
+    assertEquals(Long.valueOf(80), summary.getLatencyMinMs());
+    assertEquals(Long.valueOf(1200), summary.getLatencyMaxMs());
+    assertEquals((80 + 300 + 1200) / 3, summary.getAverageLatencyMs());
+    assertEquals(1, summary.getHistogram()[RollupSummary.bucketIndex(80)]);
+    assertEquals(1, summary.getHistogram()[RollupSummary.bucketIndex(300)]);
+    assertEquals(1, summary.getHistogram()[RollupSummary.bucketIndex(1200)]);
+
+    Long minuteRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM probe_rollup_minute", Long.class);
+    assertEquals(Long.valueOf(2), minuteRows);
+  }
+
+  @Test
+  void testSummaryWindowExcludesOlderBuckets() {
+    LocalDateTime now = LocalDateTime.now();
+    rollupService.accumulate(Arrays.asList(log(true, 100, now), log(true, 100, now.minusHours(30))));
+
+    assertEquals(1, rollupService.getSummary(now.minusHours(24)).getTotalCount());
+    assertEquals(2, rollupService.getSummary(now.minusHours(48)).getTotalCount());
+  }
+
+  @Test
+  void testBackfillRebuildsRollupsFromRawLogs() {
+    LocalDateTime now = LocalDateTime.now();
+    jdbcTemplate.update("INSERT INTO execution_logs (target_server_id, server_name, success, elapsed_time_ms, execution_time) " +
+        "VALUES (1, 'api', TRUE, 200, ?), (1, 'api', FALSE, 4000, ?)", now, now.minusHours(2));
+
+    runBackfill();
+
+    RollupSummary summary = rollupService.getSummary(now.minusHours(3));
+    assertEquals(2, summary.getTotalCount());
+    assertEquals(1, summary.getSuccessCount());
+    assertEquals(200, summary.getAverageLatencyMs());
+    assertEquals(200, summary.getLatencyPercentileMs(99), 200 / 16);
+  }
+
+  @Test
+  void testBackfillResumesAfterRestartAndStopsAtCutoff() {
+    LocalDateTime now = LocalDateTime.now();
+    jdbcTemplate.update("INSERT INTO execution_logs (target_server_id, server_name, success, elapsed_time_ms, execution_time) " +
+        "VALUES (1, 'api', TRUE, 200, ?)", now);
+    rollupService.prepareBackfill();
+    assertTrue(rollupService.isBackfillPending());
+
+    // Logs written after startup belong to the writer, not the backfill
+    rollupService.accumulate(Arrays.asList(log(true, 300, now)));
+    jdbcTemplate.update("INSERT INTO execution_logs (target_server_id, server_name, success, elapsed_time_ms, execution_time) " +
+        "VALUES (1, 'api', TRUE, 300, ?)", now);
+
+    // A restarted service picks up the unfinished rebuild instead of treating the rollups as done
+    ProbeRollupService restarted = new ProbeRollupService();
+    ReflectionTestUtils.setField(restarted, "jdbcTemplate", jdbcTemplate);
+    restarted.prepareBackfill();
+    assertTrue(restarted.isBackfillPending());
+    while (restarted.backfillChunk()) {
+      // next chunk
+    }
+
+    assertEquals(2, restarted.getSummary(now.minusHours(1)).getTotalCount());
+    restarted.prepareBackfill();
+    assertFalse(restarted.isBackfillPending());
+  }
+
+  @Test
+  void testSkippedProbesAreNotCounted() {
+    LocalDateTime now = LocalDateTime.now();
+    ExecutionLog skipped = log(false, 0, now);
+    skipped.setSkipped(true);
+    rollupService.accumulate(Arrays.asList(log(true, 100, now), skipped));
+
+    RollupSummary summary = rollupService.getSummary(now.minusMinutes(5));
+    assertEquals(1, summary.getTotalCount());
+    assertEquals(0, summary.getFailureCount());
+
+    jdbcTemplate.update("DELETE FROM probe_rollup_minute");
+    jdbcTemplate.update("DELETE FROM probe_rollup_hour");
+    jdbcTemplate.update("INSERT INTO execution_logs (target_server_id, server_name, success, elapsed_time_ms, " +
+        "execution_time, skipped) VALUES (1, 'api', TRUE, 100, ?, FALSE), (1, 'api', FALSE, 0, ?, TRUE)", now, now);
+    runBackfill();
+
+    assertEquals(1, rollupService.getSummary(now.minusMinutes(5)).getTotalCount());
+  }
+
+  @Test
+  void testCircuitOpenProbesCountAsFailures() {
+    LocalDateTime now = LocalDateTime.now();
+    ExecutionLog circuitOpen = log(false, 0, now);
+    circuitOpen.setCircuitOpen(true);
+    rollupService.accumulate(Arrays.asList(log(true, 100, now), circuitOpen));
+
+    RollupSummary summary = rollupService.getSummary(now.minusMinutes(5));
+    assertEquals(2, summary.getTotalCount());
+    assertEquals(1, summary.getFailureCount());
+    assertEquals(100, summary.getAverageLatencyMs());
+  }
+
+  @Test
+  void testPercentilesMergeAcrossBatchesAndTargets() {
+    jdbcTemplate.update("INSERT INTO target_servers (id, name, url, method) VALUES (2, 'web', 'http://web', 'GET')");
+    LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+    for (int i = 1; i <= 100; i++) {
+      rollupService.accumulate(Arrays.asList(log(true, i * 10L, now)));
+    }
+    ExecutionLog other = log(true, 5000, now);
+    other.setTargetServerId(2L);
+    rollupService.accumulate(Arrays.asList(other));
+
+    Map<Long, RollupSummary> targets = rollupService.getTargetSummaries(now.minusMinutes(5));
+    RollupSummary api = targets.get(1L);
+    assertEquals(100, api.getLatencyHistogram().getTotalCount());
+    assertEquals(500, api.getLatencyPercentileMs(50), 500 / 16);
+    assertEquals(990, api.getLatencyPercentileMs(99), 990 / 16);
+    assertEquals(1000, api.getLatencyPercentileMs(100));
+    assertEquals(5000, targets.get(2L).getLatencyPercentileMs(50), 5000 / 16);
+
+    assertEquals(101, rollupService.getSummary(now.minusMinutes(5)).getLatencyHistogram().getTotalCount());
+  }
+
+  @Test
+  void testSlowCountEstimateFromHistogram() {
+    RollupSummary summary = new RollupSummary();
+    summary.add(true, 200L);
+    summary.add(true, 12000L);
+    summary.add(true, 40000L);
+
+    assertEquals(2, summary.estimateCountAbove(10000));
+    assertEquals(3, summary.estimateCountAbove(100));
+  }
+
+  @Test
+  void testHistogramPercentilesStayWithinBucketError() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+
+    assertEquals(500, histogram.getValueAtPercentile(50), 500 / 16.0);
+    assertEquals(950, histogram.getValueAtPercentile(95), 950 / 16.0);
+    assertEquals(990, histogram.getValueAtPercentile(99), 990 / 16.0);
+    assertEquals(1000, histogram.getValueAtPercentile(100));
+    assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+  }
+
+  @Test
+  void testHistogramMergeSurvivesSerialization() {
+    LatencyHistogram fast = new LatencyHistogram();
+    LatencyHistogram slow = new LatencyHistogram();
+    for (int i = 0; i < 90; i++) {
+      fast.record(20);
+    }
+    for (int i = 0; i < 10; i++) {
+      slow.record(4000);
+    }
+
+    LatencyHistogram merged = LatencyHistogram.fromBytes(fast.toBytes());
+    merged.merge(LatencyHistogram.fromBytes(slow.toBytes()));
+
+    assertEquals(100, merged.getTotalCount());
+    assertEquals(4000, merged.getMaxValue());
+    assertEquals(20, merged.getValueAtPercentile(90));
+    assertEquals(4000, merged.getValueAtPercentile(95), 4000 / 16.0);
+    assertTrue(fast.toBytes().length < 16);
+    assertEquals(0, LatencyHistogram.fromBytes(null).getTotalCount());
+  }
+}
\ No newline at end of file
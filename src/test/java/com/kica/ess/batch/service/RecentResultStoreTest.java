@@ -0,0 +1,92 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.RecentResult;
+import com.kica.ess.batch.dto.RecentResultSummary;
+import com.kica.ess.batch.repository.ExecutionLogRepository;
+import com.kica.ess.batch.repository.TargetServerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecentResultStoreTest {
+
+  private RecentResultStore store;
+
+  @BeforeEach
+  void setUp() {
+    BatchProperties.Probe probe = new BatchProperties.Probe();
+    probe.setRecentResultCapacity(70); // spans two words of success bits
+    BatchProperties batchProperties = new BatchProperties();
+    batchProperties.setProbe(probe);
+
+    TargetServerRepository targetServerRepository = mock(TargetServerRepository.class);
+    when(targetServerRepository.findAll()).thenReturn(Collections.emptyList());
+
+    store = new RecentResultStore();
+    ReflectionTestUtils.setField(store, "batchProperties", batchProperties);
+    ReflectionTestUtils.setField(store, "targetServerRepository", targetServerRepository);
+    ReflectionTestUtils.setField(store, "executionLogRepository", mock(ExecutionLogRepository.class));
+    store.init();
+  }
+
+  @Test
+  void testKeepsOnlyTheNewestResultsNewestFirst() {
+    for (int i = 0; i < 100; i++) {
+      store.record(1L, 1000L + i, i, 200, i % 2 == 0);
+    }
+
+    List<RecentResult> recent = store.getRecent(1L, 500);
+    assertEquals(70, recent.size());
+    assertEquals(1099L, recent.get(0).getTimestamp());
+    assertEquals(99, recent.get(0).getLatencyMs());
+    assertFalse(recent.get(0).isSuccess());
+    assertEquals(1030L, recent.get(69).getTimestamp());
+    assertTrue(recent.get(69).isSuccess());
+
+    assertEquals(3, store.getRecent(1L, 3).size());
+    assertTrue(store.getRecent(2L, 10).isEmpty());
+  }
+
+  @Test
+  void testSummaryCountsStreakAndSuccessLatency() {
+    store.record(1L, 1L, 100, 200, true);
+    store.record(1L, 2L, 300, 200, true);
+    store.record(1L, 3L, 5000, 503, false);
+    store.record(1L, 4L, 5000, 0, false);
+
+    RecentResultSummary summary = store.getSummary(1L);
+    assertEquals(4, summary.getCount());
+    assertEquals(2, summary.getSuccessCount());
+    assertEquals(50.0, summary.getSuccessRate(), 0.001);
+    assertEquals(200, summary.getAverageLatencyMs());
+    assertEquals(300, summary.getMaxLatencyMs());
+    assertEquals(2, summary.getConsecutiveFailures());
+    assertEquals(4L, summary.getLast().getTimestamp());
+
+    store.record(1L, 5L, 120, 200, true);
+    assertEquals(0, store.getSummary(1L).getConsecutiveFailures());
+    assertNull(store.getSummary(2L));
+  }
+
+  @Test
+  void testOverwrittenSlotsClearTheirSuccessBit() {
+    for (int i = 0; i < 70; i++) {
+      store.record(1L, i, 10, 200, true);
+    }
+    for (int i = 0; i < 70; i++) {
+      store.record(1L, 100 + i, 10, 500, false);
+    }
+
+    RecentResultSummary summary = store.getSummary(1L);
+    assertEquals(70, summary.getCount());
+    assertEquals(0, summary.getSuccessCount());
+    assertEquals(70, summary.getConsecutiveFailures());
+  }
+}
\ No newline at end of file
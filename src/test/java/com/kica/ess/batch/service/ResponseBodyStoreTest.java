@@ -0,0 +1,104 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.entity.ExecutionLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBodyStoreTest {
+
+  private static final String HEALTH_BODY = "{\"status\":\"UP\",\"components\":{\"db\":{\"status\":\"UP\"}," +
+      "\"diskSpace\":{\"status\":\"UP\"},\"ping\":{\"status\":\"UP\"},\"redis\":{\"status\":\"UP\"}}}";
+
+  private JdbcTemplate jdbcTemplate;
+  private ResponseBodyStore bodyStore;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+        "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+
+    bodyStore = new ResponseBodyStore();
+    ReflectionTestUtils.setField(bodyStore, "jdbcTemplate", jdbcTemplate);
+  }
+
+  private static ExecutionLog log(String body) {
+    ExecutionLog log = new ExecutionLog();
+    log.setResponseBody(body);
+    return log;
+  }
+
+  private long storedBodies() {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM response_bodies", Long.class);
+  }
+
+  @Test
+  void testIdenticalBodiesAreStoredOnce() {
+    ExecutionLog first = log(HEALTH_BODY);
+    ExecutionLog second = log(HEALTH_BODY);
+    ExecutionLog empty = log(null);
+
+    bodyStore.store(Arrays.asList(first, second, empty));
+    bodyStore.store(Collections.singletonList(log(HEALTH_BODY)));
+
+    assertEquals(1, storedBodies());
+    assertNotNull(first.getResponseHash());
+    assertEquals(64, first.getResponseHash().length());
+    assertEquals(first.getResponseHash(), second.getResponseHash());
+    assertNull(empty.getResponseHash());
+    assertEquals(1L, bodyStore.getStats().get("bodiesStored"));
+    assertEquals(2L, bodyStore.getStats().get("bodiesReused"));
+  }
+
+  @Test
+  void testBodyIsKeyedByTheProbeResponseHash() {
+    // A truncated capture: the hash covers the full response, the body is only its prefix
+    String fullBodyHash = ResponseBodyStore.sha256((HEALTH_BODY + "...").getBytes(StandardCharsets.UTF_8));
+    ExecutionLog truncated = log(HEALTH_BODY);
+    truncated.setResponseHash(fullBodyHash);
+
+    bodyStore.store(Collections.singletonList(truncated));
+
+    assertEquals(fullBodyHash, truncated.getResponseHash());
+    assertEquals(HEALTH_BODY, bodyStore.load(fullBodyHash));
+  }
+
+  @Test
+  void testBodiesRoundTripThroughCompression() {
+    ExecutionLog large = log(HEALTH_BODY);
+    ExecutionLog tiny = log("OK");
+    bodyStore.store(Arrays.asList(large, tiny));
+
+    assertEquals(ResponseBodyStore.COMPRESSION_GZIP, jdbcTemplate.queryForObject(
+        "SELECT compression FROM response_bodies WHERE body_hash = ?", String.class, large.getResponseHash()));
+    assertEquals(ResponseBodyStore.COMPRESSION_NONE, jdbcTemplate.queryForObject(
+        "SELECT compression FROM response_bodies WHERE body_hash = ?", String.class, tiny.getResponseHash()));
+
+    assertEquals(HEALTH_BODY, bodyStore.load(large.getResponseHash()));
+    assertEquals("OK", bodyStore.load(tiny.getResponseHash()));
+    assertNull(bodyStore.load("missing"));
+  }
+
+  @Test
+  void testAttachBodyFillsTransientBody() {
+    ExecutionLog written = log(HEALTH_BODY);
+    bodyStore.store(Collections.singletonList(written));
+
+    ExecutionLog loaded = new ExecutionLog();
+    loaded.setResponseHash(written.getResponseHash());
+    assertEquals(HEALTH_BODY, bodyStore.attachBody(loaded).getResponseBody());
+  }
+}
\ No newline at end of file
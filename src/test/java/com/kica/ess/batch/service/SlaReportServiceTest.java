@@ -0,0 +1,83 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.RollupSummary;
+import com.kica.ess.batch.dto.ServerSlaReport;
+import com.kica.ess.batch.dto.SlaStats;
+import com.kica.ess.batch.entity.TargetServer;
+import com.kica.ess.batch.exception.NotFoundException;
+import com.kica.ess.batch.job.BatchRunCoordinator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SlaReportServiceTest {
+
+  private ProbeRollupService probeRollupService;
+  private SlaReportService slaReportService;
+
+  private static TargetServer server(long id, String name) {
+    TargetServer server = new TargetServer(name, "http://" + name, "GET");
+    server.setId(id);
+    server.setEnabled(true);
+    return server;
+  }
+
+  @BeforeEach
+  void setUp() {
+    // 2000 checks with 1 failure against a 99.9% objective uses half of the 2-failure budget
+    RollupSummary api = new RollupSummary();
+    for (int i = 0; i < 1999; i++) {
+      api.add(true, 100L + i % 100);
+    }
+    api.add(false, null);
+
+    probeRollupService = mock(ProbeRollupService.class);
+    when(probeRollupService.getTargetSummaries(any())).thenReturn(Collections.singletonMap(1L, api));
+    TargetInventory targetInventory = mock(TargetInventory.class);
+    when(targetInventory.getAllServers()).thenReturn(Arrays.asList(server(1, "api"), server(2, "web")));
+    BatchRunCoordinator batchRunCoordinator = mock(BatchRunCoordinator.class);
+    BatchProperties batchProperties = new BatchProperties();
+    batchProperties.setSla(new BatchProperties.Sla());
+
+    slaReportService = new SlaReportService();
+    ReflectionTestUtils.setField(slaReportService, "probeRollupService", probeRollupService);
+    ReflectionTestUtils.setField(slaReportService, "targetInventory", targetInventory);
+    ReflectionTestUtils.setField(slaReportService, "batchRunCoordinator", batchRunCoordinator);
+    ReflectionTestUtils.setField(slaReportService, "batchProperties", batchProperties);
+  }
+
+  @Test
+  void testReportCoversEveryTargetAndWindow() {
+    List<ServerSlaReport> reports = slaReportService.getReport();
+    assertEquals(2, reports.size());
+
+    SlaStats day = reports.get(0).getWindows().get("24h");
+    assertEquals(99.95, day.getUptimePercent(), 0.0001);
+    assertEquals(50.0, day.getErrorBudgetConsumedPercent(), 0.0001);
+    assertFalse(day.isBudgetExhausted());
+    assertEquals(195, day.getP95LatencyMs(), 195 / 16);
+    assertEquals(SlaReportService.WINDOWS.keySet(), reports.get(0).getWindows().keySet());
+
+    SlaStats idle = reports.get(1).getWindows().get("30d");
+    assertNull(idle.getUptimePercent());
+    assertNull(idle.getErrorBudgetConsumedPercent());
+  }
+
+  @Test
+  void testReportIsCachedAndUnknownTargetFails() {
+    slaReportService.getReport();
+    slaReportService.getReport(1L);
+    verify(probeRollupService, times(SlaReportService.WINDOWS.size())).getTargetSummaries(any());
+
+    assertThrows(NotFoundException.class, () -> slaReportService.getReport(99L));
+  }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.Notification;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmtpNotificationChannelTest {
+
+  @Test
+  void testDeliversMessageToStandInServer() throws Exception {
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      CompletableFuture<List<String>> session = CompletableFuture.supplyAsync(() -> serve(server, false));
+
+      SmtpNotificationChannel channel = newChannel(server.getLocalPort());
+      channel.send(AlertMessages.batchError("Connection pool exhausted"));
+
+      List<String> received = session.get(5, TimeUnit.SECONDS);
+      assertTrue(received.get(0).startsWith("EHLO "));
+      assertEquals("MAIL FROM:<batch@example.com>", received.get(1));
+      assertEquals("RCPT TO:<ops@example.com>", received.get(2));
+      assertEquals("RCPT TO:<dev@example.com>", received.get(3));
+      assertEquals("DATA", received.get(4));
+      assertEquals("QUIT", received.get(received.size() - 1));
+
+      // Body is base64 text between the blank line after the headers and the terminating dot
+      int blank = received.indexOf("");
+      int end = received.lastIndexOf(".");
+      String body = new String(Base64.getMimeDecoder().decode(String.join("", received.subList(blank + 1, end))),
+          StandardCharsets.UTF_8);
+      assertTrue(body.contains("Batch Execution Error"));
+      assertTrue(body.contains("Connection pool exhausted"));
+      assertFalse(body.contains("*"));
+    }
+  }
+
+  @Test
+  void testRejectedRecipientFailsTheSend() throws Exception {
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      CompletableFuture.runAsync(() -> serve(server, true));
+
+      SmtpNotificationChannel channel = newChannel(server.getLocalPort());
+      Notification notification = new Notification(Notification.TYPE_BATCH_ERROR, "t", "x", Collections.emptyList());
+      IOException e = assertThrows(IOException.class, () -> channel.send(notification));
+      assertTrue(e.getMessage().contains("550"));
+    }
+  }
+
+  @Test
+  void testRefusesCredentialsWithoutTls() {
+    SmtpNotificationChannel channel = newChannel(25);
+    BatchProperties batchProperties = (BatchProperties) ReflectionTestUtils.getField(channel, "batchProperties");
+    batchProperties.getNotification().getSmtp().setUsername("batch");
+    batchProperties.getNotification().getSmtp().setPassword("secret");
+
+    Notification notification = new Notification(Notification.TYPE_BATCH_ERROR, "t", "x", Collections.emptyList());
+    IOException e = assertThrows(IOException.class, () -> channel.send(notification));
+    assertTrue(e.getMessage().contains("unencrypted"));
+  }
+
+  private SmtpNotificationChannel newChannel(int port) {
+    BatchProperties.Smtp smtp = new BatchProperties.Smtp();
+    smtp.setEnabled(true);
+    smtp.setHost("127.0.0.1");
+    smtp.setPort(port);
+    smtp.setFrom("batch@example.com");
+    smtp.setTo(Arrays.asList("ops@example.com", "dev@example.com"));
+    smtp.setTimeoutMs(3000);
+    BatchProperties batchProperties = new BatchProperties();
+    batchProperties.setNotification(new BatchProperties.Notification());
+    batchProperties.getNotification().setSmtp(smtp);
+
+    SmtpNotificationChannel channel = new SmtpNotificationChannel();
+    ReflectionTestUtils.setField(channel, "batchProperties", batchProperties);
+    assertTrue(channel.isEnabled());
+    return channel;
+  }
+
+  /**
+   * Minimal stand-in SMTP server for one session; returns every line the client sent.
+   */
+  private static List<String> serve(ServerSocket server, boolean rejectRecipients) {
+    List<String> lines = new ArrayList<>();
+    try (Socket socket = server.accept()) {
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      OutputStream out = socket.getOutputStream();
+      reply(out, "220 stand-in ready");
+      boolean inData = false;
+      String line;
+      while ((line = in.readLine()) != null) {
+        lines.add(line);
+        if (inData) {
+          if (line.equals(".")) {
+            inData = false;
+            reply(out, "250 queued");
+          }
+        } else if (line.startsWith("EHLO")) {
+          reply(out, "250-stand-in\r\n250 8BITMIME");
+        } else if (line.startsWith("RCPT") && rejectRecipients) {
+          reply(out, "550 no such user");
+        } else if (line.equals("DATA")) {
+          inData = true;
+          reply(out, "354 go ahead");
+        } else if (line.equals("QUIT")) {
+          reply(out, "221 bye");
+          break;
+        } else {
+          reply(out, "250 ok");
+        }
+      }
+    } catch (IOException e) {
+      // Client closed the connection
+    }
+    return lines;
+  }
+
+  private static void reply(OutputStream out, String reply) throws IOException {
+    out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    out.flush();
+  }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.config.BatchProperties;
+import com.kica.ess.batch.dto.HealthCheckResult;
+import com.kica.ess.batch.dto.HealthTransition;
+import com.kica.ess.batch.dto.TargetHealthState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TargetHealthTrackerTest {
+
+  private static final long MINUTE = 60_000L;
+
+  private TargetHealthTracker tracker;
+
+  @BeforeEach
+  void setUp() {
+    BatchProperties.Timeout timeout = new BatchProperties.Timeout();
+    timeout.setThreshold(1000L);
+    BatchProperties batchProperties = new BatchProperties();
+    batchProperties.setTimeout(timeout);
+    batchProperties.setHealthState(new BatchProperties.HealthState());
+
+    tracker = new TargetHealthTracker();
+    ReflectionTestUtils.setField(tracker, "batchProperties", batchProperties);
+  }
+
+  @Test
+  void testGoesDownOnceAfterThresholdAndRecovers() {
+    assertTrue(observe(1, false, 0).isEmpty());
+    assertTrue(observe(2, false, 0).isEmpty());
+
+    List<HealthTransition> down = observe(3, false, 0);
+    assertEquals(1, down.size());
+    assertEquals(TargetHealthState.UP, down.get(0).getFrom());
+    assertEquals(TargetHealthState.DOWN, down.get(0).getTo());
+    assertEquals(3, down.get(0).getConsecutiveFailures());
+
+    // Staying down is not a change
+    for (int minute = 4; minute < 10; minute++) {
+      assertTrue(observe(minute, false, 0).isEmpty());
+    }
+    assertEquals(TargetHealthState.DOWN, tracker.getState(1L));
+
+    assertTrue(observe(10, true, 100).isEmpty());
+    List<HealthTransition> up = observe(11, true, 100);
+    assertEquals(1, up.size());
+    assertEquals(TargetHealthState.DOWN, up.get(0).getFrom());
+    assertEquals(TargetHealthState.UP, up.get(0).getTo());
+    assertEquals(8 * MINUTE, up.get(0).getPreviousStateDurationMs());
+  }
+
+  @Test
+  void testConsecutiveSlowResponsesDegrade() {
+    observe(1, true, 1500);
+    observe(2, true, 100);
+    observe(3, true, 1500);
+    observe(4, true, 1500);
+    assertEquals(TargetHealthState.UP, tracker.getState(1L));
+
+    List<HealthTransition> degraded = observe(5, true, 1500);
+    assertEquals(1, degraded.size());
+    assertEquals(TargetHealthState.DEGRADED, degraded.get(0).getTo());
+    assertEquals(1500, degraded.get(0).getElapsedTime());
+    assertEquals(1, (int) tracker.getStateCounts().get(TargetHealthState.DEGRADED));
+  }
+
+  @Test
+  void testRapidChangesFlapAndSettleAfterWindow() {
+    long minute = 0;
+    int changes = 0;
+    List<HealthTransition> flapping = Collections.emptyList();
+    // Alternate between down and up until flap detection trips
+    while (flapping.isEmpty() && minute < 40) {
+      boolean success = (minute / 3) % 2 == 1;
+      List<HealthTransition> transitions = observe(++minute, success, 100);
+      changes += transitions.size();
+      if (!transitions.isEmpty() && transitions.get(transitions.size() - 1).getTo() == TargetHealthState.FLAPPING) {
+        flapping = transitions;
+      }
+    }
+    assertFalse(flapping.isEmpty());
+    assertEquals(4, changes); // DOWN, UP, DOWN, then FLAPPING instead of a fourth plain change
+
+    // Further swings inside the window are held
+    for (int i = 0; i < 6; i++) {
+      assertTrue(observe(++minute, i % 3 != 0, 100).isEmpty());
+    }
+    assertEquals(TargetHealthState.FLAPPING, tracker.getState(1L));
+
+    // Once the window passes without a change it settles to the underlying state
+    for (int i = 0; i < 3; i++) {
+      observe(++minute, true, 100);
+    }
+    List<HealthTransition> settled = Collections.emptyList();
+    for (int i = 0; i < 40 && settled.isEmpty(); i++) {
+      settled = observe(++minute, true, 100);
+    }
+    assertEquals(1, settled.size());
+    assertEquals(TargetHealthState.FLAPPING, settled.get(0).getFrom());
+    assertEquals(TargetHealthState.UP, settled.get(0).getTo());
+
+    tracker.remove(1L);
+    assertTrue(tracker.getStates().isEmpty());
+  }
+
+  private List<HealthTransition> observe(long minute, boolean success, long elapsedMs) {
+    HealthCheckResult result = new HealthCheckResult("api", "http://api/health");
+    result.setTargetServerId(1L);
+    result.setSuccess(success);
+    result.setElapsedTime(elapsedMs);
+    result.setEndTime(minute * MINUTE);
+    if (!success) {
+      result.setErrorMessage("Connection refused");
+    }
+    return tracker.observe(Collections.singletonList(result));
+  }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.kica.ess.batch.service;
+
+import com.kica.ess.batch.entity.TargetServer;
+import com.kica.ess.batch.repository.TargetServerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TargetInventoryTest {
+
+  private TargetServerRepository targetServerRepository;
+  private TargetInventory inventory;
+
+  private static TargetServer server(long id, String environment, boolean enabled) {
+    TargetServer server = new TargetServer("server-" + id, "http://server-" + id, "GET");
+    server.setId(id);
+    server.setEnvironment(environment);
+    server.setEnabled(enabled);
+    server.setCreatedAt(LocalDateTime.now().plusSeconds(id));
+    return server;
+  }
+
+  @BeforeEach
+  void setUp() {
+    targetServerRepository = mock(TargetServerRepository.class);
+    when(targetServerRepository.findAll()).thenReturn(Arrays.asList(
+        server(1, "dev", true), server(2, "prod", true), server(3, null, true), server(4, "dev", false)));
+
+    inventory = new TargetInventory();
+    ReflectionTestUtils.setField(inventory, "targetServerRepository", targetServerRepository);
+    ReflectionTestUtils.setField(inventory, "activeProfile", "dev");
+  }
+
+  @Test
+  void testReadsShareOneLoad() {
+    assertEquals(2, inventory.getActiveServerCount());
+    assertEquals(4, inventory.getTotalServerCount());
+    assertEquals(Long.valueOf(4), inventory.getAllServers().get(0).getId());
+    assertEquals(Arrays.asList(3L, 2L), Arrays.asList(
+        inventory.getActiveServers("prod").get(0).getId(), inventory.getActiveServers("prod").get(1).getId()));
+    assertThrows(UnsupportedOperationException.class, () -> inventory.getActiveServers().clear());
+
+    verify(targetServerRepository, times(1)).findAll();
+  }
+
+  @Test
+  void testInvalidateReloadsOnNextRead() {
+    assertEquals(2, inventory.getActiveServerCount());
+
+    when(targetServerRepository.findAll()).thenReturn(Collections.singletonList(server(1, "dev", true)));
+    inventory.invalidate();
+
+    assertEquals(1, inventory.getActiveServerCount());
+    assertEquals(1, inventory.getTotalServerCount());
+    verify(targetServerRepository, times(2)).findAll();
+  }
+}
\ No newline at end of file